@@ -0,0 +1,104 @@
+package eu.decentsoftware.dropdatabase.benchmark;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.connector.SQLiteConnector;
+import eu.decentsoftware.dropdatabase.connector.SQLiteSettings;
+import eu.decentsoftware.dropdatabase.connector.SQLiteSnapshotSettings;
+import eu.decentsoftware.dropdatabase.pool.PoolSettings;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * An in-process SQLite database used by the benchmarks, either stored in a temporary
+ * file or in memory. The database contains a single table mapped by {@link BenchmarkUser}.
+ * <p>
+ * The {@link #WAL} mode uses a file tuned by the default {@link SQLiteSettings}, the {@link #SNAPSHOT}
+ * mode keeps the database in memory and persists it to a temporary file.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+final class BenchmarkDatabase {
+
+    static final String FILE = "file";
+    static final String MEMORY = "memory";
+    static final String WAL = "wal";
+    static final String SNAPSHOT = "snapshot";
+
+    static final PreparedQuery INSERT_USER = PreparedQuery.of(
+            "INSERT OR REPLACE INTO `users` (`id`, `name`, `age`, `balance`, `active`) VALUES (?, ?, ?, ?, ?)");
+
+    private final DatabaseManager databaseManager;
+    private final File file;
+
+    /**
+     * Open a new, empty database.
+     *
+     * @param mode         One of {@link #FILE}, {@link #MEMORY}, {@link #WAL} or {@link #SNAPSHOT}.
+     * @param poolSettings The settings of the connection pool, or null to share one connection.
+     */
+    BenchmarkDatabase(@NotNull String mode, PoolSettings poolSettings) {
+        if (MEMORY.equals(mode)) {
+            this.file = null;
+        } else {
+            try {
+                this.file = File.createTempFile("dropdatabase-benchmark", ".db");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.file.deleteOnExit();
+        }
+        SQLiteSettings settings = null;
+        if (WAL.equals(mode)) {
+            settings = SQLiteSettings.builder().build();
+        } else if (SNAPSHOT.equals(mode)) {
+            settings = SQLiteSettings.builder().setSnapshot(SQLiteSnapshotSettings.builder().build()).build();
+        }
+        this.databaseManager = DatabaseManager.builder()
+                .setConnector(new SQLiteConnector(file == null ? SQLiteConnector.MEMORY : file.getAbsolutePath(), settings))
+                .setPoolSettings(poolSettings)
+                .build();
+        this.databaseManager.executeUpdate(PreparedQuery.of("CREATE TABLE `users` (`id` INTEGER PRIMARY KEY, "
+                + "`name` VARCHAR(32), `age` INTEGER, `balance` DOUBLE, `active` BOOLEAN)"));
+    }
+
+    @NotNull
+    DatabaseManager getDatabaseManager() {
+        return databaseManager;
+    }
+
+    /**
+     * Insert the users with ids from 1 to the given count.
+     *
+     * @param count The number of users.
+     */
+    void populate(int count) {
+        databaseManager.executeUpdate(PreparedQuery.of("BEGIN"));
+        for (int id = 1; id <= count; id++) {
+            insert(new BenchmarkUser(id));
+        }
+        databaseManager.executeUpdate(PreparedQuery.of("COMMIT"));
+    }
+
+    void insert(@NotNull BenchmarkUser user) {
+        databaseManager.executeUpdate(INSERT_USER, user.getId(), user.getName(), user.getAge(), user.getBalance(), user.isActive());
+    }
+
+    void close() {
+        databaseManager.close();
+        if (file != null) {
+            // The WAL mode leaves the journal files next to the database.
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                File journal = new File(file.getPath() + suffix);
+                if (journal.exists() && !journal.delete()) {
+                    journal.deleteOnExit();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+package eu.decentsoftware.dropdatabase.benchmark;
+
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import lombok.Getter;
+
+/**
+ * The ORM object used by the benchmarks. It covers the common column types.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@Getter
+@DatabaseTable(name = "users", database = "")
+public class BenchmarkUser {
+
+    @DatabaseColumn(name = "id", type = "INTEGER", primaryKey = true)
+    private final long id;
+    @DatabaseColumn(name = "name", type = "VARCHAR(32)")
+    private final String name;
+    @DatabaseColumn(name = "age", type = "INTEGER")
+    private final int age;
+    @DatabaseColumn(name = "balance", type = "DOUBLE")
+    private final double balance;
+    @DatabaseColumn(name = "active", type = "BOOLEAN")
+    private final boolean active;
+
+    public BenchmarkUser(long id) {
+        this.id = id;
+        this.name = "user-" + id;
+        this.age = (int) (id % 100);
+        this.balance = id * 1.5;
+        this.active = id % 2 == 0;
+    }
+
+}
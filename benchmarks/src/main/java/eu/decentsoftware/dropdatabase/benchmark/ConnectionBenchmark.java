@@ -0,0 +1,66 @@
+package eu.decentsoftware.dropdatabase.benchmark;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.pool.PoolSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of {@link DatabaseManager#getConnection()}, with a shared
+ * connection and with a connection pool.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionBenchmark {
+
+    @Param({"shared", "pool"})
+    private String provider;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager databaseManager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        PoolSettings poolSettings = "pool".equals(provider) ? PoolSettings.builder().build() : null;
+        database = new BenchmarkDatabase(BenchmarkDatabase.FILE, poolSettings);
+        databaseManager = database.getDatabaseManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Connection getConnection() throws SQLException {
+        Connection connection = databaseManager.getConnection();
+        if ("pool".equals(provider)) {
+            // Borrowed from the pool, return it. The shared connection must stay open.
+            connection.close();
+        }
+        return connection;
+    }
+
+}
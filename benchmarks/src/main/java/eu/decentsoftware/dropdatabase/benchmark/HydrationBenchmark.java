@@ -0,0 +1,159 @@
+package eu.decentsoftware.dropdatabase.benchmark;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.internal.EntityDescriptor;
+import eu.decentsoftware.dropdatabase.internal.ORMUtil;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of hydrating loaded rows into objects, in rows per second. All of them
+ * read the same result of {@link #ROWS} rows from an in-memory database:
+ * <ul>
+ *     <li>{@link #reflective()} is the original path, that reads every column using
+ *     {@link ResultSet#getObject(String)} and writes it using {@link Field#set(Object, Object)}.</li>
+ *     <li>{@link #methodHandles()} resolves the column indices once and uses the typed readers
+ *     and method handles of the {@link EntityDescriptor}, as classes without a mapper do.</li>
+ *     <li>{@link #mapper()} uses the mapper generated by the annotation processor.</li>
+ * </ul>
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(5)
+public class HydrationBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager databaseManager;
+    private EntityDescriptor<BenchmarkUser> descriptor;
+    private PreparedQuery selectAll;
+    private String[] columns;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new BenchmarkDatabase(BenchmarkDatabase.MEMORY, null);
+        database.populate(ROWS);
+        databaseManager = database.getDatabaseManager();
+        descriptor = EntityDescriptor.of(BenchmarkUser.class);
+        selectAll = PreparedQuery.of(descriptor.getSelectSql());
+        columns = ORMUtil.getColumnNames(BenchmarkUser.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<BenchmarkUser> reflective() {
+        return load((rs, objects) -> {
+            while (rs.next()) {
+                BenchmarkUser user = descriptor.newInstance();
+                for (String column : columns) {
+                    setFieldValue(user, column, rs.getObject(column));
+                }
+                objects.add(user);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<BenchmarkUser> methodHandles() {
+        return load((rs, objects) -> {
+            int[] indices = null;
+            List<EntityDescriptor.ColumnDescriptor> descriptors = descriptor.getColumns();
+            while (rs.next()) {
+                if (indices == null) {
+                    indices = descriptor.resolveIndices(rs);
+                }
+                BenchmarkUser user = descriptor.newInstance();
+                for (int i = 0; i < indices.length; i++) {
+                    descriptors.get(i).read(rs, indices[i], user);
+                }
+                objects.add(user);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<BenchmarkUser> mapper() {
+        return load((rs, objects) -> {
+            int[] indices = null;
+            while (rs.next()) {
+                if (indices == null) {
+                    indices = descriptor.resolveIndices(rs);
+                }
+                objects.add(descriptor.hydrate(rs, indices));
+            }
+        });
+    }
+
+    @NotNull
+    private List<BenchmarkUser> load(@NotNull RowReader reader) {
+        List<BenchmarkUser> objects = new ArrayList<>(ROWS);
+        databaseManager.executeQuery(selectAll, (rs) -> {
+            try {
+                reader.read(rs, objects);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return objects;
+    }
+
+    /**
+     * The original ORMUtil#setFieldValue, that looks the field up for every value. SQLite returns
+     * booleans as integers, which the original path could not write to a boolean field, so they
+     * are converted here.
+     */
+    private static void setFieldValue(@NotNull Object object, @NotNull String fieldName, Object value) {
+        try {
+            Field field = object.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            if (field.getType() == boolean.class && value instanceof Number) {
+                value = ((Number) value).intValue() != 0;
+            }
+            field.set(object, value);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+
+        void read(@NotNull ResultSet rs, @NotNull List<BenchmarkUser> objects) throws SQLException;
+
+    }
+
+}
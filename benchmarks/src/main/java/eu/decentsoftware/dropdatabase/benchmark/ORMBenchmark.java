@@ -0,0 +1,96 @@
+package eu.decentsoftware.dropdatabase.benchmark;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.internal.ORMUtil;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping objects to rows when saving them and rows to objects when loading them.
+ * The database is kept in memory, so that the mapping is not hidden by I/O.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ORMBenchmark {
+
+    @Param({"1000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager databaseManager;
+    private PreparedQuery selectById;
+    private BenchmarkUser user;
+    private List<BenchmarkUser> users;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new BenchmarkDatabase(BenchmarkDatabase.MEMORY, null);
+        database.populate(rows);
+        databaseManager = database.getDatabaseManager();
+        selectById = databaseManager.prepareORMQuery(BenchmarkUser.class, (builder) -> builder.setWhere("id = ?"));
+        user = new BenchmarkUser(42);
+        users = new ArrayList<>();
+        for (int id = 1; id <= 100; id++) {
+            users.add(new BenchmarkUser(id));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Object[] saveValues() {
+        return ORMUtil.getValues(user);
+    }
+
+    @Benchmark
+    public void save() {
+        databaseManager.saveORMObject(user);
+    }
+
+    @Benchmark
+    public void saveBatch() {
+        databaseManager.saveORMObjects(users, true);
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> loadAll() {
+        return databaseManager.loadORMObjects(BenchmarkUser.class, (builder) -> {});
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> loadById() {
+        return databaseManager.loadORMObjects(BenchmarkUser.class, (builder) -> builder.setWhere("id = ?").setValues(42));
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> loadByIdPrepared() {
+        return databaseManager.loadORMObjects(BenchmarkUser.class, selectById, 42);
+    }
+
+}
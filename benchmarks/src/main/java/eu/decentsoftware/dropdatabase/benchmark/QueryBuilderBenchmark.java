@@ -0,0 +1,139 @@
+package eu.decentsoftware.dropdatabase.benchmark;
+
+import eu.decentsoftware.dropdatabase.query.CreateTableQuery;
+import eu.decentsoftware.dropdatabase.query.DeleteQuery;
+import eu.decentsoftware.dropdatabase.query.InsertQuery;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
+import eu.decentsoftware.dropdatabase.query.SelectQuery;
+import eu.decentsoftware.dropdatabase.query.UpdateQuery;
+import eu.decentsoftware.dropdatabase.query.intent.ColumnValuePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the SQL generation of the query builders. The compiled query is the
+ * baseline, that all builders can be replaced with on hot paths.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuilderBenchmark {
+
+    private static final String[] COLUMNS = {"id", "name", "age", "balance", "active"};
+
+    private final PreparedQuery preparedSelect = SelectQuery.builder()
+            .setTable("users")
+            .setColumns(COLUMNS)
+            .setWhere("id = ?")
+            .build()
+            .prepare();
+
+    @Benchmark
+    public String select() {
+        return SelectQuery.builder()
+                .setDatabase("benchmark")
+                .setTable("users")
+                .setColumns(COLUMNS)
+                .setWhere("id = ?")
+                .setValues(1)
+                .build()
+                .toString();
+    }
+
+    @Benchmark
+    public String selectPrepared() {
+        return preparedSelect.toString();
+    }
+
+    @Benchmark
+    public String insert() {
+        return InsertQuery.builder()
+                .setTable("users")
+                .setColumns(row(1))
+                .build()
+                .toString();
+    }
+
+    @Benchmark
+    public String insertUpsert() {
+        return InsertQuery.builder()
+                .setTable("users")
+                .setColumns(row(1))
+                .setUpdateOnDuplicate(true)
+                .build()
+                .toString();
+    }
+
+    @Benchmark
+    public String insertBatch() {
+        InsertQuery.Builder builder = InsertQuery.builder()
+                .setTable("users")
+                .setColumns(row(0));
+        for (int i = 1; i < 100; i++) {
+            builder.addRow(row(i));
+        }
+        return builder.build().toString();
+    }
+
+    @Benchmark
+    public String update() {
+        return UpdateQuery.builder()
+                .setTable("users")
+                .setColumns(new ColumnValuePair("name", "John"), new ColumnValuePair("age", 20))
+                .setWhere("id = 1")
+                .build()
+                .toString();
+    }
+
+    @Benchmark
+    public String delete() {
+        return DeleteQuery.builder()
+                .setTable("users")
+                .setWhere("id = ?")
+                .values(1)
+                .build()
+                .toString();
+    }
+
+    @Benchmark
+    public String createTable() {
+        return CreateTableQuery.builder()
+                .setTable("users")
+                .setIfNotExists(true)
+                .addColumns(
+                        new CreateTableQuery.Column("id", "INTEGER", true, true, true, false, false),
+                        new CreateTableQuery.Column("name", "VARCHAR(32)"),
+                        new CreateTableQuery.Column("age", "INTEGER"),
+                        new CreateTableQuery.Column("balance", "DOUBLE"),
+                        new CreateTableQuery.Column("active", "BOOLEAN")
+                )
+                .build()
+                .toString();
+    }
+
+    private static ColumnValuePair[] row(int id) {
+        return new ColumnValuePair[]{
+                new ColumnValuePair("id", id),
+                new ColumnValuePair("name", "John"),
+                new ColumnValuePair("age", 20),
+                new ColumnValuePair("balance", 1.5),
+                new ColumnValuePair("active", true)
+        };
+    }
+
+}
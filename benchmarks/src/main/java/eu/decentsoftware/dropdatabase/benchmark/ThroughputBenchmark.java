@@ -0,0 +1,72 @@
+package eu.decentsoftware.dropdatabase.benchmark;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the end-to-end throughput of inserting and selecting rows in an in-process
+ * SQLite database, stored in a file, in a file in the WAL mode, in memory or in memory
+ * with periodic snapshots to a file.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThroughputBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({BenchmarkDatabase.FILE, BenchmarkDatabase.WAL, BenchmarkDatabase.MEMORY, BenchmarkDatabase.SNAPSHOT})
+    private String mode;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager databaseManager;
+    private PreparedQuery selectById;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new BenchmarkDatabase(mode, null);
+        database.populate(ROWS);
+        databaseManager = database.getDatabaseManager();
+        selectById = databaseManager.prepareORMQuery(BenchmarkUser.class, (builder) -> builder.setWhere("id = ?"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public void insert() {
+        // Replace existing rows, so that the table does not grow during the benchmark.
+        database.insert(new BenchmarkUser(nextId++ % ROWS + 1));
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> selectById() {
+        return databaseManager.loadORMObjects(BenchmarkUser.class, selectById, nextId++ % ROWS + 1);
+    }
+
+}
@@ -2,27 +2,80 @@ package eu.decentsoftware.dropdatabase;
 
 import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
 import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.async.AsyncExecutor;
+import eu.decentsoftware.dropdatabase.async.ExecutorSettings;
+import eu.decentsoftware.dropdatabase.async.WriteBehindBuffer;
+import eu.decentsoftware.dropdatabase.async.WriteBehindSettings;
+import eu.decentsoftware.dropdatabase.bulk.BulkLoadSettings;
+import eu.decentsoftware.dropdatabase.bulk.BulkLoader;
+import eu.decentsoftware.dropdatabase.cache.CacheCounters;
+import eu.decentsoftware.dropdatabase.cache.CacheStats;
+import eu.decentsoftware.dropdatabase.cache.ResultCacheSettings;
+import eu.decentsoftware.dropdatabase.columnar.ColumnType;
+import eu.decentsoftware.dropdatabase.columnar.ColumnarResult;
 import eu.decentsoftware.dropdatabase.connector.Connector;
+import eu.decentsoftware.dropdatabase.dialect.Dialect;
 import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
 import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
-import eu.decentsoftware.dropdatabase.internal.ORMUtil;
+import eu.decentsoftware.dropdatabase.internal.EntityDescriptor;
+import eu.decentsoftware.dropdatabase.internal.QueryObservation;
+import eu.decentsoftware.dropdatabase.internal.ResultCache;
+import eu.decentsoftware.dropdatabase.internal.SnapshotTracker;
+import eu.decentsoftware.dropdatabase.internal.StatementCache;
+import eu.decentsoftware.dropdatabase.listener.QueryEvent;
+import eu.decentsoftware.dropdatabase.listener.QueryListener;
+import eu.decentsoftware.dropdatabase.listener.QueryStatsListener;
+import eu.decentsoftware.dropdatabase.pool.ConnectionPool;
+import eu.decentsoftware.dropdatabase.pool.ConnectionProvider;
+import eu.decentsoftware.dropdatabase.pool.ManagedConnection;
+import eu.decentsoftware.dropdatabase.pool.PoolSettings;
+import eu.decentsoftware.dropdatabase.pool.PoolStats;
+import eu.decentsoftware.dropdatabase.pool.ReplicaConnectionProvider;
+import eu.decentsoftware.dropdatabase.pool.ReplicaSettings;
 import eu.decentsoftware.dropdatabase.query.CreateTableQuery;
 import eu.decentsoftware.dropdatabase.query.InsertQuery;
+import eu.decentsoftware.dropdatabase.query.KeysetPagination;
+import eu.decentsoftware.dropdatabase.query.Page;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
 import eu.decentsoftware.dropdatabase.query.Query;
 import eu.decentsoftware.dropdatabase.query.SelectQuery;
-import jdk.internal.misc.Unsafe;
+import eu.decentsoftware.dropdatabase.query.intent.ColumnValuePair;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class manages the connection to the database and provides methods to execute queries. It
@@ -40,72 +93,253 @@ import java.util.function.Consumer;
  * {@link #executeQuery(String, Consumer, Object...)} method or the {@link #executeUpdate(String, Object...)}
  * method, which will also handle the connection (and result set) for you.
  * <p>
+ * Queries executed often can be compiled once into a {@link PreparedQuery} using {@link Query#prepare()}
+ * and then executed with different values using {@link #executeQuery(PreparedQuery, Consumer, Object...)}
+ * or {@link #executeUpdate(PreparedQuery, Object...)}, without building the query again.
+ * <p>
  * You can also create multiple instances of this class, each with its own {@link Connector}. This
  * allows you to connect to multiple databases at the same time.
+ * <p>
+ * By default, all queries share a single connection. If you execute many queries concurrently, create
+ * the manager using {@link #builder()} with {@link PoolSettings}, so that each query borrows a connection
+ * from a {@link ConnectionPool}.
+ * <p>
+ * Most methods also have an asynchronous variant, such as {@link #executeQueryAsync(Query, Consumer)},
+ * that returns a {@link CompletableFuture} instead of blocking the calling thread. These are executed
+ * by an executor configured using {@link ExecutorSettings}.
+ * <p>
+ * To monitor the executed queries, register a {@link QueryListener} using {@link #addQueryListener(QueryListener)},
+ * such as the built-in {@link QueryStatsListener}, which keeps latency histograms and logs slow queries.
+ * <p>
+ * Results of queries, that change rarely, can be cached using {@link #executeCachedQuery(Query, Object, Function)}
+ * or {@link #loadCachedORMObjects(Class, Consumer)}, if the manager is created with {@link ResultCacheSettings}.
+ * Cached results are invalidated when a query executed by this manager writes to their table.
+ * <p>
+ * Queries reading data can be sent to replicas of the database, see {@link Builder#setReplicas(Connector...)}.
+ * <p>
+ * Multiple queries can be grouped into a single transaction using {@link #inTransaction(TransactionCallback)}.
+ * All queries executed by this manager on the same thread during the callback use the connection of the
+ * transaction and are committed at once.
+ * <p>
+ * If the manager is created with {@link Builder#setDirtyTracking(boolean) dirty tracking}, saving a loaded
+ * ORM object only writes the columns, that changed since it was loaded.
  *
  * @author Tomas Plansky
  * @since 1.0.0
  */
 public class DatabaseManager {
 
+    /**
+     * The maximum number of parameters in a single batched query. This is the lowest
+     * limit among the supported databases (SQLite).
+     */
+    private static final int MAX_BATCH_PARAMETERS = 32_766;
+
     private final @NonNull Connector connector;
-    private Connection connection;
+    private final @NonNull ConnectionProvider connectionProvider;
+    private final int statementCacheSize;
+    private final CacheCounters statementCacheCounters = new CacheCounters();
+    private final int batchSize;
+    private final int fetchSize;
+    private final @NonNull AsyncExecutor asyncExecutor;
+    private volatile QueryListener[] queryListeners = new QueryListener[0];
+    private final @Nullable ResultCache resultCache;
+    private final CacheCounters resultCacheCounters = new CacheCounters();
+    private final ThreadLocal<Transaction> currentTransaction = new ThreadLocal<>();
+    private final @Nullable WriteBehindBuffer writeBehindBuffer;
+    private final @Nullable SnapshotTracker snapshotTracker;
 
     /**
      * Create a new instance of {@link DatabaseManager}. This class manages the connection to the database
      * and provides methods to execute queries.
+     * <p>
+     * The created manager shares one connection between all callers. Use {@link #builder()} to
+     * create a manager backed by a {@link ConnectionPool} instead.
      *
      * @param connector The connector to the database.
      * @see Connector
      */
-    @Contract(pure = true)
     public DatabaseManager(@NonNull Connector connector) {
-        this.connector = connector;
+        this(builder().setConnector(connector));
+    }
+
+    /**
+     * Create a new instance of {@link DatabaseManager} from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private DatabaseManager(@NotNull Builder builder) {
+        if (builder.connector == null) {
+            throw new IllegalArgumentException("Connector must be set.");
+        }
+        this.connector = builder.connector;
+        this.statementCacheSize = builder.statementCacheSize;
+        this.batchSize = builder.batchSize;
+        this.fetchSize = builder.fetchSize;
+        this.resultCache = builder.resultCacheSettings == null ? null : new ResultCache(builder.resultCacheSettings, resultCacheCounters);
+        this.asyncExecutor = new AsyncExecutor(builder.executorSettings == null ? ExecutorSettings.builder().build() : builder.executorSettings);
+        this.connectionProvider = createConnectionProvider(builder);
+        this.snapshotTracker = builder.dirtyTracking ? new SnapshotTracker() : null;
+        this.writeBehindBuffer = builder.writeBehindSettings == null ? null : new WriteBehindBuffer(builder.writeBehindSettings, (objects) -> saveORMObjects(objects, true));
+    }
+
+    /**
+     * Creates the provider of the connections to the primary database and, if there are any
+     * replicas, the providers of the connections to the replicas.
+     *
+     * @param builder The builder.
+     * @return The connection provider.
+     * @throws SQLConnectionException If the initial connections could not be opened.
+     */
+    @NotNull
+    private static ConnectionProvider createConnectionProvider(@NotNull Builder builder) throws SQLConnectionException {
+        final ConnectionProvider primary = builder.connector.createConnectionProvider(builder.poolSettings);
+        if (builder.replicas == null || builder.replicas.length == 0) {
+            return primary;
+        }
+        final ConnectionProvider[] replicas = new ConnectionProvider[builder.replicas.length];
+        try {
+            for (int i = 0; i < replicas.length; i++) {
+                replicas[i] = builder.replicas[i].createConnectionProvider(builder.poolSettings);
+            }
+        } catch (SQLConnectionException e) {
+            for (ConnectionProvider replica : replicas) {
+                if (replica != null) {
+                    replica.close();
+                }
+            }
+            primary.close();
+            throw e;
+        }
+        return new ReplicaConnectionProvider(primary, replicas, builder.replicaSettings == null ? ReplicaSettings.builder().build() : builder.replicaSettings);
     }
 
     /**
      * Returns the connection to the database. This method will attempt to reconnect if the connection is closed
      * or invalid.
+     * <p>
+     * If this manager uses a {@link ConnectionPool}, the returned connection is borrowed from
+     * the pool, and you must close it to return it. Otherwise, the connection is shared, and you
+     * must not close it.
      *
      * @return The connection to the database.
      * @throws SQLConnectionException If the connection failed.
      */
     @NonNull
     public Connection getConnection() throws SQLConnectionException {
-        try {
-            if (connection != null && connection.isValid(5)) {
-                return connection;
-            }
+        return connectionProvider.getConnection();
+    }
 
-            connection = connector.connect();
-            if (connection == null || connection.isClosed()) {
-                throw new SQLConnectionException("Failed to connect to the database.");
-            }
+    /**
+     * Returns the dialect of the database, that is used to build the queries, that differ
+     * between databases. Pass it to the query builders, that support dialects, such as
+     * {@link InsertQuery.Builder#setDialect(Dialect)}.
+     *
+     * @return The dialect.
+     * @see Connector#getDialect()
+     */
+    @NotNull
+    public Dialect getDialect() {
+        return connector.getDialect();
+    }
 
-            return connection;
-        } catch (SQLException e) {
-            throw new SQLConnectionException("Failed to connect to the database.", e);
+    /**
+     * Returns a snapshot of the statistics of the connections used by this manager.
+     *
+     * @return The statistics.
+     * @see PoolStats
+     */
+    @NotNull
+    public PoolStats getPoolStats() {
+        return connectionProvider.getStats();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the prepared statement caches of all
+     * connections used by this manager.
+     *
+     * @return The statistics.
+     * @see Builder#setStatementCacheSize(int)
+     */
+    @NotNull
+    public CacheStats getStatementCacheStats() {
+        return statementCacheCounters.snapshot();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the cache of query results. If the manager
+     * has no result cache, all statistics are 0.
+     *
+     * @return The statistics.
+     * @see Builder#setResultCacheSettings(ResultCacheSettings)
+     */
+    @NotNull
+    public CacheStats getResultCacheStats() {
+        return resultCacheCounters.snapshot();
+    }
+
+    /**
+     * Invalidates the cached results of queries reading from the given table. Writes executed
+     * by this manager invalidate the results automatically. Use this method if the table was
+     * changed by someone else.
+     *
+     * @param table The table, or null to invalidate all cached results.
+     */
+    public void invalidateResultCache(@Nullable String table) {
+        if (resultCache != null) {
+            resultCache.invalidate(table);
+        }
+    }
+
+    /**
+     * Registers a listener, that is notified about every query executed by this manager.
+     *
+     * @param listener The listener.
+     * @see QueryStatsListener
+     */
+    public synchronized void addQueryListener(@NonNull QueryListener listener) {
+        QueryListener[] listeners = Arrays.copyOf(queryListeners, queryListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        queryListeners = listeners;
+    }
+
+    /**
+     * Unregisters a listener registered using {@link #addQueryListener(QueryListener)}.
+     *
+     * @param listener The listener.
+     * @return True if the listener was registered, false otherwise.
+     */
+    public synchronized boolean removeQueryListener(@NonNull QueryListener listener) {
+        List<QueryListener> listeners = new ArrayList<>(Arrays.asList(queryListeners));
+        if (!listeners.remove(listener)) {
+            return false;
         }
+        queryListeners = listeners.toArray(new QueryListener[0]);
+        return true;
     }
 
     /**
-     * Closes the connection to the database if it is open.
+     * Closes all connections to the database.
+     * <p>
+     * Objects waiting to be saved by {@link #saveORMObjectLater(Object)} are saved first.
+     * Asynchronous queries submitted before are executed first, for at most
+     * {@link ExecutorSettings#getShutdownTimeout()} milliseconds. Asynchronous
+     * queries submitted afterwards are rejected.
      *
      * @throws SQLConnectionException If the connection failed to close.
      */
     public void close() throws SQLConnectionException {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            throw new SQLConnectionException("Failed to close the connection.", e);
+        if (writeBehindBuffer != null) {
+            writeBehindBuffer.close();
         }
+        asyncExecutor.close();
+        connectionProvider.close();
     }
 
     /**
      * Executes a query to the database and handles the result. This method should be used
-     * for queries that return a result.
+     * for queries that return a result. The query is always executed on the primary database.
      *
      * @param query          The query to execute.
      * @param resultCallback The callback to handle the result.
@@ -113,54 +347,222 @@ public class DatabaseManager {
      * @throws SQLQueryException If the query failed.
      */
     protected void executeQuery(@NonNull String query, @NonNull Consumer<ResultSet> resultCallback, Object... args) throws SQLQueryException {
-        final Connection connection = getConnection();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            // Replace custom arguments with the actual values. (? -> value)
-            for (int i = 0; i < args.length; i++) {
-                ps.setObject(i + 1, args[i]);
-            }
+        executeQuery(query, false, resultCallback, args);
+    }
+
+    /**
+     * Executes a query to the database and handles the result.
+     * <p>
+     * If the query is read-only, it is executed on a connection acquired using
+     * {@link ConnectionProvider#acquireForRead(boolean)} outside of transactions,
+     * so it must not write anything.
+     *
+     * @param query          The query to execute.
+     * @param readOnly       Whether the query only reads data.
+     * @param resultCallback The callback to handle the result.
+     * @param args           The arguments to replace in the query.
+     * @throws SQLQueryException If the query failed.
+     */
+    private void executeQuery(@NotNull String query, boolean readOnly, @NotNull Consumer<ResultSet> resultCallback, Object[] args) throws SQLQueryException {
+        withConnection(false, readOnly, (connection, acquireNanos) -> {
+            final QueryObservation observation = QueryObservation.start(queryListeners, QueryEvent.Type.QUERY, query, args, acquireNanos);
+            final StatementCache statementCache = getStatementCache(connection);
+            PreparedStatement ps = null;
+            boolean reusable = false;
+            try {
+                ps = statementCache.prepare(query);
 
-            // Execute the query.
-            try (ResultSet rs = ps.executeQuery()) {
-                resultCallback.accept(rs);
+                // Replace custom arguments with the actual values. (? -> value)
+                bind(ps, args);
+
+                // Execute the query.
+                try (ResultSet rs = ps.executeQuery()) {
+                    resultCallback.accept(rs);
+                }
+                reusable = true;
+            } catch (SQLException | RuntimeException e) {
+                if (observation != null) {
+                    observation.failed(e);
+                }
+                throw e;
+            } finally {
+                if (ps != null) {
+                    statementCache.recycle(query, ps, reusable);
+                }
             }
-        } catch (SQLException e) {
-            throw new SQLQueryException("Failed to execute query.", e);
-        }
+            if (observation != null) {
+                observation.succeeded(-1);
+            }
+            return null;
+        });
     }
 
     /**
      * Executes a query to the database and handles the result. This method should be used
      * for queries that return a result.
+     * <p>
+     * A {@link SelectQuery} is read-only, so it can be sent to a replica of the database, see
+     * {@link Builder#setReplicas(Connector...)}. Other queries use the primary database.
      *
      * @param query          The query to execute.
      * @param resultCallback The callback to handle the result.
      * @throws SQLQueryException If the query failed.
      */
     public void executeQuery(@NonNull Query query, @NonNull Consumer<ResultSet> resultCallback) throws SQLQueryException {
-        executeQuery(query.toString(), resultCallback, query.getValues());
+        executeQuery(query.toString(), query instanceof SelectQuery, resultCallback, query.getValues());
     }
 
     /**
-     * Executes a query to the database. This method should be used for queries that do not
-     * return a result.
+     * Executes a compiled query to the database with the given values and handles the result.
+     * This method should be used for queries that return a result.
+     * <p>
+     * Only {@link PreparedQuery#isReadOnly() read-only} queries can be sent to a replica of the
+     * database, other queries use the primary database.
      *
-     * @param query The query to execute.
-     * @param args  The arguments to replace in the query.
+     * @param query          The query to execute.
+     * @param resultCallback The callback to handle the result.
+     * @param values         The values to replace the placeholders (?) in the query.
      * @throws SQLQueryException If the query failed.
+     * @see Query#prepare()
      */
-    protected void executeUpdate(@NonNull String query, Object... args) throws SQLQueryException {
-        final Connection connection = getConnection();
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            // Replace custom arguments with the actual values. (? -> value)
-            for (int i = 0; i < args.length; i++) {
-                ps.setObject(i + 1, args[i]);
-            }
+    public void executeQuery(@NonNull PreparedQuery query, @NonNull Consumer<ResultSet> resultCallback, Object... values) throws SQLQueryException {
+        executeQuery(query.toString(), query.isReadOnly(), resultCallback, values);
+    }
 
-            ps.executeUpdate();
+    /**
+     * Executes a query to the database and loads its result into primitive arrays, column by
+     * column. This method should be used for queries, that read many numeric rows, which would
+     * otherwise be read as an object per value.
+     * <p>
+     * Like {@link #streamORMObjects(Class, Consumer)}, the rows are fetched in chunks of
+     * {@link Builder#getFetchSize()} rows, so the driver does not hold the whole result meanwhile.
+     *
+     * @param query The query to execute.
+     * @param types The types of the selected columns, in the order of the query. Columns without a
+     *              type get a type by their SQL type, see {@link ColumnType#of(int)}.
+     * @return The result.
+     * @throws SQLQueryException If the query failed.
+     * @see ColumnarResult
+     */
+    @NotNull
+    public ColumnarResult executeColumnarQuery(@NonNull Query query, @Nullable ColumnType... types) throws SQLQueryException {
+        final ResultStream stream = openResultStream(query.toString(), query instanceof SelectQuery, query.getValues());
+        final ColumnarResult result;
+        try {
+            result = ColumnarResult.read(stream.resultSet, types);
         } catch (SQLException e) {
-            throw new SQLQueryException("Failed to execute query.", e);
+            stream.abort(e);
+            throw new SQLQueryException("Failed to read the result of the query.", e);
+        } catch (RuntimeException | Error e) {
+            stream.abort(e);
+            throw e;
+        }
+        stream.close();
+        return result;
+    }
+
+    /**
+     * Executes a query to the database and maps the result, or returns the cached result of an
+     * earlier execution of the same query with the same values. This method should be used for
+     * queries, whose result changes rarely.
+     * <p>
+     * Results are cached by the SQL and the values of the query, and by the given cache key, which
+     * identifies how the result is mapped. Use a different key for every mapper of the same query,
+     * e.g. a constant string, otherwise a mapper might get the result of another one. The mapped
+     * result is returned to all callers as it is, so it should be immutable. Cached results are invalidated when a query
+     * executed by this manager writes to the table of the query, see {@link Query#getTable()}.
+     * <p>
+     * If the manager has no result cache, the query is always executed.
+     *
+     * @param query        The query to execute.
+     * @param cacheKey     The key identifying the mapping of the result, compared using {@link Object#equals(Object)}.
+     * @param resultMapper The function to map the result.
+     * @param <T>          The type of the mapped result.
+     * @return The mapped result.
+     * @throws SQLQueryException If the query failed.
+     * @see Builder#setResultCacheSettings(ResultCacheSettings)
+     */
+    public <T> T executeCachedQuery(@NonNull Query query, @NonNull Object cacheKey, @NonNull Function<ResultSet, T> resultMapper) throws SQLQueryException {
+        return executeCachedQuery(query.toString(), query.getTable(), query instanceof SelectQuery, query.getValues(), cacheKey, resultMapper);
+    }
+
+    /**
+     * Executes a compiled query to the database with the given values and maps the result, or
+     * returns the cached result of an earlier execution of the same query with the same values.
+     *
+     * @param query        The query to execute.
+     * @param cacheKey     The key identifying the mapping of the result, compared using {@link Object#equals(Object)}.
+     * @param resultMapper The function to map the result.
+     * @param values       The values to replace the placeholders (?) in the query.
+     * @param <T>          The type of the mapped result.
+     * @return The mapped result.
+     * @throws SQLQueryException If the query failed.
+     * @see #executeCachedQuery(Query, Object, Function)
+     */
+    public <T> T executeCachedQuery(@NonNull PreparedQuery query, @NonNull Object cacheKey, @NonNull Function<ResultSet, T> resultMapper, Object... values) throws SQLQueryException {
+        return executeCachedQuery(query.toString(), query.getTable(), query.isReadOnly(), values, cacheKey, resultMapper);
+    }
+
+    private <T> T executeCachedQuery(@NotNull String query, @Nullable String table, boolean readOnly, Object[] values, @NotNull Object cacheKey,
+                                     @NotNull Function<ResultSet, T> resultMapper) throws SQLQueryException {
+        return cached(query, table, values, new MappedResultKey(cacheKey), () -> {
+            List<T> result = new ArrayList<>(1);
+            executeQuery(query, readOnly, (rs) -> result.add(resultMapper.apply(rs)), values);
+            return result.get(0);
+        });
+    }
+
+    /**
+     * Returns the cached result of the given query, or loads and caches it.
+     *
+     * @param query  The SQL of the query.
+     * @param table  The table the query reads from, or null if it is not known.
+     * @param values The values of the query.
+     * @param type   The key identifying the mapping of the result.
+     * @param loader The function to load the result.
+     * @param <T>    The type of the result.
+     * @return The result.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(@NotNull String query, @Nullable String table, Object[] values, @NotNull Object type, @NotNull Supplier<T> loader) {
+        final ResultCache cache = resultCache;
+        if (cache == null || currentTransaction.get() != null) {
+            // Results read in a transaction might contain uncommitted changes, do not share them.
+            return loader.get();
+        }
+        Object cached = cache.get(query, values, type);
+        if (!ResultCache.isMiss(cached)) {
+            return (T) cached;
+        }
+        // Take the version before loading, so that a result loaded concurrently with a write is not cached.
+        long version = cache.getVersion(table);
+        T result = loader.get();
+        cache.put(query, values, type, table, result, version);
+        return result;
+    }
+
+    /**
+     * The key of a result cached by {@link #executeCachedQuery(Query, Object, Function)}. It wraps
+     * the key given by the caller, so that it never equals the keys of cached ORM objects.
+     */
+    private static final class MappedResultKey {
+
+        private final Object key;
+
+        private MappedResultKey(@NotNull Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MappedResultKey && key.equals(((MappedResultKey) o).key);
         }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+
     }
 
     /**
@@ -168,141 +570,1641 @@ public class DatabaseManager {
      * return a result.
      *
      * @param query The query to execute.
+     * @param args  The arguments to replace in the query.
      * @throws SQLQueryException If the query failed.
      */
-    public void executeUpdate(@NonNull Query query) throws SQLQueryException {
-        executeUpdate(query.toString(), query.getValues());
+    protected void executeUpdate(@NonNull String query, Object... args) throws SQLQueryException {
+        executeWrite(query, null, args);
     }
 
     /**
-     * Saves an object to the database. This method will use the annotations on the object to
-     * determine the table and columns to use.
-     * <p>
-     * To save an object, it must have a {@link DatabaseTable} annotation. This annotation
-     * determines the table to use. The object must also have a field with the {@link DatabaseColumn}
-     * annotation. This annotation determines the column to use.
+     * Executes a query, that writes to the given table, and invalidates the cached results
+     * of queries reading from the table afterwards.
      *
-     * @param object The object to save.
+     * @param query The query to execute.
+     * @param table The table, or null if it is not known.
+     * @param args  The arguments to replace in the query.
      * @throws SQLQueryException If the query failed.
      */
-    public void saveORMObject(@NotNull Object object) throws SQLQueryException {
-        saveORMObject(object, true);
+    private void executeWrite(@NotNull String query, @Nullable String table, Object[] args) throws SQLQueryException {
+        executeWrite(table, (connection, acquireNanos) -> executeUpdate(connection, acquireNanos, query, null, null, args));
     }
 
     /**
-     * Saves an object to the database. This method will use the annotations on the objects class to
-     * determine the table and columns to use.
-     * <p>
-     * To save an object, it must have a {@link DatabaseTable} annotation. This annotation
-     * determines the table to use. The object must also have a field with the {@link DatabaseColumn}
-     * annotation. This annotation determines the column to use.
+     * Executes a callback, that writes to the given table, and invalidates the cached results
+     * of queries reading from the table afterwards.
      *
-     * @param object            The object to save.
-     * @param updateOnDuplicate If the object should be updated if it already exists.
-     * @throws SQLQueryException If the query failed.
+     * @param table    The table, or null if it is not known.
+     * @param callback The callback to execute.
+     * @param <T>      The type of the result.
+     * @return The result of the callback.
+     * @throws SQLQueryException If the callback failed.
      */
-    public void saveORMObject(@NotNull Object object, boolean updateOnDuplicate) throws SQLQueryException {
-        DatabaseTable table = object.getClass().getAnnotation(DatabaseTable.class);
-        if (table == null) {
-            throw new SQLQueryException("Class " + object.getClass().getName() + " is not a database object.");
+    private <T> T executeWrite(@Nullable String table, @NotNull ConnectionCallback<T> callback) throws SQLQueryException {
+        final Transaction transaction = currentTransaction.get();
+        try {
+            return withConnection(false, callback);
+        } finally {
+            // Even a failed query might have changed something.
+            if (transaction != null) {
+                // The change is not visible to others until the transaction is committed.
+                transaction.written(table);
+            } else {
+                invalidateResultCache(table);
+            }
         }
+    }
 
-        executeUpdate(InsertQuery.builder()
-                .setDatabase(table.database())
-                .setTable(table.name())
-                .setColumns(ORMUtil.getValues(object))
-                .setUpdateOnDuplicate(updateOnDuplicate)
-                .setIgnore(!updateOnDuplicate)
-                .build());
+    /**
+     * Executes a query, that does not return a result, on the given connection.
+     *
+     * @param connection   The connection.
+     * @param acquireNanos The time in nanoseconds it took to acquire the connection.
+     * @param query        The query to execute.
+     * @param generatedKey The name of the column, whose values generated by the database are
+     *                     returned, or null if no keys are returned.
+     * @param keys         The list to add the generated keys to, or null if no keys are returned.
+     * @param args         The arguments to replace in the query.
+     * @return The number of affected rows.
+     * @throws SQLException If the query failed.
+     */
+    private int executeUpdate(@NotNull ManagedConnection connection, long acquireNanos, @NotNull String query,
+                              @Nullable String generatedKey, @Nullable List<Object> keys, Object... args) throws SQLException {
+        final QueryObservation observation = QueryObservation.start(queryListeners, QueryEvent.Type.UPDATE, query, args, acquireNanos);
+        final StatementCache statementCache = getStatementCache(connection);
+        PreparedStatement ps = null;
+        boolean reusable = false;
+        boolean sent = false;
+        int rows;
+        try {
+            ps = statementCache.prepare(query, generatedKey);
+
+            // Replace custom arguments with the actual values. (? -> value)
+            bind(ps, args);
+
+            sent = true;
+            rows = ps.executeUpdate();
+            if (keys != null) {
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        keys.add(rs.getObject(1));
+                    }
+                }
+            }
+            reusable = true;
+        } catch (SQLException | RuntimeException e) {
+            if (observation != null) {
+                observation.failed(e);
+            }
+            if (!sent && e instanceof SQLException) {
+                throw new UnsentStatementException((SQLException) e);
+            }
+            throw e;
+        } finally {
+            if (ps != null) {
+                statementCache.recycle(query, generatedKey, ps, reusable);
+            }
+        }
+        if (observation != null) {
+            observation.succeeded(rows);
+        }
+        return rows;
     }
 
     /**
-     * Loads a list of all objects of the given type from the database by mapping the table
-     * to the object. This method will use the annotations on the class to determine the table
-     * and columns to use.
+     * Executes an INSERT query, that inserts the given objects without their generated key column,
+     * and writes the keys generated by the database to the objects. The keys are only written, if
+     * every object was inserted and the driver returned one key per object, otherwise it is not
+     * known, which key belongs to which object, and the objects are left unchanged.
      *
-     * @param clazz                The class of the object to load.
-     * @param queryBuilderCallback The callback to build the query. This callback will be called
-     *                             after the query builder is ready to use. You can specify the
-     *                             where clauses and other options here. Table, Database and Columns
-     *                             will be set automatically after this callback.
-     * @return A list of all objects of the given type loaded from the database.
+     * @param query      The query to execute.
+     * @param table      The table.
+     * @param args       The arguments to replace in the query.
+     * @param descriptor The descriptor of the class of the objects.
+     * @param objects    The inserted objects, in the order of the rows of the query.
      * @throws SQLQueryException If the query failed.
+     * @see EntityDescriptor#getGeneratedKeyColumn()
      */
-    public <T> List<T> loadORMObjects(@NotNull Class<T> clazz, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
-        List<T> objects = new ArrayList<>();
-        DatabaseTable table = clazz.getAnnotation(DatabaseTable.class);
-        if (table == null) {
-            throw new SQLQueryException("Class " + clazz.getName() + " is not a database object.");
+    private void executeInsert(@NotNull String query, @NotNull String table, Object[] args,
+                               @NotNull EntityDescriptor<?> descriptor, @NotNull List<?> objects) throws SQLQueryException {
+        final String generatedKey = Objects.requireNonNull(descriptor.getGeneratedKeyColumn()).getName();
+        final List<Object> keys = new ArrayList<>(objects.size());
+        final int rows = executeWrite(table, (connection, acquireNanos) -> {
+            // The callback is executed again, if the connection turns out to be broken before the INSERT is sent.
+            keys.clear();
+            return executeUpdate(connection, acquireNanos, query, generatedKey, keys, args);
+        });
+        // Rows, that were skipped or updated instead, change the number of affected rows.
+        if (rows != objects.size() || keys.size() != objects.size()) {
+            return;
         }
-        String[] columns = ORMUtil.getColumnNames(clazz);
+        final Transaction transaction = currentTransaction.get();
+        for (int i = 0; i < keys.size(); i++) {
+            if (transaction != null) {
+                // The rows do not exist, if the transaction is rolled back.
+                transaction.generatedKey(descriptor, objects.get(i));
+            }
+            descriptor.setGeneratedKey(objects.get(i), keys.get(i));
+        }
+    }
 
-        SelectQuery.Builder builder = SelectQuery.builder();
-        queryBuilderCallback.accept(builder);
-        builder.setDatabase(table.database())
-                .setTable(table.name())
-                .setColumns(columns);
+    /**
+     * Sets the given arguments as the values of the placeholders (?) of the given statement.
+     *
+     * @param ps   The statement.
+     * @param args The arguments. Can be null if the statement has no placeholders.
+     * @throws SQLException If an argument could not be set.
+     */
+    private static void bind(@NotNull PreparedStatement ps, Object[] args) throws SQLException {
+        if (args == null) {
+            return;
+        }
+        for (int i = 0; i < args.length; i++) {
+            ps.setObject(i + 1, args[i]);
+        }
+    }
+
+    /**
+     * Returns the cache of prepared statements of the given connection.
+     *
+     * @param connection The connection.
+     * @return The statement cache.
+     */
+    @NotNull
+    private StatementCache getStatementCache(@NotNull ManagedConnection connection) {
+        return connection.getStatementCache(statementCacheSize, statementCacheCounters);
+    }
+
+    /**
+     * Acquires a connection, executes the given callback with it and releases the connection
+     * afterwards. The connection is not validated up front. Instead, if the callback fails because
+     * the connection turns out to be broken, the connection is discarded. The callback is retried
+     * once with a fresh connection, if it only reads data or if it failed with an
+     * {@link UnsentStatementException}. Writes, that might have reached the database already,
+     * are never executed twice.
+     * <p>
+     * If the current thread is executing a transaction, the callback is executed with the connection
+     * of the transaction instead, and it is not retried.
+     *
+     * @param exclusive Whether the connection must not be used by anyone else in the meantime.
+     *                  This is required if the callback changes the state of the connection.
+     * @param callback  The callback to execute.
+     * @param <T>       The type of the result.
+     * @return The result of the callback.
+     * @throws SQLQueryException If the callback failed.
+     * @see ConnectionProvider#acquireExclusive()
+     */
+    private <T> T withConnection(boolean exclusive, @NotNull ConnectionCallback<T> callback) throws SQLQueryException {
+        return withConnection(exclusive, false, callback);
+    }
 
-        SelectQuery query = builder.build();
-        executeQuery(query, (rs) -> {
+    /**
+     * Acquires a connection, executes the given callback with it and releases the connection
+     * afterwards, see {@link #withConnection(boolean, ConnectionCallback)}.
+     *
+     * @param exclusive Whether the connection must not be used by anyone else in the meantime.
+     * @param read      Whether the callback only reads data, so a connection acquired using
+     *                  {@link ConnectionProvider#acquireForRead(boolean)} can be used.
+     * @param callback  The callback to execute.
+     * @param <T>       The type of the result.
+     * @return The result of the callback.
+     * @throws SQLQueryException If the callback failed.
+     */
+    private <T> T withConnection(boolean exclusive, boolean read, @NotNull ConnectionCallback<T> callback) throws SQLQueryException {
+        final Transaction transaction = currentTransaction.get();
+        if (transaction != null) {
+            // The connection of a transaction is exclusive and released when the transaction ends.
             try {
-                while (rs.next()) {
-                    T object = (T) Unsafe.getUnsafe().allocateInstance(clazz);
-                    for (String column : columns) {
-                        Object value = rs.getObject(column);
-                        ORMUtil.setFieldValue(object, column, value);
+                return callback.execute(transaction.connection, 0);
+            } catch (SQLException e) {
+                throw new SQLQueryException("Failed to execute query.", UnsentStatementException.unwrap(e));
+            }
+        }
+
+        boolean retried = false;
+        while (true) {
+            // Only measure the time, if there is anyone to report it to.
+            final long acquireStart = queryListeners.length == 0 ? 0 : System.nanoTime();
+            final ManagedConnection connection = acquire(exclusive, read);
+            final long acquireNanos = acquireStart == 0 ? 0 : System.nanoTime() - acquireStart;
+            try {
+                T result = callback.execute(connection, acquireNanos);
+                connectionProvider.release(connection);
+                return result;
+            } catch (SQLException e) {
+                final SQLException cause = UnsentStatementException.unwrap(e);
+                if (isConnectionFailure(cause)) {
+                    connectionProvider.invalidate(connection);
+                    if (!retried && (read || cause != e)) {
+                        retried = true;
+                        continue;
                     }
-                    objects.add(object);
+                } else {
+                    connectionProvider.release(connection);
                 }
-            } catch (SQLException | InstantiationException e) {
-                throw new SQLQueryException(e);
+                throw new SQLQueryException("Failed to execute query.", cause);
+            } catch (RuntimeException | Error e) {
+                connectionProvider.release(connection);
+                throw e;
             }
-        });
-        return objects;
+        }
     }
 
     /**
-     * Creates a table in the database for the given class. This method will use the annotations
-     * on the class to determine the table and columns to use.
-     * <p>
-     * To create a table, the class must have a {@link DatabaseTable} annotation. This annotation
-     * determines the table to use. The class must also have a field with the {@link DatabaseColumn}
-     * annotation. This annotation determines the column to use.
+     * Acquires a connection from the connection provider.
      *
-     * @param clazz       The class to create a table for.
-     * @param ifNotExists If the table should only be created if it does not exist.
-     * @throws SQLQueryException If the query failed.
-     * @see CreateTableQuery
+     * @param exclusive Whether the connection must not be used by anyone else until it is released.
+     * @param read      Whether the connection is only used to read data.
+     * @return The connection.
+     * @throws SQLConnectionException If no connection could be acquired.
      */
-    public void createORMTable(@NotNull Class<?> clazz, boolean ifNotExists) throws SQLQueryException {
-        DatabaseTable table = clazz.getAnnotation(DatabaseTable.class);
-        if (table == null) {
-            throw new SQLQueryException("Class " + clazz.getName() + " is not a database object.");
+    @NotNull
+    private ManagedConnection acquire(boolean exclusive, boolean read) throws SQLConnectionException {
+        if (read) {
+            return connectionProvider.acquireForRead(exclusive);
         }
+        return exclusive ? connectionProvider.acquireExclusive() : connectionProvider.acquire();
+    }
 
-        CreateTableQuery.Builder builder = CreateTableQuery.builder()
+    /**
+     * Checks whether the given exception was caused by a broken connection rather than
+     * by the query itself. Only the type and the SQL state of the exception are checked,
+     * the connection is not validated, so failing queries do not cost another round trip.
+     *
+     * @param e The exception.
+     * @return True if the connection is broken, false otherwise.
+     */
+    private static boolean isConnectionFailure(@NotNull SQLException e) {
+        if (e instanceof SQLRecoverableException || e instanceof SQLNonTransientConnectionException || e instanceof SQLTransientConnectionException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        // SQL state class 08 - Connection exception.
+        return state != null && state.startsWith("08");
+    }
+
+    /**
+     * Thrown by a {@link ConnectionCallback}, if it failed before its statement was sent
+     * to the database, so executing the callback again cannot apply anything twice.
+     */
+    private static final class UnsentStatementException extends SQLException {
+
+        private UnsentStatementException(@NotNull SQLException cause) {
+            super(cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), cause);
+        }
+
+        /**
+         * Returns the original exception, if the given exception is an {@link UnsentStatementException}.
+         *
+         * @param e The exception.
+         * @return The original exception, or the given exception.
+         */
+        @NotNull
+        private static SQLException unwrap(@NotNull SQLException e) {
+            return e instanceof UnsentStatementException ? (SQLException) e.getCause() : e;
+        }
+
+    }
+
+    /**
+     * Callback, that is executed with a connection acquired by {@link #withConnection(boolean, ConnectionCallback)}.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    private interface ConnectionCallback<T> {
+
+        T execute(@NotNull ManagedConnection connection, long acquireNanos) throws SQLException;
+
+    }
+
+    /**
+     * Executes a query to the database. This method should be used for queries that do not
+     * return a result.
+     *
+     * @param query The query to execute.
+     * @throws SQLQueryException If the query failed.
+     */
+    public void executeUpdate(@NonNull Query query) throws SQLQueryException {
+        executeWrite(query.toString(), query.getTable(), query.getValues());
+    }
+
+    /**
+     * Executes a compiled query to the database with the given values. This method should be
+     * used for queries that do not return a result.
+     *
+     * @param query  The query to execute.
+     * @param values The values to replace the placeholders (?) in the query.
+     * @throws SQLQueryException If the query failed.
+     * @see Query#prepare()
+     */
+    public void executeUpdate(@NonNull PreparedQuery query, Object... values) throws SQLQueryException {
+        executeWrite(query.toString(), query.getTable(), values);
+    }
+
+    /**
+     * Executes the given callback in a transaction. All queries executed by this manager on the
+     * current thread during the callback, including the ORM methods, use the same connection and
+     * are committed at once after the callback returns. If the callback throws an exception, the
+     * transaction is rolled back and the exception is rethrown.
+     * <p>
+     * If the current thread is already executing a transaction, the callback joins it instead of
+     * starting a new one. If such a nested callback fails, the whole transaction is rolled back,
+     * even if the exception is caught by the outer callback.
+     * <p>
+     * Asynchronous methods called during the callback are executed on other threads, so they are
+     * not part of the transaction.
+     *
+     * @param callback The callback to execute.
+     * @param <T>      The type of the result.
+     * @return The result of the callback.
+     * @throws SQLQueryException If the transaction failed. Runtime exceptions thrown by the callback
+     *                           are rethrown as they are, other exceptions are wrapped.
+     * @see #inTransaction(int, TransactionCallback)
+     */
+    public <T> T inTransaction(@NonNull TransactionCallback<T> callback) throws SQLQueryException {
+        return inTransaction(-1, callback);
+    }
+
+    /**
+     * Executes the given callback in a transaction with the given isolation level.
+     *
+     * @param isolationLevel The isolation level, one of the {@code Connection.TRANSACTION_*} constants,
+     *                       or -1 to keep the isolation level of the connection. It is ignored if the
+     *                       callback joins a transaction, that is already running.
+     * @param callback       The callback to execute.
+     * @param <T>            The type of the result.
+     * @return The result of the callback.
+     * @throws SQLQueryException If the transaction failed.
+     * @see #inTransaction(TransactionCallback)
+     * @see Connection#setTransactionIsolation(int)
+     */
+    public <T> T inTransaction(int isolationLevel, @NonNull TransactionCallback<T> callback) throws SQLQueryException {
+        final Transaction outer = currentTransaction.get();
+        if (outer != null) {
+            try {
+                return callback.execute(this);
+            } catch (Exception | Error e) {
+                outer.rollbackOnly = true;
+                throw rethrow(e);
+            }
+        }
+
+        final ManagedConnection connection = connectionProvider.acquireExclusive();
+        final Connection jdbcConnection = connection.getConnection();
+        final Transaction transaction = new Transaction(connection);
+        boolean autoCommit = true;
+        int previousIsolation = -1;
+        boolean broken = false;
+        boolean committed = false;
+        try {
+            autoCommit = jdbcConnection.getAutoCommit();
+            if (isolationLevel != -1 && jdbcConnection.getTransactionIsolation() != isolationLevel) {
+                previousIsolation = jdbcConnection.getTransactionIsolation();
+                jdbcConnection.setTransactionIsolation(isolationLevel);
+            }
+            jdbcConnection.setAutoCommit(false);
+
+            currentTransaction.set(transaction);
+            T result;
+            try {
+                result = callback.execute(this);
+                if (transaction.rollbackOnly) {
+                    throw new SQLQueryException("Transaction was rolled back, because a nested transaction failed.");
+                }
+            } catch (Exception | Error e) {
+                try {
+                    jdbcConnection.rollback();
+                } catch (SQLException rollbackException) {
+                    broken = isConnectionFailure(rollbackException);
+                    e.addSuppressed(rollbackException);
+                }
+                throw rethrow(e);
+            } finally {
+                currentTransaction.remove();
+            }
+            jdbcConnection.commit();
+            committed = true;
+            transaction.commitSnapshots();
+            return result;
+        } catch (SQLException e) {
+            broken = isConnectionFailure(e);
+            throw new SQLQueryException("Failed to execute transaction.", e);
+        } finally {
+            if (!committed) {
+                transaction.restoreGeneratedKeys();
+            }
+            if (!broken) {
+                try {
+                    jdbcConnection.setAutoCommit(autoCommit);
+                    if (previousIsolation != -1) {
+                        jdbcConnection.setTransactionIsolation(previousIsolation);
+                    }
+                } catch (SQLException e) {
+                    broken = true;
+                }
+            }
+            if (broken) {
+                // The state of the connection is unknown, do not let anyone else use it.
+                connectionProvider.invalidate(connection);
+            } else {
+                connectionProvider.release(connection);
+            }
+            // Only now the changes are visible to others, or undone.
+            transaction.invalidateResultCache();
+        }
+    }
+
+    /**
+     * Returns the given exception as an unchecked exception, that can be thrown.
+     *
+     * @param e The exception.
+     * @return The exception itself if it is unchecked, otherwise a {@link SQLQueryException} caused by it.
+     * @throws Error If the given exception is an error.
+     */
+    @NotNull
+    private static RuntimeException rethrow(@NotNull Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new SQLQueryException("Failed to execute transaction.", e);
+    }
+
+    /**
+     * A transaction executed by {@link #inTransaction(int, TransactionCallback)}, that is bound to
+     * the thread executing it.
+     */
+    private final class Transaction {
+
+        private final ManagedConnection connection;
+        private final Set<String> writtenTables = new HashSet<>();
+        private boolean writtenUnknown;
+        private boolean rollbackOnly;
+        /**
+         * The values of the tracked objects loaded or saved by the transaction. They are only
+         * remembered once the transaction is committed, because the changes might be rolled back.
+         */
+        private Map<Object, Object[]> snapshots;
+        /**
+         * The previous values of the generated key columns of the objects inserted by the transaction,
+         * which are restored if the transaction is rolled back.
+         */
+        private List<Runnable> generatedKeys;
+
+        private Transaction(@NotNull ManagedConnection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * Remembers, that a query of the transaction wrote to the given table.
+         *
+         * @param table The table, or null if it is not known.
+         */
+        private void written(@Nullable String table) {
+            if (table == null) {
+                writtenUnknown = true;
+            } else {
+                writtenTables.add(table);
+            }
+        }
+
+        /**
+         * Remembers the values of a tracked object, that was loaded or saved by the transaction.
+         *
+         * @param object The object.
+         * @param values The values of the object.
+         */
+        private void tracked(@NotNull Object object, @NotNull Object[] values) {
+            if (snapshots == null) {
+                snapshots = new IdentityHashMap<>();
+            }
+            snapshots.put(object, values);
+        }
+
+        /**
+         * Passes the values of the objects tracked by the committed transaction to the tracker.
+         */
+        private void commitSnapshots() {
+            if (snapshots != null && snapshotTracker != null) {
+                snapshots.forEach(snapshotTracker::track);
+            }
+        }
+
+        /**
+         * Remembers the value of the generated key column of the given object, before the key
+         * generated by the transaction is written to it.
+         *
+         * @param descriptor The descriptor of the class of the object.
+         * @param object     The object.
+         */
+        private void generatedKey(@NotNull EntityDescriptor<?> descriptor, @NotNull Object object) {
+            final EntityDescriptor.ColumnDescriptor column = Objects.requireNonNull(descriptor.getGeneratedKeyColumn());
+            final Object previous = column.get(object);
+            if (generatedKeys == null) {
+                generatedKeys = new ArrayList<>();
+            }
+            generatedKeys.add(() -> column.set(object, previous));
+        }
+
+        /**
+         * Restores the generated key columns of the objects inserted by the transaction, that was
+         * not committed, so that the objects are inserted again when they are saved next time.
+         */
+        private void restoreGeneratedKeys() {
+            if (generatedKeys == null) {
+                return;
+            }
+            // If an object was inserted more than once, its first value is restored last.
+            for (int i = generatedKeys.size() - 1; i >= 0; i--) {
+                generatedKeys.get(i).run();
+            }
+        }
+
+        /**
+         * Invalidates the cached results of the tables written by the transaction.
+         */
+        private void invalidateResultCache() {
+            if (writtenUnknown) {
+                DatabaseManager.this.invalidateResultCache(null);
+                return;
+            }
+            for (String table : writtenTables) {
+                DatabaseManager.this.invalidateResultCache(table);
+            }
+        }
+
+    }
+
+    /**
+     * Saves an object to the database. This method will use the annotations on the object to
+     * determine the table and columns to use.
+     * <p>
+     * To save an object, it must have a {@link DatabaseTable} annotation. This annotation
+     * determines the table to use. The object must also have a field with the {@link DatabaseColumn}
+     * annotation. This annotation determines the column to use.
+     *
+     * @param object The object to save.
+     * @throws SQLQueryException If the query failed.
+     */
+    public void saveORMObject(@NotNull Object object) throws SQLQueryException {
+        saveORMObject(object, true);
+    }
+
+    /**
+     * Saves an object to the database. This method will use the annotations on the objects class to
+     * determine the table and columns to use.
+     * <p>
+     * To save an object, it must have a {@link DatabaseTable} annotation. This annotation
+     * determines the table to use. The object must also have a field with the {@link DatabaseColumn}
+     * annotation. This annotation determines the column to use.
+     * <p>
+     * If the class has a single {@link DatabaseColumn#autoIncrement()} column, and its value is null
+     * or zero, the column is omitted, so that the database generates the key. The generated key
+     * is then written to the field of the object, without querying the database again. In a
+     * transaction, that is rolled back, the previous value of the field is restored.
+     * <p>
+     * If {@link Builder#setDirtyTracking(boolean) dirty tracking} is enabled and the object was loaded
+     * or saved by this manager, {@code updateOnDuplicate} saves only the changed columns using an UPDATE
+     * query keyed by the primary key, and does not write anything if no column changed. If the primary
+     * key changed or the row does not exist anymore, the object is saved as a whole.
+     *
+     * @param object            The object to save.
+     * @param updateOnDuplicate If the object should be updated if it already exists.
+     * @throws SQLQueryException If the query failed.
+     */
+    public void saveORMObject(@NotNull Object object, boolean updateOnDuplicate) throws SQLQueryException {
+        EntityDescriptor<?> descriptor = EntityDescriptor.of(object.getClass());
+        DatabaseTable table = descriptor.requireTable();
+
+        Object[] values = descriptor.getValues(object);
+        int[] changedColumns = updateOnDuplicate ? getChangedColumns(descriptor, object, values) : null;
+        if (changedColumns == null) {
+            insertORMObject(descriptor, table, object, values, updateOnDuplicate);
+        } else if (changedColumns.length > 0) {
+            updateORMObject(descriptor, table, object, values, changedColumns, updateOnDuplicate);
+        }
+    }
+
+    /**
+     * Saves an object to the database using an INSERT query, that writes all its columns.
+     *
+     * @param descriptor        The descriptor of the class of the object.
+     * @param table             The table of the class.
+     * @param object            The object to save.
+     * @param values            The values of the object, see {@link EntityDescriptor#getValues(Object)}.
+     * @param updateOnDuplicate If the object should be updated if it already exists.
+     * @throws SQLQueryException If the query failed.
+     */
+    private void insertORMObject(@NotNull EntityDescriptor<?> descriptor, @NotNull DatabaseTable table, @NotNull Object object,
+                                 @NotNull Object[] values, boolean updateOnDuplicate) throws SQLQueryException {
+        boolean generateKey = descriptor.isGeneratedKeyMissing(values);
+        String query = descriptor.getSaveSql(connector.getDialect(), updateOnDuplicate, generateKey);
+        if (query == null) {
+            throw new SQLQueryException("Class " + object.getClass().getName() + " has no database columns.");
+        }
+        if (generateKey) {
+            executeInsert(query, table.name(), descriptor.removeGeneratedKey(values), descriptor, Collections.singletonList(object));
+        } else {
+            executeWrite(query, table.name(), values);
+            if (updateOnDuplicate && snapshotTracker != null && snapshotTracker.isTracked(object)) {
+                track(descriptor, object, values);
+            }
+        }
+    }
+
+    /**
+     * Saves the changed columns of a tracked object to the database using an UPDATE query. If the
+     * row of the object does not exist anymore, the object is inserted using {@link #insertORMObject}.
+     *
+     * @param descriptor        The descriptor of the class of the object.
+     * @param table             The table of the class.
+     * @param object            The object to save.
+     * @param values            The values of the object, see {@link EntityDescriptor#getValues(Object)}.
+     * @param changedColumns    The indices of the changed columns, see {@link #getChangedColumns(EntityDescriptor, Object, Object[])}.
+     * @param updateOnDuplicate If the object should be updated if it already exists.
+     * @throws SQLQueryException If the query failed.
+     */
+    private void updateORMObject(@NotNull EntityDescriptor<?> descriptor, @NotNull DatabaseTable table, @NotNull Object object,
+                                 @NotNull Object[] values, @NotNull int[] changedColumns, boolean updateOnDuplicate) throws SQLQueryException {
+        String query = descriptor.getUpdateSql(connector.getDialect(), changedColumns);
+        int[] primaryKeyIndices = descriptor.getPrimaryKeyIndices();
+        Object[] args = new Object[changedColumns.length + primaryKeyIndices.length];
+        for (int i = 0; i < changedColumns.length; i++) {
+            args[i] = values[changedColumns[i]];
+        }
+        for (int i = 0; i < primaryKeyIndices.length; i++) {
+            args[changedColumns.length + i] = values[primaryKeyIndices[i]];
+        }
+
+        int rows = executeWrite(table.name(), (connection, acquireNanos) -> executeUpdate(connection, acquireNanos, query, null, null, args));
+        if (rows == 0) {
+            // The row was deleted in the meantime.
+            insertORMObject(descriptor, table, object, values, updateOnDuplicate);
+            return;
+        }
+        track(descriptor, object, values);
+    }
+
+    /**
+     * Get the indices of the columns of the given object, that changed since it was loaded or saved.
+     *
+     * @param descriptor The descriptor of the class of the object.
+     * @param object     The object.
+     * @param values     The values of the object, see {@link EntityDescriptor#getValues(Object)}.
+     * @return The indices of the changed columns, an empty array if nothing changed, or null if
+     * the object is not tracked, so it must be saved as a whole.
+     * @see Builder#setDirtyTracking(boolean)
+     */
+    @Nullable
+    private int[] getChangedColumns(@NotNull EntityDescriptor<?> descriptor, @NotNull Object object, @NotNull Object[] values) {
+        if (snapshotTracker == null) {
+            return null;
+        }
+        return snapshotTracker.getChangedColumns(object, values, descriptor.getPrimaryKeyIndices());
+    }
+
+    /**
+     * Remembers the given values as the values of the given object in the database, if dirty tracking
+     * is enabled and the class has a primary key. In a transaction, the values are remembered once the
+     * transaction is committed.
+     *
+     * @param descriptor The descriptor of the class of the object.
+     * @param object     The object.
+     * @param values     The values of the object, see {@link EntityDescriptor#getValues(Object)}.
+     */
+    private void track(@NotNull EntityDescriptor<?> descriptor, @NotNull Object object, @NotNull Object[] values) {
+        if (snapshotTracker == null || descriptor.getPrimaryKeyIndices().length == 0) {
+            return;
+        }
+        final Transaction transaction = currentTransaction.get();
+        if (transaction != null) {
+            transaction.tracked(object, values);
+        } else {
+            snapshotTracker.track(object, values);
+        }
+    }
+
+    /**
+     * Starts tracking an object, that was loaded from the database, if dirty tracking is enabled.
+     *
+     * @param descriptor The descriptor of the class of the object.
+     * @param object     The loaded object.
+     * @return The object.
+     */
+    @NotNull
+    private <T> T loaded(@NotNull EntityDescriptor<T> descriptor, @NotNull T object) {
+        if (snapshotTracker != null) {
+            track(descriptor, object, descriptor.getValues(object));
+        }
+        return object;
+    }
+
+    /**
+     * Saves multiple objects to the database. This method will use the annotations on the
+     * objects classes to determine the tables and columns to use.
+     *
+     * @param objects The objects to save.
+     * @throws SQLQueryException If the query failed.
+     * @see #saveORMObjects(Collection, boolean)
+     */
+    public void saveORMObjects(@NotNull Collection<?> objects) throws SQLQueryException {
+        saveORMObjects(objects, true);
+    }
+
+    /**
+     * Saves multiple objects to the database. This method will use the annotations on the
+     * objects classes to determine the tables and columns to use.
+     * <p>
+     * The objects are grouped by their class and inserted using multi-row INSERT queries of up to
+     * {@link Builder#getBatchSize()} rows each. All queries are executed in a single transaction,
+     * so either all objects are saved or none of them. If the current thread is already executing
+     * a transaction, the queries are part of it.
+     * <p>
+     * Keys generated by the database are written to the objects, like by {@link #saveORMObject(Object, boolean)},
+     * and removed again if the transaction is rolled back. Such objects are inserted by separate queries. If the driver does not return the keys of all rows
+     * of a query, see {@link Connector#isReturningAllGeneratedKeys()}, they are inserted one at a time.
+     *
+     * @param objects           The objects to save.
+     * @param updateOnDuplicate If the objects should be updated if they already exist.
+     * @throws SQLQueryException If the query failed.
+     * @see #saveORMObject(Object, boolean)
+     */
+    public void saveORMObjects(@NotNull Collection<?> objects, boolean updateOnDuplicate) throws SQLQueryException {
+        if (objects.isEmpty()) {
+            return;
+        }
+
+        // Group the objects by their class, keeping the order in which the classes appear.
+        Map<Class<?>, List<Object>> groups = new LinkedHashMap<>();
+        for (Object object : objects) {
+            groups.computeIfAbsent(object.getClass(), (key) -> new ArrayList<>()).add(object);
+        }
+
+        List<InsertQuery> queries = new ArrayList<>();
+        // The partial updates of tracked objects and the snapshots of the tracked objects saved by the queries.
+        List<Runnable> updates = new ArrayList<>();
+        // The objects inserted by the queries, whose keys are generated by the database.
+        Map<InsertQuery, List<Object>> generatedKeyObjects = new IdentityHashMap<>();
+        for (Map.Entry<Class<?>, List<Object>> group : groups.entrySet()) {
+            EntityDescriptor<?> descriptor = EntityDescriptor.of(group.getKey());
+            DatabaseTable table = descriptor.requireTable();
+
+            List<Object[]> rows = new ArrayList<>();
+            List<Object> generatedKeyRowObjects = new ArrayList<>();
+            List<Object[]> generatedKeyRows = new ArrayList<>();
+            for (Object object : group.getValue()) {
+                Object[] values = descriptor.getValues(object);
+                int[] changedColumns = updateOnDuplicate ? getChangedColumns(descriptor, object, values) : null;
+                if (changedColumns != null) {
+                    if (changedColumns.length > 0) {
+                        updates.add(() -> updateORMObject(descriptor, table, object, values, changedColumns, true));
+                    }
+                } else if (descriptor.isGeneratedKeyMissing(values)) {
+                    generatedKeyRowObjects.add(object);
+                    generatedKeyRows.add(values);
+                } else {
+                    rows.add(values);
+                    if (updateOnDuplicate && snapshotTracker != null && snapshotTracker.isTracked(object)) {
+                        updates.add(() -> track(descriptor, object, values));
+                    }
+                }
+            }
+
+            int columnCount = Math.max(1, descriptor.getColumns().size());
+            int chunkSize = Math.max(1, Math.min(batchSize, MAX_BATCH_PARAMETERS / columnCount));
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                queries.add(buildInsertQuery(descriptor, table, rows.subList(from, Math.min(from + chunkSize, rows.size())), false, updateOnDuplicate));
+            }
+            int generatedKeyChunkSize = connector.isReturningAllGeneratedKeys() ? chunkSize : 1;
+            for (int from = 0; from < generatedKeyRows.size(); from += generatedKeyChunkSize) {
+                int to = Math.min(from + generatedKeyChunkSize, generatedKeyRows.size());
+                InsertQuery query = buildInsertQuery(descriptor, table, generatedKeyRows.subList(from, to), true, updateOnDuplicate);
+                queries.add(query);
+                generatedKeyObjects.put(query, generatedKeyRowObjects.subList(from, to));
+            }
+        }
+
+        inTransaction((manager) -> {
+            for (InsertQuery query : queries) {
+                List<Object> objectsWithGeneratedKeys = generatedKeyObjects.get(query);
+                if (objectsWithGeneratedKeys == null) {
+                    executeUpdate(query);
+                } else {
+                    EntityDescriptor<?> descriptor = EntityDescriptor.of(objectsWithGeneratedKeys.get(0).getClass());
+                    executeInsert(query.toString(), query.getTable(), query.getValues(), descriptor, objectsWithGeneratedKeys);
+                }
+            }
+            updates.forEach(Runnable::run);
+            return null;
+        });
+    }
+
+    /**
+     * Builds a multi-row INSERT query, that saves objects of the given class.
+     *
+     * @param descriptor        The descriptor of the class.
+     * @param table             The table of the class.
+     * @param rows              The values of the objects, see {@link EntityDescriptor#getValues(Object)}.
+     * @param generateKey       Whether the keys are generated by the database, so the generated key column is omitted.
+     * @param updateOnDuplicate If the objects should be updated if they already exist.
+     * @return The query.
+     */
+    @NotNull
+    private InsertQuery buildInsertQuery(@NotNull EntityDescriptor<?> descriptor, @NotNull DatabaseTable table,
+                                         @NotNull List<Object[]> rows, boolean generateKey, boolean updateOnDuplicate) {
+        InsertQuery.Builder builder = InsertQuery.builder()
+                .setDialect(connector.getDialect())
+                .setDatabase(table.database())
+                .setTable(table.name())
+                .setConflictColumns(descriptor.getPrimaryKeyNames())
+                .setUpdateOnDuplicate(updateOnDuplicate)
+                .setIgnore(!updateOnDuplicate);
+        for (Object[] values : rows) {
+            builder.addRow(descriptor.getColumnValuePairs(values, generateKey));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Loads the given rows into the given table, using the {@link BulkLoader} of the connector.
+     * This method should be used to import large amounts of rows, as it is much faster than
+     * executing INSERT queries.
+     *
+     * @param table   The name of the table.
+     * @param columns The names of the columns, in the order of the values of the rows.
+     * @param rows    The rows. Each row holds one value per column.
+     * @return The number of loaded rows.
+     * @throws SQLQueryException If the rows could not be loaded.
+     * @see #bulkLoad(String, String[], Iterable, BulkLoadSettings)
+     */
+    public long bulkLoad(@NonNull String table, @NonNull String[] columns, @NonNull Iterable<Object[]> rows) throws SQLQueryException {
+        return bulkLoad(table, columns, rows, BulkLoadSettings.builder().build());
+    }
+
+    /**
+     * Loads the given rows into the given table, using the {@link BulkLoader} of the connector.
+     * This method should be used to import large amounts of rows, as it is much faster than
+     * executing INSERT queries.
+     * <p>
+     * The rows are consumed while they are loaded, so they can be produced lazily, for example
+     * while reading a file, and the memory usage does not depend on the number of rows. All rows
+     * are loaded in a single transaction, so either all of them are loaded or none of them. If the
+     * current thread is already executing a transaction, the rows are loaded as part of it.
+     *
+     * @param table    The name of the table.
+     * @param columns  The names of the columns, in the order of the values of the rows.
+     * @param rows     The rows. Each row holds one value per column.
+     * @param settings The settings of the load.
+     * @return The number of loaded rows.
+     * @throws SQLQueryException If the rows could not be loaded.
+     * @see Connector#getBulkLoader()
+     */
+    public long bulkLoad(@NonNull String table, @NonNull String[] columns, @NonNull Iterable<Object[]> rows, @NonNull BulkLoadSettings settings) throws SQLQueryException {
+        return bulkLoad(table, columns, rows.iterator(), settings);
+    }
+
+    /**
+     * Loads the given objects into their table, using the {@link BulkLoader} of the connector.
+     * This method will use the annotations on the class to determine the table and columns to use.
+     *
+     * @param clazz   The class of the objects.
+     * @param objects The objects to load.
+     * @return The number of loaded objects.
+     * @throws SQLQueryException If the objects could not be loaded.
+     * @see #bulkLoadORMObjects(Class, Iterable, BulkLoadSettings)
+     */
+    public <T> long bulkLoadORMObjects(@NotNull Class<T> clazz, @NotNull Iterable<? extends T> objects) throws SQLQueryException {
+        return bulkLoadORMObjects(clazz, objects, BulkLoadSettings.builder().build());
+    }
+
+    /**
+     * Loads the given objects into their table, using the {@link BulkLoader} of the connector.
+     * This method will use the annotations on the class to determine the table and columns to use.
+     * <p>
+     * Unlike {@link #saveORMObjects(Collection, boolean)}, existing rows are not updated, the
+     * objects must not exist yet. The objects are consumed while they are loaded, see
+     * {@link #bulkLoad(String, String[], Iterable, BulkLoadSettings)}.
+     *
+     * @param clazz    The class of the objects.
+     * @param objects  The objects to load.
+     * @param settings The settings of the load.
+     * @return The number of loaded objects.
+     * @throws SQLQueryException If the objects could not be loaded.
+     */
+    public <T> long bulkLoadORMObjects(@NotNull Class<T> clazz, @NotNull Iterable<? extends T> objects, @NotNull BulkLoadSettings settings) throws SQLQueryException {
+        EntityDescriptor<T> descriptor = EntityDescriptor.of(clazz);
+        DatabaseTable table = descriptor.requireTable();
+
+        final Iterator<? extends T> iterator = objects.iterator();
+        Iterator<Object[]> rows = new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return descriptor.getValues(iterator.next());
+            }
+        };
+        return bulkLoad(table.name(), descriptor.getColumnNames(), rows, settings);
+    }
+
+    private long bulkLoad(@NotNull String table, @NotNull String[] columns, @NotNull Iterator<Object[]> rows, @NotNull BulkLoadSettings settings) throws SQLQueryException {
+        final BulkLoader loader = connector.getBulkLoader();
+        final String description = "BULK LOAD " + table + " (" + String.join(", ", columns) + ")";
+        return inTransaction((manager) -> withConnection(true, (connection, acquireNanos) -> {
+            currentTransaction.get().written(table);
+            final QueryObservation observation = QueryObservation.start(queryListeners, QueryEvent.Type.UPDATE, description, null, acquireNanos);
+            long loaded;
+            try {
+                loaded = loader.load(connection.getConnection(), table, columns, rows, settings);
+            } catch (SQLException | RuntimeException e) {
+                if (observation != null) {
+                    observation.failed(e);
+                }
+                throw e;
+            }
+            if (observation != null) {
+                observation.succeeded(loaded);
+            }
+            return loaded;
+        }));
+    }
+
+    /**
+     * Saves an object to the database later, updating it if it already exists. The object is
+     * buffered and saved in the background, together with other buffered objects, using
+     * {@link #saveORMObjects(Collection, boolean)}. This method should be used for objects,
+     * that are saved often, and of which only the last state matters.
+     * <p>
+     * Objects are identified by their table and primary key, see {@link DatabaseColumn#primaryKey()}.
+     * If an object with the same table and primary key is already waiting, it is replaced, so it
+     * is saved only once. The values of the object are read when it is saved, not when this method
+     * is called.
+     * <p>
+     * The buffered objects are saved when the buffer reaches {@link WriteBehindSettings#getFlushSize()}
+     * objects, every {@link WriteBehindSettings#getFlushInterval()} milliseconds, when calling
+     * {@link #flushORMObjects()} and when closing the manager. Failures are passed to
+     * {@link WriteBehindSettings#getFailureHandler()}. The objects are not part of a transaction,
+     * that is running on the calling thread.
+     *
+     * @param object The object to save.
+     * @throws SQLQueryException          If the class of the object is not annotated or has no primary key.
+     * @throws IllegalStateException      If the manager was created without {@link WriteBehindSettings}.
+     * @throws RejectedExecutionException If the buffer is still full after {@link WriteBehindSettings#getBlockTimeout()}
+     *                                    milliseconds, or the manager is closed.
+     * @see Builder#setWriteBehindSettings(WriteBehindSettings)
+     */
+    public void saveORMObjectLater(@NotNull Object object) throws SQLQueryException {
+        requireWriteBehindBuffer().add(object);
+    }
+
+    /**
+     * Saves all objects waiting to be saved by {@link #saveORMObjectLater(Object)} now, on the
+     * calling thread.
+     *
+     * @throws IllegalStateException If the manager was created without {@link WriteBehindSettings}.
+     */
+    public void flushORMObjects() {
+        requireWriteBehindBuffer().flush();
+    }
+
+    /**
+     * Returns the number of objects waiting to be saved by {@link #saveORMObjectLater(Object)}.
+     *
+     * @return The number of objects, or 0 if the manager was created without {@link WriteBehindSettings}.
+     */
+    public int getPendingORMObjects() {
+        return writeBehindBuffer == null ? 0 : writeBehindBuffer.size();
+    }
+
+    @NotNull
+    private WriteBehindBuffer requireWriteBehindBuffer() {
+        if (writeBehindBuffer == null) {
+            throw new IllegalStateException("Write-behind is not enabled, set WriteBehindSettings in the builder.");
+        }
+        return writeBehindBuffer;
+    }
+
+    /**
+     * Loads a list of all objects of the given type from the database by mapping the table
+     * to the object. This method will use the annotations on the class to determine the table
+     * and columns to use.
+     *
+     * @param clazz                The class of the object to load.
+     * @param queryBuilderCallback The callback to build the query. This callback will be called
+     *                             after the query builder is ready to use. You can specify the
+     *                             where clauses and other options here. Table, Database and Columns
+     *                             will be set automatically after this callback.
+     * @return A list of all objects of the given type loaded from the database.
+     * @throws SQLQueryException If the query failed.
+     */
+    public <T> List<T> loadORMObjects(@NotNull Class<T> clazz, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
+        EntityDescriptor<T> descriptor = EntityDescriptor.of(clazz);
+        SelectQuery.Builder builder = createORMQueryBuilder(descriptor, queryBuilderCallback);
+
+        // Loading all rows does not need a new query, use the cached one.
+        String query = builder.isUnfiltered() ? descriptor.getSelectSql() : builder.build().toString();
+        return loadORMObjects(descriptor, query, builder.getValues());
+    }
+
+    /**
+     * Loads a list of all objects of the given type from the database using a compiled query.
+     *
+     * @param clazz  The class of the object to load.
+     * @param query  The query, compiled by {@link #prepareORMQuery(Class, Consumer)}.
+     * @param values The values to replace the placeholders (?) in the query.
+     * @return A list of all objects of the given type loaded from the database.
+     * @throws SQLQueryException If the query failed.
+     * @see #prepareORMQuery(Class, Consumer)
+     */
+    public <T> List<T> loadORMObjects(@NotNull Class<T> clazz, @NotNull PreparedQuery query, Object... values) throws SQLQueryException {
+        return loadORMObjects(EntityDescriptor.of(clazz), query.toString(), values);
+    }
+
+    /**
+     * Loads a page of objects of the given type from the database using keyset pagination. Unlike
+     * an offset, the key of the last object of the previous page is used to seek to the page, so
+     * deep pages are loaded as fast as the first one.
+     *
+     * @param clazz                The class of the object to load.
+     * @param pagination           The pagination, that defines the key and the page size.
+     * @param token                The token of the previous page, see {@link Page#getNextToken()},
+     *                             or null to load the first page.
+     * @param queryBuilderCallback The callback to build the query, e.g. to set the where clause.
+     *                             Order by, limit and offset are set by the pagination.
+     * @return The page.
+     * @throws SQLQueryException        If the query failed.
+     * @throws IllegalArgumentException If the token is invalid.
+     * @see KeysetPagination
+     */
+    @NotNull
+    public <T> Page<T> loadORMPage(@NotNull Class<T> clazz, @NotNull KeysetPagination pagination, @Nullable String token,
+                                   @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
+        return pagination.toPage(clazz, loadORMObjects(clazz, pagination.apply(token, queryBuilderCallback)));
+    }
+
+    /**
+     * Loads a list of all objects of the given type from the database, or returns the cached list
+     * of an earlier execution of the same query with the same values. This method should be used
+     * for tables, that change rarely.
+     * <p>
+     * The returned list is unmodifiable, and the same list, including its objects, is returned to
+     * all callers until it is invalidated, so the objects must not be modified. Cached lists are
+     * invalidated when a query executed by this manager writes to the table of the class.
+     * <p>
+     * If the manager has no result cache, the objects are always loaded.
+     *
+     * @param clazz                The class of the object to load.
+     * @param queryBuilderCallback The callback to build the query. Table, Database and Columns
+     *                             will be set automatically after this callback.
+     * @return An unmodifiable list of all objects of the given type loaded from the database.
+     * @throws SQLQueryException If the query failed.
+     * @see #loadORMObjects(Class, Consumer)
+     * @see Builder#setResultCacheSettings(ResultCacheSettings)
+     */
+    public <T> List<T> loadCachedORMObjects(@NotNull Class<T> clazz, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
+        EntityDescriptor<T> descriptor = EntityDescriptor.of(clazz);
+        SelectQuery.Builder builder = createORMQueryBuilder(descriptor, queryBuilderCallback);
+        String query = builder.isUnfiltered() ? descriptor.getSelectSql() : builder.build().toString();
+        Object[] values = builder.getValues();
+        return cached(query, builder.getTable(), values, descriptor, () -> Collections.unmodifiableList(loadORMObjects(descriptor, query, values)));
+    }
+
+    /**
+     * Compiles a query, that loads objects of the given type, so that it can be executed repeatedly
+     * using {@link #loadORMObjects(Class, PreparedQuery, Object...)} without building it again.
+     * This method will use the annotations on the class to determine the table and columns to use.
+     * <p>
+     * The values set in the callback are ignored, the values are passed when executing the query.
+     *
+     * @param clazz                The class of the object to load.
+     * @param queryBuilderCallback The callback to build the query. Table, Database and Columns
+     *                             will be set automatically after this callback.
+     * @return The compiled query.
+     * @throws SQLQueryException If the class is not annotated.
+     */
+    @NotNull
+    public PreparedQuery prepareORMQuery(@NotNull Class<?> clazz, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
+        EntityDescriptor<?> descriptor = EntityDescriptor.of(clazz);
+        SelectQuery.Builder builder = createORMQueryBuilder(descriptor, queryBuilderCallback);
+        return builder.isUnfiltered() ? PreparedQuery.of(descriptor.getSelectSql()) : builder.build().prepare();
+    }
+
+    /**
+     * Creates a builder of a query, that selects the columns of the given class from its table.
+     *
+     * @param descriptor           The descriptor of the class.
+     * @param queryBuilderCallback The callback to customize the query.
+     * @return The builder.
+     * @throws SQLQueryException If the class is not annotated.
+     */
+    @NotNull
+    private static SelectQuery.Builder createORMQueryBuilder(@NotNull EntityDescriptor<?> descriptor, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
+        DatabaseTable table = descriptor.requireTable();
+
+        SelectQuery.Builder builder = SelectQuery.builder();
+        queryBuilderCallback.accept(builder);
+        builder.setDatabase(table.database())
+                .setTable(table.name())
+                .setColumns(descriptor.getColumnNames());
+        return builder;
+    }
+
+    /**
+     * Loads a list of objects from the database using the given query.
+     *
+     * @param descriptor The descriptor of the class of the objects.
+     * @param query      The query selecting the columns of the class.
+     * @param values     The values to replace the placeholders (?) in the query.
+     * @return The loaded objects.
+     * @throws SQLQueryException If the query failed.
+     */
+    private <T> List<T> loadORMObjects(@NotNull EntityDescriptor<T> descriptor, @NotNull String query, Object[] values) throws SQLQueryException {
+        List<T> objects = new ArrayList<>();
+        executeQuery(query, true, (rs) -> {
+            try {
+                int[] indices = null;
+                while (rs.next()) {
+                    if (indices == null) {
+                        // Resolve the column indices once, rows are then read by index. Some drivers
+                        // close the result set if it has no rows, so this is done on the first row.
+                        indices = descriptor.resolveIndices(rs);
+                    }
+                    objects.add(loaded(descriptor, descriptor.hydrate(rs, indices)));
+                }
+            } catch (SQLException e) {
+                throw new SQLQueryException(e);
+            }
+        }, values);
+        return objects;
+    }
+
+    /**
+     * Streams all objects of the given type from the database by mapping the table to the object.
+     * This method will use the annotations on the class to determine the table and columns to use.
+     * <p>
+     * Unlike {@link #loadORMObjects(Class, Consumer)}, this method does not load the whole result
+     * into memory. The rows are fetched from the database in chunks of {@link Builder#getFetchSize()}
+     * rows while the stream is consumed, so the memory usage does not depend on the size of the result.
+     * <p>
+     * The stream holds a connection, that is not available to other queries, until the stream is
+     * closed. Always close the stream, preferably using a try-with-resources statement. If the
+     * current thread is executing a transaction, the stream uses the connection of the transaction,
+     * and must be closed before the transaction ends.
+     *
+     * @param clazz                The class of the object to load.
+     * @param queryBuilderCallback The callback to build the query. This callback will be called
+     *                             after the query builder is ready to use. You can specify the
+     *                             where clauses and other options here. Table, Database and Columns
+     *                             will be set automatically after this callback.
+     * @return A stream of all objects of the given type loaded from the database.
+     * @throws SQLQueryException If the query failed.
+     * @see Connector#configureStreaming(Connection, java.sql.Statement, int)
+     */
+    @NotNull
+    public <T> Stream<T> streamORMObjects(@NotNull Class<T> clazz, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
+        EntityDescriptor<T> descriptor = EntityDescriptor.of(clazz);
+        SelectQuery.Builder builder = createORMQueryBuilder(descriptor, queryBuilderCallback);
+        String query = builder.isUnfiltered() ? descriptor.getSelectSql() : builder.build().toString();
+
+        final ResultStream stream = openResultStream(query, true, builder.getValues());
+        final ResultSet result = stream.resultSet;
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int[] indices;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!result.next()) {
+                        return false;
+                    }
+                    if (indices == null) {
+                        indices = descriptor.resolveIndices(result);
+                    }
+                    action.accept(loaded(descriptor, descriptor.hydrate(result, indices)));
+                    return true;
+                } catch (SQLException e) {
+                    stream.fail(e);
+                    throw new SQLQueryException("Failed to read the result of the query.", e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(stream::close);
+    }
+
+    /**
+     * Executes a query and opens its result for streaming. The result is read while it is
+     * consumed, so nobody else can use the connection until the result is closed.
+     *
+     * @param query    The query to execute.
+     * @param readOnly Whether the query only reads data, so it can use a connection for reading.
+     * @param values   The values to replace the placeholders (?) in the query.
+     * @return The open result.
+     * @throws SQLQueryException If the query failed.
+     * @see Connector#configureStreaming(Connection, java.sql.Statement, int)
+     */
+    @NotNull
+    private ResultStream openResultStream(@NotNull String query, boolean readOnly, Object[] values) throws SQLQueryException {
+        final Transaction transaction = currentTransaction.get();
+        final boolean owned = transaction == null;
+        final long acquireStart = !owned || queryListeners.length == 0 ? 0 : System.nanoTime();
+        final ManagedConnection connection = !owned ? transaction.connection
+                : readOnly ? connectionProvider.acquireForRead(true) : connectionProvider.acquireExclusive();
+        final long acquireNanos = acquireStart == 0 ? 0 : System.nanoTime() - acquireStart;
+        final Connection jdbcConnection = connection.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        boolean autoCommit = true;
+        try {
+            autoCommit = jdbcConnection.getAutoCommit();
+            // Streaming statements are not cached, the driver may keep state of the streamed result in them.
+            ps = jdbcConnection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            connector.configureStreaming(jdbcConnection, ps, fetchSize);
+            bind(ps, values);
+            final QueryObservation observation = QueryObservation.start(queryListeners, QueryEvent.Type.QUERY, query, values, acquireNanos);
+            try {
+                rs = ps.executeQuery();
+            } catch (SQLException | RuntimeException e) {
+                if (observation != null) {
+                    observation.failed(e);
+                }
+                throw e;
+            }
+            if (observation != null) {
+                observation.succeeded(-1);
+            }
+            return new ResultStream(connection, owned, ps, rs, autoCommit);
+        } catch (SQLException e) {
+            new ResultStream(connection, owned, ps, rs, autoCommit).abort(e);
+            throw new SQLQueryException("Failed to execute query.", e);
+        } catch (RuntimeException | Error e) {
+            new ResultStream(connection, owned, ps, rs, autoCommit).abort(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Loads all objects of the given type from the database one by one and passes them to the given
+     * callback. This method will use the annotations on the class to determine the table and columns
+     * to use.
+     * <p>
+     * The objects are not collected, so the memory usage does not depend on the size of the result.
+     *
+     * @param clazz                The class of the object to load.
+     * @param queryBuilderCallback The callback to build the query. This callback will be called
+     *                             after the query builder is ready to use. You can specify the
+     *                             where clauses and other options here. Table, Database and Columns
+     *                             will be set automatically after this callback.
+     * @param objectCallback       The callback to handle each of the loaded objects.
+     * @throws SQLQueryException If the query failed.
+     * @see #streamORMObjects(Class, Consumer)
+     */
+    public <T> void forEachORMObject(@NotNull Class<T> clazz, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback, @NotNull Consumer<? super T> objectCallback) throws SQLQueryException {
+        try (Stream<T> stream = streamORMObjects(clazz, queryBuilderCallback)) {
+            stream.forEach(objectCallback);
+        }
+    }
+
+    /**
+     * The resources of a result opened by {@link #openResultStream(String, boolean, Object[])}. Closing it
+     * closes the result and the statement, restores the connection and releases it, unless the
+     * connection belongs to a transaction.
+     */
+    private final class ResultStream {
+
+        private final ManagedConnection connection;
+        private final boolean owned;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+        private final boolean autoCommit;
+        private boolean broken;
+        private boolean closed;
+
+        private ResultStream(@NotNull ManagedConnection connection, boolean owned, PreparedStatement statement, ResultSet resultSet, boolean autoCommit) {
+            this.connection = connection;
+            this.owned = owned;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            this.autoCommit = autoCommit;
+        }
+
+        /**
+         * Marks the connection as broken, if the given exception was caused by it.
+         *
+         * @param e The exception, that occurred while reading the result.
+         */
+        private void fail(@NotNull SQLException e) {
+            if (isConnectionFailure(e)) {
+                broken = true;
+            }
+        }
+
+        /**
+         * Closes the resources after the result failed to open.
+         *
+         * @param e The exception, that occurred. Exceptions thrown while closing are added to it.
+         */
+        private void abort(@NotNull Throwable e) {
+            if (e instanceof SQLException) {
+                fail((SQLException) e);
+            }
+            try {
+                close();
+            } catch (SQLQueryException closeException) {
+                e.addSuppressed(closeException);
+            }
+        }
+
+        private void close() throws SQLQueryException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            SQLException exception = null;
+            try {
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                if (statement != null) {
+                    statement.close();
+                }
+                // The connector might have disabled auto-commit to stream the result.
+                Connection jdbcConnection = connection.getConnection();
+                if (!broken && autoCommit && !jdbcConnection.getAutoCommit()) {
+                    jdbcConnection.commit();
+                    jdbcConnection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                exception = e;
+            }
+
+            // The connection of a transaction is released by the transaction.
+            if (owned) {
+                if (broken || exception != null) {
+                    // The state of the connection is unknown, do not let anyone else use it.
+                    connectionProvider.invalidate(connection);
+                } else {
+                    connectionProvider.release(connection);
+                }
+            }
+            if (exception != null) {
+                throw new SQLQueryException("Failed to close the result of the query.", exception);
+            }
+        }
+
+    }
+
+    /**
+     * Executes a query to the database asynchronously and handles the result. This method should
+     * be used for queries that return a result.
+     * <p>
+     * The callback is executed on the thread executing the query, while the result is still open.
+     *
+     * @param query          The query to execute.
+     * @param resultCallback The callback to handle the result.
+     * @return The future, that completes after the result has been handled. If the query fails, it
+     * completes exceptionally with a {@link SQLQueryException}.
+     * @see #executeQuery(Query, Consumer)
+     */
+    @NotNull
+    public CompletableFuture<Void> executeQueryAsync(@NonNull Query query, @NonNull Consumer<ResultSet> resultCallback) {
+        return asyncExecutor.supply(() -> {
+            executeQuery(query, resultCallback);
+            return null;
+        });
+    }
+
+    /**
+     * Executes a query to the database asynchronously. This method should be used for queries
+     * that do not return a result.
+     *
+     * @param query The query to execute.
+     * @return The future, that completes after the query has been executed. If the query fails, it
+     * completes exceptionally with a {@link SQLQueryException}.
+     * @see #executeUpdate(Query)
+     */
+    @NotNull
+    public CompletableFuture<Void> executeUpdateAsync(@NonNull Query query) {
+        return asyncExecutor.supply(() -> {
+            executeUpdate(query);
+            return null;
+        });
+    }
+
+    /**
+     * Saves an object to the database asynchronously.
+     *
+     * @param object            The object to save.
+     * @param updateOnDuplicate If the object should be updated if it already exists.
+     * @return The future, that completes after the object has been saved. If the query fails, it
+     * completes exceptionally with a {@link SQLQueryException}.
+     * @see #saveORMObject(Object, boolean)
+     */
+    @NotNull
+    public CompletableFuture<Void> saveORMObjectAsync(@NotNull Object object, boolean updateOnDuplicate) {
+        return asyncExecutor.supply(() -> {
+            saveORMObject(object, updateOnDuplicate);
+            return null;
+        });
+    }
+
+    /**
+     * Saves an object to the database asynchronously, updating it if it already exists.
+     *
+     * @param object The object to save.
+     * @return The future, that completes after the object has been saved. If the query fails, it
+     * completes exceptionally with a {@link SQLQueryException}.
+     * @see #saveORMObject(Object)
+     */
+    @NotNull
+    public CompletableFuture<Void> saveORMObjectAsync(@NotNull Object object) {
+        return saveORMObjectAsync(object, true);
+    }
+
+    /**
+     * Saves multiple objects to the database asynchronously.
+     *
+     * @param objects           The objects to save.
+     * @param updateOnDuplicate If the objects should be updated if they already exist.
+     * @return The future, that completes after the objects have been saved. If the query fails, it
+     * completes exceptionally with a {@link SQLQueryException}.
+     * @see #saveORMObjects(Collection, boolean)
+     */
+    @NotNull
+    public CompletableFuture<Void> saveORMObjectsAsync(@NotNull Collection<?> objects, boolean updateOnDuplicate) {
+        return asyncExecutor.supply(() -> {
+            saveORMObjects(objects, updateOnDuplicate);
+            return null;
+        });
+    }
+
+    /**
+     * Loads a list of all objects of the given type from the database asynchronously.
+     *
+     * @param clazz                The class of the object to load.
+     * @param queryBuilderCallback The callback to build the query.
+     * @return The future, that completes with the loaded objects. If the query fails, it
+     * completes exceptionally with a {@link SQLQueryException}.
+     * @see #loadORMObjects(Class, Consumer)
+     */
+    @NotNull
+    public <T> CompletableFuture<List<T>> loadORMObjectsAsync(@NotNull Class<T> clazz, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) {
+        return asyncExecutor.supply(() -> loadORMObjects(clazz, queryBuilderCallback));
+    }
+
+    /**
+     * Creates a table in the database for the given class. This method will use the annotations
+     * on the class to determine the table and columns to use.
+     * <p>
+     * To create a table, the class must have a {@link DatabaseTable} annotation. This annotation
+     * determines the table to use. The class must also have a field with the {@link DatabaseColumn}
+     * annotation. This annotation determines the column to use.
+     *
+     * @param clazz       The class to create a table for.
+     * @param ifNotExists If the table should only be created if it does not exist.
+     * @throws SQLQueryException If the query failed.
+     * @see CreateTableQuery
+     */
+    public void createORMTable(@NotNull Class<?> clazz, boolean ifNotExists) throws SQLQueryException {
+        EntityDescriptor<?> descriptor = EntityDescriptor.of(clazz);
+        DatabaseTable table = descriptor.requireTable();
+
+        CreateTableQuery query = CreateTableQuery.builder()
                 .setIfNotExists(ifNotExists)
                 .setDatabase(table.database())
-                .setTable(table.name());
-
-        Arrays.stream(clazz.getDeclaredFields())
-                .filter(ORMUtil::isDatabaseColumn)
-                .map((field) -> {
-                    DatabaseColumn column = field.getAnnotation(DatabaseColumn.class);
-                    return new CreateTableQuery.Column(
-                            column.name(),
-                            column.type(),
-                            column.primaryKey(),
-                            column.autoIncrement(),
-                            column.notNull(),
-                            column.unique(),
-                            false
-                    );
-                })
-                .forEach(builder::addColumns);
-
-        CreateTableQuery query = builder.build();
+                .setTable(table.name())
+                .addColumns(descriptor.getColumnDefinitions())
+                .build();
         executeUpdate(query);
     }
 
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link DatabaseManager} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link DatabaseManager} class. This class
+     * is used to create a new {@link DatabaseManager} instance.
+     *
+     * @author Tomas Plansky
+     * @see DatabaseManager
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The connector to the database. This is required.
+         */
+        private Connector connector;
+        /**
+         * The settings of the connection pool. If this is null, the manager
+         * shares one connection between all callers instead of using a pool.
+         * Some connectors use these settings differently, see their
+         * {@link Connector#createConnectionProvider(PoolSettings)} method.
+         *
+         * @see ConnectionPool
+         */
+        private PoolSettings poolSettings;
+        /**
+         * The connectors to the replicas of the database. Queries reading data are sent to
+         * the replicas, everything else to the database of the {@link #connector}. Each
+         * replica uses the {@link #poolSettings} as well.
+         *
+         * @see ReplicaConnectionProvider
+         */
+        private Connector[] replicas;
+        /**
+         * The settings of the routing to the {@link #replicas}.
+         */
+        private ReplicaSettings replicaSettings = ReplicaSettings.builder().build();
+        /**
+         * The maximum number of prepared statements cached per connection. Statements are
+         * cached by their SQL, so executing the same query again does not need to prepare
+         * it again. If this is 0, statements are not cached.
+         */
+        private int statementCacheSize = 64;
+        /**
+         * The maximum number of rows inserted by a single query when saving multiple objects.
+         * The actual number might be lower, if the rows have too many columns.
+         *
+         * @see DatabaseManager#saveORMObjects(Collection, boolean)
+         */
+        private int batchSize = 500;
+        /**
+         * The number of rows fetched from the database at once when streaming results.
+         *
+         * @see DatabaseManager#streamORMObjects(Class, Consumer)
+         */
+        private int fetchSize = 1000;
+        /**
+         * The settings of the executor of the asynchronous methods.
+         *
+         * @see DatabaseManager#executeQueryAsync(Query, Consumer)
+         */
+        private ExecutorSettings executorSettings = ExecutorSettings.builder().build();
+        /**
+         * The settings of the cache of query results. If this is null, results are not cached.
+         *
+         * @see DatabaseManager#executeCachedQuery(Query, Object, Function)
+         */
+        private ResultCacheSettings resultCacheSettings;
+        /**
+         * The settings of the buffer of objects saved later. If this is null, objects
+         * cannot be saved later.
+         *
+         * @see DatabaseManager#saveORMObjectLater(Object)
+         */
+        private WriteBehindSettings writeBehindSettings;
+        /**
+         * Whether the objects loaded by the manager are tracked, so that saving them with
+         * {@code updateOnDuplicate} only writes the changed columns using an UPDATE query,
+         * and saving them unchanged does not write anything. Only objects of classes with
+         * a primary key are tracked. The tracked objects are referenced weakly.
+         *
+         * @see DatabaseManager#saveORMObject(Object, boolean)
+         */
+        private boolean dirtyTracking;
+
+        /**
+         * Set the connectors to the replicas of the database.
+         *
+         * @param replicas Connectors to the replicas.
+         * @return Builder instance.
+         */
+        @Contract("_ -> this")
+        public Builder setReplicas(Connector... replicas) {
+            this.replicas = replicas;
+            return this;
+        }
+
+        /**
+         * Build the {@link DatabaseManager} instance.
+         *
+         * @return The {@link DatabaseManager} instance.
+         * @throws SQLConnectionException If the connection pool failed to open its initial connections.
+         */
+        @NotNull
+        public DatabaseManager build() {
+            return new DatabaseManager(this);
+        }
+
+    }
+
 }
@@ -0,0 +1,28 @@
+package eu.decentsoftware.dropdatabase;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This interface represents the work executed in a transaction using
+ * {@link DatabaseManager#inTransaction(TransactionCallback)}.
+ *
+ * @param <T> The type of the result of the work.
+ * @author Tomas Plansky
+ * @see DatabaseManager#inTransaction(TransactionCallback)
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+
+    /**
+     * Execute the work of the transaction. All queries executed by the given manager on the
+     * current thread during this method are part of the transaction. If this method throws an
+     * exception, the transaction is rolled back, otherwise it is committed.
+     *
+     * @param manager The manager, that executes the transaction.
+     * @return The result of the work. Can be null.
+     * @throws Exception If the work failed. The transaction is rolled back.
+     */
+    T execute(@NotNull DatabaseManager manager) throws Exception;
+
+}
@@ -27,4 +27,13 @@ public @interface DatabaseTable {
 
     String database();
 
+    /**
+     * The name of the column, whose value decides the shard of an object, when the table is
+     * used with a {@link eu.decentsoftware.dropdatabase.shard.ShardedDatabaseManager}. If it
+     * is empty, the primary key is used, if it consists of a single column.
+     *
+     * @return The name of the shard key column.
+     */
+    String shardKey() default "";
+
 }
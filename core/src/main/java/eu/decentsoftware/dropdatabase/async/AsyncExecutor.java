@@ -0,0 +1,147 @@
+package eu.decentsoftware.dropdatabase.async;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This class executes the asynchronous methods of a {@link eu.decentsoftware.dropdatabase.DatabaseManager}.
+ * This class is not intended to be used by the end user and is only used internally.
+ * <p>
+ * The number of tasks executed at the same time, as well as the number of tasks waiting for
+ * execution, is limited. Tasks are executed on virtual threads when running on Java 21 or newer,
+ * and on platform threads otherwise.
+ *
+ * @author Tomas Plansky
+ * @see ExecutorSettings
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class AsyncExecutor implements Executor {
+
+    private static final String THREAD_NAME = "DropDatabase-Async-";
+
+    private final ThreadPoolExecutor executor;
+    private final long shutdownTimeout;
+
+    /**
+     * Create a new executor with the given settings.
+     *
+     * @param settings The settings.
+     */
+    public AsyncExecutor(@NotNull ExecutorSettings settings) {
+        ThreadFactory threadFactory = settings.isVirtualThreads() ? createVirtualThreadFactory() : null;
+        if (threadFactory == null) {
+            threadFactory = createPlatformThreadFactory();
+        }
+        BlockingQueue<Runnable> queue = settings.getQueueCapacity() == 0
+                ? new SynchronousQueue<>()
+                : new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(),
+                60L, TimeUnit.SECONDS, queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        // Do not keep idle threads around, if the asynchronous methods are rarely used.
+        this.executor.allowCoreThreadTimeOut(true);
+        this.shutdownTimeout = settings.getShutdownTimeout();
+    }
+
+    /**
+     * Execute the given task asynchronously.
+     *
+     * @param task The task.
+     * @param <T>  The type of the result.
+     * @return The future, that completes with the result of the task. If the task cannot be
+     * accepted, because the executor is closed or its queue is full, the future completes
+     * exceptionally with a {@link RejectedExecutionException}.
+     */
+    @NotNull
+    public <T> CompletableFuture<T> supply(@NotNull Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * Get the number of tasks waiting for execution.
+     *
+     * @return The number of tasks.
+     */
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Get the number of tasks currently being executed.
+     *
+     * @return The number of tasks.
+     */
+    public int getActiveTasks() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Stop accepting new tasks and wait for the submitted tasks to finish. Tasks still running
+     * after the shutdown timeout are interrupted.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @NotNull
+    private static ThreadFactory createPlatformThreadFactory() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Create a factory of virtual threads. Virtual threads are only available on Java 21 or newer,
+     * and this library is compiled for Java 8, so the factory is looked up reflectively.
+     *
+     * @return The factory, or null if virtual threads are not supported.
+     */
+    @Nullable
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME, 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 20 and older.
+            return null;
+        }
+    }
+
+}
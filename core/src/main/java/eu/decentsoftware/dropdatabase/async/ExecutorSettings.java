@@ -0,0 +1,118 @@
+package eu.decentsoftware.dropdatabase.async;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class holds the settings of the {@link AsyncExecutor}, which executes the asynchronous
+ * methods of a {@link eu.decentsoftware.dropdatabase.DatabaseManager}. Instances are created
+ * using the {@link Builder} class.
+ *
+ * @author Tomas Plansky
+ * @see AsyncExecutor
+ * @since 1.0.0
+ */
+@Getter
+public final class ExecutorSettings {
+
+    /**
+     * The maximum number of tasks executed at the same time.
+     */
+    private final int threads;
+    /**
+     * The maximum number of tasks waiting for execution.
+     */
+    private final int queueCapacity;
+    /**
+     * Whether tasks are executed on virtual threads, if the runtime supports them.
+     */
+    private final boolean virtualThreads;
+    /**
+     * The maximum time in milliseconds to wait for the remaining tasks when closing.
+     */
+    private final long shutdownTimeout;
+
+    /**
+     * Create new executor settings from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private ExecutorSettings(@NotNull Builder builder) {
+        if (builder.threads < 1 || builder.queueCapacity < 0) {
+            throw new IllegalArgumentException("Executor must satisfy threads >= 1 and queueCapacity >= 0.");
+        }
+        if (builder.shutdownTimeout < 0) {
+            throw new IllegalArgumentException("Executor shutdown timeout must not be negative.");
+        }
+        this.threads = builder.threads;
+        this.queueCapacity = builder.queueCapacity;
+        this.virtualThreads = builder.virtualThreads;
+        this.shutdownTimeout = builder.shutdownTimeout;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link ExecutorSettings} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link ExecutorSettings} class. This class
+     * is used to create a new {@link ExecutorSettings} instance.
+     *
+     * @author Tomas Plansky
+     * @see ExecutorSettings
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The maximum number of tasks executed at the same time. There is no point in making
+         * this larger than the number of connections, the tasks would just wait for them.
+         */
+        private int threads = 4;
+        /**
+         * The maximum number of tasks waiting for execution. Tasks submitted while the queue
+         * is full are rejected, their future completes exceptionally with a
+         * {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        private int queueCapacity = 10_000;
+        /**
+         * Whether tasks are executed on virtual threads, if the runtime supports them (Java 21+).
+         * On older runtimes, platform threads are used regardless of this setting.
+         */
+        private boolean virtualThreads = true;
+        /**
+         * The maximum time in milliseconds to wait for the remaining tasks when closing. Tasks
+         * still running after this time are interrupted.
+         */
+        private long shutdownTimeout = 30_000L;
+
+        /**
+         * Build the {@link ExecutorSettings} instance.
+         *
+         * @return The {@link ExecutorSettings} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public ExecutorSettings build() {
+            return new ExecutorSettings(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,255 @@
+package eu.decentsoftware.dropdatabase.async;
+
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
+import eu.decentsoftware.dropdatabase.internal.EntityDescriptor;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class buffers objects saved using {@link eu.decentsoftware.dropdatabase.DatabaseManager#saveORMObjectLater(Object)}
+ * and saves them in batches in the background. This class is not intended to be used by the end user
+ * and is only used internally.
+ * <p>
+ * Objects are identified by their table and primary key. If an object is saved again before it has
+ * been written, it replaces the waiting one, so only its last state is written. Objects, whose key
+ * is generated by the database and was not assigned yet, are identified by their identity instead,
+ * as they all share the same missing key.
+ * <p>
+ * The buffer is flushed by a single background thread, once it holds
+ * {@link WriteBehindSettings#getFlushSize()} objects or every
+ * {@link WriteBehindSettings#getFlushInterval()} milliseconds, whichever comes first. Flushes
+ * never overlap, so the states of an object are written in the order they were saved.
+ *
+ * @author Tomas Plansky
+ * @see WriteBehindSettings
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class WriteBehindBuffer {
+
+    private static final Logger LOGGER = Logger.getLogger("DropDatabase");
+
+    private final WriteBehindSettings settings;
+    private final Consumer<List<Object>> writer;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private LinkedHashMap<Key, Object> pending = new LinkedHashMap<>();
+    private boolean flushRequested;
+    private boolean closed;
+
+    /**
+     * Create a new buffer with the given settings.
+     *
+     * @param settings The settings.
+     * @param writer   The function, that saves a batch of objects.
+     */
+    public WriteBehindBuffer(@NotNull WriteBehindSettings settings, @NotNull Consumer<List<Object>> writer) {
+        this.settings = settings;
+        this.writer = writer;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DropDatabase-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, settings.getFlushInterval(), settings.getFlushInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add the given object to the buffer, replacing a waiting object with the same table and
+     * primary key, or the same object, if its key is generated by the database and is missing.
+     * If the buffer is full, this method blocks until there is space again, for at most
+     * {@link WriteBehindSettings#getBlockTimeout()} milliseconds.
+     *
+     * @param object The object.
+     * @throws SQLQueryException          If the class of the object is not annotated or has no primary key.
+     * @throws RejectedExecutionException If the buffer is closed or still full after the timeout.
+     */
+    public void add(@NotNull Object object) throws SQLQueryException, RejectedExecutionException {
+        EntityDescriptor<?> descriptor = EntityDescriptor.of(object.getClass());
+        DatabaseTable table = descriptor.requireTable();
+        Key key;
+        if (descriptor.isGeneratedKeyMissing(descriptor.getValues(object))) {
+            // The key is not known until the object is inserted, so it cannot be coalesced with others.
+            key = new Key(table.database(), table.name(), null, object);
+        } else {
+            key = new Key(table.database(), table.name(), descriptor.getPrimaryKey(object), null);
+        }
+
+        lock.lock();
+        try {
+            if (!pending.containsKey(key)) {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(settings.getBlockTimeout());
+                while (!closed && pending.size() >= settings.getCapacity()) {
+                    requestFlush();
+                    if (remaining <= 0) {
+                        throw new RejectedExecutionException("Write-behind buffer is full.");
+                    }
+                    try {
+                        remaining = notFull.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for the write-behind buffer.", e);
+                    }
+                }
+            }
+            if (closed) {
+                throw new RejectedExecutionException("Write-behind buffer is closed.");
+            }
+            pending.put(key, object);
+            if (pending.size() >= settings.getFlushSize()) {
+                requestFlush();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of objects waiting to be saved.
+     *
+     * @return The number of objects.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Save all waiting objects on the current thread. If saving them fails, the failure is passed
+     * to {@link WriteBehindSettings#getFailureHandler()}.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Object> batch;
+            lock.lock();
+            try {
+                flushRequested = false;
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                writer.accept(batch);
+            } catch (RuntimeException e) {
+                settings.getFailureHandler().accept(batch, e);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting new objects and save the waiting ones on the current thread.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            // Wake up the threads waiting for space, they are rejected now.
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        scheduler.shutdown();
+        try {
+            // Let a running flush finish, so that the last one is not written before it.
+            scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Schedule a flush on the background thread, unless one is scheduled already.
+     * Must be called while holding the lock.
+     */
+    private void requestFlush() {
+        if (flushRequested || closed) {
+            return;
+        }
+        flushRequested = true;
+        scheduler.execute(this::flushQuietly);
+    }
+
+    /**
+     * Flush the buffer on the background thread. Exceptions must not escape, otherwise the
+     * periodic flush would stop.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException | Error e) {
+            LOGGER.log(Level.SEVERE, "Failed to flush the write-behind buffer.", e);
+        }
+    }
+
+    /**
+     * Identifies a row by its table and primary key, or a new object by its identity.
+     */
+    private static final class Key {
+
+        private final String database;
+        private final String table;
+        private final Object id;
+        /**
+         * The object, whose generated key is missing, compared by identity. Null for other objects.
+         */
+        private final Object object;
+
+        private Key(@NotNull String database, @NotNull String table, @Nullable Object id, @Nullable Object object) {
+            this.database = database;
+            this.table = table;
+            this.id = id;
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return object == key.object && database.equals(key.database) && table.equals(key.table) && Objects.equals(id, key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(database, table, id) * 31 + System.identityHashCode(object);
+        }
+
+    }
+
+}
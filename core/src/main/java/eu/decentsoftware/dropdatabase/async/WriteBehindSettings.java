@@ -0,0 +1,143 @@
+package eu.decentsoftware.dropdatabase.async;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class holds the settings of the {@link WriteBehindBuffer}, which saves objects passed to
+ * {@link eu.decentsoftware.dropdatabase.DatabaseManager#saveORMObjectLater(Object)} in the background.
+ * Instances are created using the {@link Builder} class.
+ *
+ * @author Tomas Plansky
+ * @see WriteBehindBuffer
+ * @since 1.0.0
+ */
+@Getter
+public final class WriteBehindSettings {
+
+    private static final Logger LOGGER = Logger.getLogger("DropDatabase");
+
+    /**
+     * The maximum number of objects waiting to be saved.
+     */
+    private final int capacity;
+    /**
+     * The number of waiting objects, that triggers saving them.
+     */
+    private final int flushSize;
+    /**
+     * The maximum time in milliseconds an object waits before it is saved.
+     */
+    private final long flushInterval;
+    /**
+     * The maximum time in milliseconds to wait for space in a full buffer.
+     */
+    private final long blockTimeout;
+    /**
+     * The handler of objects, that failed to save.
+     */
+    private final @NonNull BiConsumer<List<Object>, Exception> failureHandler;
+
+    /**
+     * Create new write-behind settings from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private WriteBehindSettings(@NotNull Builder builder) {
+        if (builder.capacity < 1 || builder.flushSize < 1) {
+            throw new IllegalArgumentException("Write-behind buffer must satisfy capacity >= 1 and flushSize >= 1.");
+        }
+        if (builder.flushInterval <= 0) {
+            throw new IllegalArgumentException("Write-behind flush interval must be positive.");
+        }
+        if (builder.blockTimeout < 0) {
+            throw new IllegalArgumentException("Write-behind block timeout must not be negative.");
+        }
+        if (builder.failureHandler == null) {
+            throw new IllegalArgumentException("Write-behind failure handler must be set.");
+        }
+        this.capacity = builder.capacity;
+        this.flushSize = Math.min(builder.flushSize, builder.capacity);
+        this.flushInterval = builder.flushInterval;
+        this.blockTimeout = builder.blockTimeout;
+        this.failureHandler = builder.failureHandler;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link WriteBehindSettings} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link WriteBehindSettings} class. This class
+     * is used to create a new {@link WriteBehindSettings} instance.
+     *
+     * @author Tomas Plansky
+     * @see WriteBehindSettings
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The maximum number of objects waiting to be saved. Saving the same object again,
+         * identified by its table and primary key, does not take more space. If the buffer
+         * is full, saving another object blocks until the buffer has been flushed.
+         */
+        private int capacity = 10_000;
+        /**
+         * The number of waiting objects, that triggers saving them, without waiting for the
+         * {@link #flushInterval}.
+         */
+        private int flushSize = 500;
+        /**
+         * The maximum time in milliseconds an object waits before it is saved.
+         */
+        private long flushInterval = 1_000L;
+        /**
+         * The maximum time in milliseconds to wait for space in a full buffer. If the buffer
+         * is still full afterwards, the object is rejected.
+         */
+        private long blockTimeout = 10_000L;
+        /**
+         * The handler of objects, that failed to save. It is called with the objects and the
+         * exception. The objects can be saved again from the handler. By default, the failure
+         * is logged and the objects are dropped.
+         */
+        private BiConsumer<List<Object>, Exception> failureHandler = (objects, e) ->
+                LOGGER.log(Level.SEVERE, "Failed to save " + objects.size() + " buffered objects.", e);
+
+        /**
+         * Build the {@link WriteBehindSettings} instance.
+         *
+         * @return The {@link WriteBehindSettings} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public WriteBehindSettings build() {
+            return new WriteBehindSettings(this);
+        }
+
+    }
+
+}
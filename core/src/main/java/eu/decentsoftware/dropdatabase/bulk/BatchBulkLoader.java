@@ -0,0 +1,69 @@
+package eu.decentsoftware.dropdatabase.bulk;
+
+import eu.decentsoftware.dropdatabase.query.InsertQuery;
+import eu.decentsoftware.dropdatabase.query.intent.ColumnValuePair;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * This class is the default {@link BulkLoader}, that works with any database. It inserts the
+ * rows using a single prepared INSERT query, that is executed in batches of
+ * {@link BulkLoadSettings#getBatchSize()} rows.
+ *
+ * @author Tomas Plansky
+ * @see BulkLoader
+ * @since 1.0.0
+ */
+public final class BatchBulkLoader implements BulkLoader {
+
+    /**
+     * The shared instance of this loader. The loader has no state.
+     */
+    public static final BatchBulkLoader INSTANCE = new BatchBulkLoader();
+
+    private BatchBulkLoader() {
+    }
+
+    @Override
+    public long load(@NotNull Connection connection, @NotNull String table, @NotNull String[] columns,
+                     @NotNull Iterator<Object[]> rows, @NotNull BulkLoadSettings settings) throws SQLException {
+        // Build the query with placeholder values, only the SQL is used.
+        String query = InsertQuery.builder()
+                .setTable(table)
+                .setColumns(Arrays.stream(columns)
+                        .map((column) -> new ColumnValuePair(column, null))
+                        .toArray(ColumnValuePair[]::new))
+                .build()
+                .toString();
+
+        long loaded = 0;
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            int batched = 0;
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                if (row.length != columns.length) {
+                    throw new SQLException("Row " + loaded + " has " + row.length + " values, but " + columns.length + " columns are loaded.");
+                }
+                for (int i = 0; i < row.length; i++) {
+                    ps.setObject(i + 1, row[i]);
+                }
+                ps.addBatch();
+                loaded++;
+                if (++batched >= settings.getBatchSize()) {
+                    ps.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                ps.executeBatch();
+            }
+        }
+        return loaded;
+    }
+
+}
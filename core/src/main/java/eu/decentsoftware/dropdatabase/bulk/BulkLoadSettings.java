@@ -0,0 +1,126 @@
+package eu.decentsoftware.dropdatabase.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class holds the settings of a bulk load executed by a {@link BulkLoader}.
+ * Instances are created using the {@link Builder} class.
+ *
+ * @author Tomas Plansky
+ * @see BulkLoader
+ * @since 1.0.0
+ */
+@Getter
+public final class BulkLoadSettings {
+
+    /**
+     * The format, in which the rows are sent to the database.
+     */
+    private final Format format;
+    /**
+     * The number of rows sent to the database at once by loaders using batched queries.
+     */
+    private final int batchSize;
+    /**
+     * The number of bytes buffered before they are sent to the database by loaders
+     * streaming the rows.
+     */
+    private final int bufferSize;
+
+    /**
+     * Create new bulk load settings from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private BulkLoadSettings(@NotNull Builder builder) {
+        if (builder.format == null) {
+            throw new IllegalArgumentException("Bulk load format must be set.");
+        }
+        if (builder.batchSize < 1 || builder.bufferSize < 1) {
+            throw new IllegalArgumentException("Bulk load must satisfy batchSize >= 1 and bufferSize >= 1.");
+        }
+        this.format = builder.format;
+        this.batchSize = builder.batchSize;
+        this.bufferSize = builder.bufferSize;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link BulkLoadSettings} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The format, in which the rows are sent to the database. Loaders, that do
+     * not stream the rows, ignore the format.
+     *
+     * @author Tomas Plansky
+     * @since 1.0.0
+     */
+    public enum Format {
+        /**
+         * The rows are sent as text. Values are converted to text using their
+         * {@link Object#toString()} method, so any type can be loaded.
+         */
+        TEXT,
+        /**
+         * The rows are sent in the binary format of the database. This is faster than
+         * {@link #TEXT}, but the types of the values must match the types of the columns
+         * exactly, and only some types are supported.
+         */
+        BINARY
+    }
+
+    /**
+     * The builder class for the {@link BulkLoadSettings} class. This class
+     * is used to create a new {@link BulkLoadSettings} instance.
+     *
+     * @author Tomas Plansky
+     * @see BulkLoadSettings
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The format, in which the rows are sent to the database.
+         */
+        private Format format = Format.TEXT;
+        /**
+         * The number of rows sent to the database at once by loaders using batched queries.
+         */
+        private int batchSize = 1000;
+        /**
+         * The number of bytes buffered before they are sent to the database by loaders
+         * streaming the rows. This limits the memory used by the load.
+         */
+        private int bufferSize = 65_536;
+
+        /**
+         * Build the {@link BulkLoadSettings} instance.
+         *
+         * @return The {@link BulkLoadSettings} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public BulkLoadSettings build() {
+            return new BulkLoadSettings(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package eu.decentsoftware.dropdatabase.bulk;
+
+import eu.decentsoftware.dropdatabase.connector.Connector;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * This interface is used to load large amounts of rows into a table, using the fastest
+ * way supported by the database. Each {@link Connector} provides its loader using
+ * {@link Connector#getBulkLoader()}.
+ * <p>
+ * Loaders consume the rows while loading them, so that the memory usage does not depend
+ * on the number of rows.
+ *
+ * @author Tomas Plansky
+ * @see BatchBulkLoader
+ * @see eu.decentsoftware.dropdatabase.DatabaseManager#bulkLoad(String, String[], Iterable, BulkLoadSettings)
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface BulkLoader {
+
+    /**
+     * Load the given rows into the given table. The caller is responsible for the transaction,
+     * this method neither commits nor rolls back.
+     *
+     * @param connection The connection to load the rows with.
+     * @param table      The name of the table.
+     * @param columns    The names of the columns, in the order of the values of the rows.
+     * @param rows       The rows. Each row holds one value per column.
+     * @param settings   The settings of the load.
+     * @return The number of loaded rows.
+     * @throws SQLException If the rows could not be loaded.
+     */
+    long load(@NotNull Connection connection, @NotNull String table, @NotNull String[] columns,
+              @NotNull Iterator<Object[]> rows, @NotNull BulkLoadSettings settings) throws SQLException;
+
+}
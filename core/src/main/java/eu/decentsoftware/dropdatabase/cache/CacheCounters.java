@@ -0,0 +1,45 @@
+package eu.decentsoftware.dropdatabase.cache;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class counts the hits, misses and evictions of a cache. The counters can be
+ * shared by multiple caches and updated concurrently.
+ *
+ * @author Tomas Plansky
+ * @see CacheStats
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class CacheCounters {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * Get a snapshot of the current values of the counters.
+     *
+     * @return The snapshot.
+     */
+    @NotNull
+    public CacheStats snapshot() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+}
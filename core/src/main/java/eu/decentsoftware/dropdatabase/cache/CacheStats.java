@@ -0,0 +1,38 @@
+package eu.decentsoftware.dropdatabase.cache;
+
+import lombok.Data;
+
+/**
+ * This class holds a snapshot of the statistics of a cache.
+ *
+ * @author Tomas Plansky
+ * @see CacheCounters
+ * @since 1.0.0
+ */
+@Data
+public class CacheStats {
+
+    /**
+     * The number of lookups that found a cached entry.
+     */
+    private final long hits;
+    /**
+     * The number of lookups that did not find a cached entry.
+     */
+    private final long misses;
+    /**
+     * The number of entries that were removed from the cache to make room for new ones.
+     */
+    private final long evictions;
+
+    /**
+     * Get the ratio of lookups that found a cached entry.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if there were no lookups yet.
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+}
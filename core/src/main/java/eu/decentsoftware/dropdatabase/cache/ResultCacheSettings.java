@@ -0,0 +1,108 @@
+package eu.decentsoftware.dropdatabase.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class holds the settings of the cache of query results of a
+ * {@link eu.decentsoftware.dropdatabase.DatabaseManager}. Instances are created
+ * using the {@link Builder} class.
+ *
+ * @author Tomas Plansky
+ * @see eu.decentsoftware.dropdatabase.DatabaseManager#executeCachedQuery(eu.decentsoftware.dropdatabase.query.Query, Object, java.util.function.Function)
+ * @since 1.0.0
+ */
+@Getter
+public final class ResultCacheSettings {
+
+    /**
+     * The maximum number of cached results.
+     */
+    private final int maxEntries;
+    /**
+     * The maximum total weight of cached results.
+     */
+    private final long maxWeight;
+    /**
+     * The time in milliseconds after which a cached result expires.
+     */
+    private final long expireAfter;
+
+    /**
+     * Create new result cache settings from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private ResultCacheSettings(@NotNull Builder builder) {
+        if (builder.maxEntries < 1 || builder.maxWeight < 1) {
+            throw new IllegalArgumentException("Result cache must satisfy maxEntries >= 1 and maxWeight >= 1.");
+        }
+        if (builder.expireAfter <= 0) {
+            throw new IllegalArgumentException("Result cache expiration must be positive.");
+        }
+        this.maxEntries = builder.maxEntries;
+        this.maxWeight = builder.maxWeight;
+        this.expireAfter = builder.expireAfter;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link ResultCacheSettings} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link ResultCacheSettings} class. This class
+     * is used to create a new {@link ResultCacheSettings} instance.
+     *
+     * @author Tomas Plansky
+     * @see ResultCacheSettings
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The maximum number of cached results. If the cache is full, the least
+         * recently used results are evicted.
+         */
+        private int maxEntries = 1000;
+        /**
+         * The maximum total weight of cached results. The weight of a result is the number of
+         * its elements if it is a collection or a map, and 1 otherwise. If the total weight is
+         * exceeded, the least recently used results are evicted.
+         */
+        private long maxWeight = 100_000L;
+        /**
+         * The time in milliseconds after which a cached result expires, even if it was not
+         * invalidated. This limits how long changes made outside of the manager stay unnoticed.
+         */
+        private long expireAfter = 60_000L;
+
+        /**
+         * Build the {@link ResultCacheSettings} instance.
+         *
+         * @return The {@link ResultCacheSettings} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public ResultCacheSettings build() {
+            return new ResultCacheSettings(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,171 @@
+package eu.decentsoftware.dropdatabase.columnar;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * This class represents a column of a {@link ColumnarResult}. The values are stored in primitive
+ * arrays of {@link #CHUNK_SIZE} rows each, so loading a column allocates a few arrays instead of
+ * an object per value, and growing it never copies the values of full chunks.
+ * <p>
+ * Whether a value is null is stored in a separate bitmap, that is only allocated for columns
+ * containing null values. The primitive value of a null value is 0.
+ *
+ * @author Tomas Plansky
+ * @see ColumnarResult
+ * @since 1.0.0
+ */
+public abstract class Column {
+
+    static final int CHUNK_SHIFT = 14;
+    /**
+     * The number of rows stored in a single array.
+     */
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /**
+     * The length of the first array of a column. It grows up to {@link #CHUNK_SIZE}, so that
+     * small results do not allocate full chunks.
+     */
+    static final int INITIAL_CHUNK_LENGTH = 64;
+
+    /**
+     * The name of the column, as reported by {@link java.sql.ResultSetMetaData#getColumnLabel(int)}.
+     */
+    @Getter
+    private final @NonNull String name;
+    /**
+     * The number of rows.
+     */
+    @Getter
+    private final int size;
+    /**
+     * The number of null values.
+     */
+    @Getter
+    private final int nullCount;
+    /**
+     * The bitmap of null values in chunks of {@link #CHUNK_SIZE} bits, or null if there are none.
+     */
+    private final long[][] nulls;
+
+    Column(@NotNull Buffer buffer) {
+        this.name = buffer.name;
+        this.size = buffer.size;
+        this.nullCount = buffer.nullCount;
+        this.nulls = buffer.nullCount == 0 ? null : buffer.nulls;
+    }
+
+    /**
+     * Get the type of this column.
+     *
+     * @return The type.
+     */
+    @NotNull
+    public abstract ColumnType getType();
+
+    /**
+     * Get the value in the given row as an object. This boxes the value, so prefer the
+     * typed getters of the subclasses when reading many values.
+     *
+     * @param row The index of the row.
+     * @return The value, or null if the value is null.
+     * @throws IndexOutOfBoundsException If the row does not exist.
+     */
+    @Nullable
+    public abstract Object getObject(int row);
+
+    /**
+     * Check whether the value in the given row is null.
+     *
+     * @param row The index of the row.
+     * @return True if the value is null, false otherwise.
+     * @throws IndexOutOfBoundsException If the row does not exist.
+     */
+    public boolean isNull(int row) {
+        checkRow(row);
+        if (nulls == null) {
+            return false;
+        }
+        // The bitmap only has the chunks up to the last null value.
+        final int chunk = row >>> CHUNK_SHIFT;
+        final long[] bits = chunk < nulls.length ? nulls[chunk] : null;
+        return bits != null && (bits[(row & CHUNK_MASK) >>> 6] & (1L << row)) != 0;
+    }
+
+    void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " does not exist, the column has " + size + " rows.");
+        }
+    }
+
+    /**
+     * Get the length of the next array of a column, whose current array is full.
+     *
+     * @param chunk  The index of the array.
+     * @param length The length of the current array, or 0 if the array does not exist yet.
+     * @return The length of the next array.
+     */
+    static int nextChunkLength(int chunk, int length) {
+        if (chunk == 0) {
+            return Math.min(Math.max(length * 2, INITIAL_CHUNK_LENGTH), CHUNK_SIZE);
+        }
+        return CHUNK_SIZE;
+    }
+
+    /**
+     * This class collects the values of a column while the result is read. This class
+     * is not intended to be used by the end user and is only used internally.
+     */
+    abstract static class Buffer {
+
+        final String name;
+        int size;
+        int nullCount;
+        long[][] nulls = new long[1][];
+
+        Buffer(@NotNull String name) {
+            this.name = name;
+        }
+
+        /**
+         * Read the value of the column from the current row of the given result set.
+         *
+         * @param rs    The result set.
+         * @param index The index of the column (starting at 1).
+         * @throws SQLException If the value could not be read.
+         */
+        abstract void read(@NotNull ResultSet rs, int index) throws SQLException;
+
+        /**
+         * Create the column from the collected values.
+         *
+         * @return The column.
+         */
+        @NotNull
+        abstract Column build();
+
+        /**
+         * Mark the value in the row, that is being appended, as null.
+         */
+        void markNull() {
+            final int chunk = size >>> CHUNK_SHIFT;
+            if (chunk >= nulls.length) {
+                nulls = Arrays.copyOf(nulls, Math.max(nulls.length * 2, chunk + 1));
+            }
+            if (nulls[chunk] == null) {
+                nulls[chunk] = new long[CHUNK_SIZE >>> 6];
+            }
+            nulls[chunk][(size & CHUNK_MASK) >>> 6] |= 1L << size;
+            nullCount++;
+        }
+
+    }
+
+}
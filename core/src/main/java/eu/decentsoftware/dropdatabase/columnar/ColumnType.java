@@ -0,0 +1,63 @@
+package eu.decentsoftware.dropdatabase.columnar;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Types;
+
+/**
+ * The types of the columns of a {@link ColumnarResult}, which decide how the values of
+ * a column are read and stored.
+ *
+ * @author Tomas Plansky
+ * @see ColumnarResult
+ * @since 1.0.0
+ */
+public enum ColumnType {
+    /**
+     * The values are read using {@link java.sql.ResultSet#getInt(int)} and stored in an {@link IntColumn}.
+     */
+    INT,
+    /**
+     * The values are read using {@link java.sql.ResultSet#getLong(int)} and stored in a {@link LongColumn}.
+     */
+    LONG,
+    /**
+     * The values are read using {@link java.sql.ResultSet#getDouble(int)} and stored in a {@link DoubleColumn}.
+     */
+    DOUBLE,
+    /**
+     * The values are read using {@link java.sql.ResultSet#getString(int)} and stored in a {@link StringColumn}.
+     */
+    STRING;
+
+    /**
+     * Get the column type, that stores values of the given SQL type. Integer types up to
+     * {@link Types#INTEGER} are stored as {@link #INT}, {@link Types#BIGINT} as {@link #LONG},
+     * floating point and decimal types as {@link #DOUBLE}, and all other types as {@link #STRING}.
+     *
+     * @param sqlType The SQL type, see {@link Types}.
+     * @return The column type.
+     */
+    @NotNull
+    public static ColumnType of(int sqlType) {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return INT;
+            case Types.BIGINT:
+                return LONG;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return DOUBLE;
+            default:
+                return STRING;
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+package eu.decentsoftware.dropdatabase.columnar;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class holds the result of a query column by column, in primitive arrays. Loading a result
+ * this way allocates a few arrays per column instead of an object per value, so it is suited for
+ * reading and aggregating millions of rows in Java.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * ColumnarResult result = databaseManager.executeColumnarQuery(SelectQuery.builder()
+ *         .setTable("orders")
+ *         .setColumns("customer", "amount")
+ *         .build());
+ *
+ * StringColumn customers = result.getStringColumn("customer");
+ * DoubleColumn amounts = result.getDoubleColumn("amount");
+ * double[] totals = new double[customers.getDictionary().size()];
+ * for (int row = 0; row < result.getSize(); row++) {
+ *     totals[customers.getCode(row)] += amounts.get(row);
+ * }
+ * }</pre>
+ *
+ * @author Tomas Plansky
+ * @see DatabaseManager#executeColumnarQuery(eu.decentsoftware.dropdatabase.query.Query, ColumnType...)
+ * @since 1.0.0
+ */
+public final class ColumnarResult {
+
+    /**
+     * The number of rows.
+     */
+    @Getter
+    private final int size;
+    private final List<Column> columns;
+    private final Map<String, Column> columnsByName;
+
+    private ColumnarResult(int size, @NotNull Column[] columns) {
+        this.size = size;
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+        this.columnsByName = new HashMap<>();
+        for (Column column : columns) {
+            // Keep the first column of duplicate names, like ResultSet#findColumn.
+            columnsByName.putIfAbsent(column.getName(), column);
+        }
+    }
+
+    /**
+     * Get all columns, in the order of the query.
+     *
+     * @return The unmodifiable list of the columns.
+     */
+    @NotNull
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the column at the given index.
+     *
+     * @param index The index of the column (starting at 0).
+     * @return The column.
+     * @throws IndexOutOfBoundsException If the column does not exist.
+     */
+    @NotNull
+    public Column getColumn(int index) {
+        return columns.get(index);
+    }
+
+    /**
+     * Get the column with the given name.
+     *
+     * @param name The name of the column.
+     * @return The column.
+     * @throws IllegalArgumentException If the column does not exist.
+     */
+    @NotNull
+    public Column getColumn(@NonNull String name) {
+        Column column = columnsByName.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Column " + name + " does not exist.");
+        }
+        return column;
+    }
+
+    /**
+     * Get the column with the given name, that stores int values.
+     *
+     * @param name The name of the column.
+     * @return The column.
+     * @throws IllegalArgumentException If the column does not exist or has another type.
+     */
+    @NotNull
+    public IntColumn getIntColumn(@NonNull String name) {
+        return getColumn(name, IntColumn.class);
+    }
+
+    /**
+     * Get the column with the given name, that stores long values.
+     *
+     * @param name The name of the column.
+     * @return The column.
+     * @throws IllegalArgumentException If the column does not exist or has another type.
+     */
+    @NotNull
+    public LongColumn getLongColumn(@NonNull String name) {
+        return getColumn(name, LongColumn.class);
+    }
+
+    /**
+     * Get the column with the given name, that stores double values.
+     *
+     * @param name The name of the column.
+     * @return The column.
+     * @throws IllegalArgumentException If the column does not exist or has another type.
+     */
+    @NotNull
+    public DoubleColumn getDoubleColumn(@NonNull String name) {
+        return getColumn(name, DoubleColumn.class);
+    }
+
+    /**
+     * Get the column with the given name, that stores strings.
+     *
+     * @param name The name of the column.
+     * @return The column.
+     * @throws IllegalArgumentException If the column does not exist or has another type.
+     */
+    @NotNull
+    public StringColumn getStringColumn(@NonNull String name) {
+        return getColumn(name, StringColumn.class);
+    }
+
+    @NotNull
+    private <C extends Column> C getColumn(@NotNull String name, @NotNull Class<C> type) {
+        Column column = getColumn(name);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("Column " + name + " has the type " + column.getType() + ".");
+        }
+        return type.cast(column);
+    }
+
+    /**
+     * Read all remaining rows of the given result set.
+     *
+     * @param rs    The result set.
+     * @param types The types of the columns, in the order of the result set. If the array is shorter
+     *              than the number of columns, or a type is null, the type is chosen by the SQL type of
+     *              the column using {@link ColumnType#of(int)}.
+     * @return The result.
+     * @throws SQLException If the result could not be read.
+     */
+    @NotNull
+    public static ColumnarResult read(@NonNull ResultSet rs, @Nullable ColumnType... types) throws SQLException {
+        final ResultSetMetaData metaData = rs.getMetaData();
+        final Column.Buffer[] buffers = new Column.Buffer[metaData.getColumnCount()];
+        for (int i = 0; i < buffers.length; i++) {
+            ColumnType type = types != null && i < types.length ? types[i] : null;
+            if (type == null) {
+                type = ColumnType.of(metaData.getColumnType(i + 1));
+            }
+            String name = metaData.getColumnLabel(i + 1);
+            switch (type) {
+                case INT:
+                    buffers[i] = new IntColumn.Buffer(name);
+                    break;
+                case LONG:
+                    buffers[i] = new LongColumn.Buffer(name);
+                    break;
+                case DOUBLE:
+                    buffers[i] = new DoubleColumn.Buffer(name);
+                    break;
+                default:
+                    buffers[i] = new StringColumn.Buffer(name);
+                    break;
+            }
+        }
+
+        int size = 0;
+        while (rs.next()) {
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i].read(rs, i + 1);
+            }
+            size++;
+        }
+
+        final Column[] columns = new Column[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            columns[i] = buffers[i].build();
+        }
+        return new ColumnarResult(size, columns);
+    }
+
+}
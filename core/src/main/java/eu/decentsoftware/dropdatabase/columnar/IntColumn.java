@@ -0,0 +1,117 @@
+package eu.decentsoftware.dropdatabase.columnar;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * This class represents a column of a {@link ColumnarResult}, that stores {@code int} values.
+ *
+ * @author Tomas Plansky
+ * @see ColumnType#INT
+ * @since 1.0.0
+ */
+public final class IntColumn extends Column {
+
+    private final int[][] chunks;
+
+    private IntColumn(@NotNull Buffer buffer) {
+        super(buffer);
+        this.chunks = buffer.chunks;
+    }
+
+    @NotNull
+    @Override
+    public ColumnType getType() {
+        return ColumnType.INT;
+    }
+
+    /**
+     * Get the value in the given row.
+     *
+     * @param row The index of the row.
+     * @return The value, or 0 if the value is null.
+     * @throws IndexOutOfBoundsException If the row does not exist.
+     */
+    public int get(int row) {
+        checkRow(row);
+        return chunks[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    @Nullable
+    @Override
+    public Integer getObject(int row) {
+        return isNull(row) ? null : get(row);
+    }
+
+    /**
+     * Get the sum of all values. Null values are 0, so they do not change the sum.
+     *
+     * @return The sum.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < chunks.length && chunks[i] != null; i++) {
+            final int[] values = chunks[i];
+            final int length = Math.min(values.length, getSize() - i * CHUNK_SIZE);
+            for (int j = 0; j < length; j++) {
+                sum += values[j];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Copy all values into a single array. Null values are 0.
+     *
+     * @return The values.
+     */
+    @NotNull
+    public int[] toArray() {
+        final int[] array = new int[getSize()];
+        for (int i = 0; i * CHUNK_SIZE < array.length; i++) {
+            System.arraycopy(chunks[i], 0, array, i * CHUNK_SIZE, Math.min(CHUNK_SIZE, array.length - i * CHUNK_SIZE));
+        }
+        return array;
+    }
+
+    static final class Buffer extends Column.Buffer {
+
+        private int[][] chunks = new int[1][];
+
+        Buffer(@NotNull String name) {
+            super(name);
+        }
+
+        @Override
+        void read(@NotNull ResultSet rs, int index) throws SQLException {
+            final int value = rs.getInt(index);
+            if (rs.wasNull()) {
+                markNull();
+            }
+            final int chunk = size >>> CHUNK_SHIFT;
+            final int offset = size & CHUNK_MASK;
+            if (chunk == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+            }
+            int[] values = chunks[chunk];
+            if (values == null || offset == values.length) {
+                values = values == null ? new int[nextChunkLength(chunk, 0)] : Arrays.copyOf(values, nextChunkLength(chunk, values.length));
+                chunks[chunk] = values;
+            }
+            values[offset] = value;
+            size++;
+        }
+
+        @NotNull
+        @Override
+        Column build() {
+            return new IntColumn(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package eu.decentsoftware.dropdatabase.columnar;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a column of a {@link ColumnarResult}, that stores strings. The strings
+ * are dictionary-encoded: every distinct string is stored once, and each row stores the index
+ * of its string in the dictionary. Rows can be grouped or compared by their codes without
+ * comparing the strings.
+ *
+ * @author Tomas Plansky
+ * @see ColumnType#STRING
+ * @since 1.0.0
+ */
+public final class StringColumn extends Column {
+
+    private final int[][] codes;
+    private final List<String> dictionary;
+
+    private StringColumn(@NotNull Buffer buffer) {
+        super(buffer);
+        this.codes = buffer.codes;
+        this.dictionary = Collections.unmodifiableList(buffer.dictionary);
+    }
+
+    @NotNull
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    /**
+     * Get the value in the given row.
+     *
+     * @param row The index of the row.
+     * @return The value, or null if the value is null.
+     * @throws IndexOutOfBoundsException If the row does not exist.
+     */
+    @Nullable
+    public String get(int row) {
+        final int code = getCode(row);
+        return code < 0 ? null : dictionary.get(code);
+    }
+
+    @Nullable
+    @Override
+    public String getObject(int row) {
+        return get(row);
+    }
+
+    /**
+     * Get the index of the value in the given row in the {@link #getDictionary() dictionary}.
+     *
+     * @param row The index of the row.
+     * @return The index of the value, or -1 if the value is null.
+     * @throws IndexOutOfBoundsException If the row does not exist.
+     */
+    public int getCode(int row) {
+        checkRow(row);
+        return codes[row >>> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+
+    /**
+     * Get the distinct values of this column, in the order they first appeared in the result.
+     *
+     * @return The unmodifiable list of the distinct values.
+     */
+    @NotNull
+    public List<String> getDictionary() {
+        return dictionary;
+    }
+
+    static final class Buffer extends Column.Buffer {
+
+        private int[][] codes = new int[1][];
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+
+        Buffer(@NotNull String name) {
+            super(name);
+        }
+
+        @Override
+        void read(@NotNull ResultSet rs, int index) throws SQLException {
+            final String value = rs.getString(index);
+            int code = -1;
+            if (value == null) {
+                markNull();
+            } else {
+                Integer existing = dictionaryCodes.get(value);
+                if (existing == null) {
+                    code = dictionary.size();
+                    dictionary.add(value);
+                    dictionaryCodes.put(value, code);
+                } else {
+                    code = existing;
+                }
+            }
+            final int chunk = size >>> CHUNK_SHIFT;
+            final int offset = size & CHUNK_MASK;
+            if (chunk == codes.length) {
+                codes = Arrays.copyOf(codes, codes.length * 2);
+            }
+            int[] values = codes[chunk];
+            if (values == null || offset == values.length) {
+                values = values == null ? new int[nextChunkLength(chunk, 0)] : Arrays.copyOf(values, nextChunkLength(chunk, values.length));
+                codes[chunk] = values;
+            }
+            values[offset] = code;
+            size++;
+        }
+
+        @NotNull
+        @Override
+        Column build() {
+            return new StringColumn(this);
+        }
+
+    }
+
+}
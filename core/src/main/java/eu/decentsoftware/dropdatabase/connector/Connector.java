@@ -1,10 +1,21 @@
 package eu.decentsoftware.dropdatabase.connector;
 
+import eu.decentsoftware.dropdatabase.bulk.BatchBulkLoader;
+import eu.decentsoftware.dropdatabase.bulk.BulkLoader;
+import eu.decentsoftware.dropdatabase.dialect.Dialect;
+import eu.decentsoftware.dropdatabase.dialect.MySQLDialect;
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
 import eu.decentsoftware.dropdatabase.exception.SQLDriverException;
+import eu.decentsoftware.dropdatabase.pool.ConnectionPool;
+import eu.decentsoftware.dropdatabase.pool.ConnectionProvider;
+import eu.decentsoftware.dropdatabase.pool.PoolSettings;
+import eu.decentsoftware.dropdatabase.pool.SharedConnectionProvider;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * This class is used to connect to the database.
@@ -27,4 +38,83 @@ public interface Connector {
     @Nullable
     Connection connect() throws SQLException, SQLDriverException;
 
+    /**
+     * This method is used to configure a statement, so that its results are streamed from the
+     * database in chunks, instead of being loaded into memory all at once.
+     * <p>
+     * By default, this only sets the fetch size of the statement, which is enough for most
+     * drivers. Connectors of drivers, that need more than that, override this method. They
+     * may also disable auto-commit on the connection, in which case the caller restores it
+     * after the results have been read.
+     *
+     * @param connection The connection, on which the statement is executed.
+     * @param statement  The statement to configure. The statement is forward-only and read-only.
+     * @param fetchSize  The number of rows to fetch from the database at once.
+     * @throws SQLException If the statement could not be configured.
+     */
+    default void configureStreaming(@NotNull Connection connection, @NotNull Statement statement, int fetchSize) throws SQLException {
+        statement.setFetchSize(fetchSize);
+    }
+
+    /**
+     * This method is used to get the loader, that loads large amounts of rows into a table.
+     * <p>
+     * By default, this returns the {@link BatchBulkLoader}, which uses batched INSERT queries
+     * and works with any database. Connectors of databases, that support a faster way, such
+     * as the COPY command of PostgreSQL, override this method.
+     *
+     * @return The bulk loader.
+     */
+    @NotNull
+    default BulkLoader getBulkLoader() {
+        return BatchBulkLoader.INSTANCE;
+    }
+
+    /**
+     * This method is used to get the dialect of the database, which is used to build the
+     * queries, that differ between databases.
+     * <p>
+     * By default, this returns {@link MySQLDialect#INSTANCE}.
+     *
+     * @return The dialect.
+     */
+    @NotNull
+    default Dialect getDialect() {
+        return MySQLDialect.INSTANCE;
+    }
+
+    /**
+     * This method is used to check whether the driver returns the generated keys of all rows
+     * inserted by a single INSERT query, in the order of the rows. If it does not, objects,
+     * whose keys are generated, are inserted one at a time by
+     * {@link eu.decentsoftware.dropdatabase.DatabaseManager#saveORMObjects(java.util.Collection, boolean)}.
+     * <p>
+     * By default, this returns true, which is the case for the MySQL, MariaDB and PostgreSQL drivers.
+     *
+     * @return True if the keys of all inserted rows are returned, false otherwise.
+     */
+    default boolean isReturningAllGeneratedKeys() {
+        return true;
+    }
+
+    /**
+     * This method is used to create the provider of the connections used by the
+     * {@link eu.decentsoftware.dropdatabase.DatabaseManager}.
+     * <p>
+     * By default, this returns a {@link SharedConnectionProvider} if no pool settings are given,
+     * or a {@link ConnectionPool} otherwise. Connectors, that manage their connections differently,
+     * such as the SQLite connector with a separate writer connection, override this method.
+     *
+     * @param poolSettings The settings of the pool, or null if the manager was created without them.
+     * @return The connection provider.
+     * @throws SQLConnectionException If the initial connections could not be opened.
+     */
+    @NotNull
+    default ConnectionProvider createConnectionProvider(@Nullable PoolSettings poolSettings) throws SQLConnectionException {
+        if (poolSettings == null) {
+            return new SharedConnectionProvider(this);
+        }
+        return new ConnectionPool(this, poolSettings);
+    }
+
 }
@@ -0,0 +1,52 @@
+package eu.decentsoftware.dropdatabase.dialect;
+
+import eu.decentsoftware.dropdatabase.connector.Connector;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This interface describes the parts of SQL, that differ between databases. Each {@link Connector}
+ * provides the dialect of its database using {@link Connector#getDialect()}, which is then used to
+ * build the queries.
+ *
+ * @author Tomas Plansky
+ * @see MySQLDialect
+ * @see OnConflictDialect
+ * @since 1.0.0
+ */
+public interface Dialect {
+
+    /**
+     * Quote the given identifier, such as the name of a column, so that it can be used
+     * in a query even if it is a reserved word.
+     *
+     * @param identifier The identifier.
+     * @return The quoted identifier.
+     */
+    @NotNull
+    String quoteIdentifier(@NotNull String identifier);
+
+    /**
+     * Get the beginning of an INSERT query, up to the name of the table.
+     *
+     * @param ignore Whether rows, that already exist, should be skipped without an error.
+     * @return The beginning of the query, such as {@code INSERT INTO}.
+     */
+    @NotNull
+    String getInsertClause(boolean ignore);
+
+    /**
+     * Append the clause, that handles rows, that already exist, to an INSERT query. The new
+     * values of the columns must be referenced by the clause, so that they are not bound twice.
+     *
+     * @param query           The query, ending with the inserted values.
+     * @param columns         The names of the inserted columns.
+     * @param conflictColumns The names of the columns of the key, that identifies existing rows.
+     *                        Can be empty, if it is not known.
+     * @param ignore          Whether rows, that already exist, should be skipped without an error.
+     * @param update          Whether rows, that already exist, should be updated. Takes precedence
+     *                        over {@code ignore}.
+     * @throws IllegalArgumentException If the dialect requires the conflict columns, but they are empty.
+     */
+    void appendConflictClause(@NotNull StringBuilder query, @NotNull String[] columns, @NotNull String[] conflictColumns, boolean ignore, boolean update);
+
+}
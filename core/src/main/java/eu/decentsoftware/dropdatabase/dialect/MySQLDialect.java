@@ -0,0 +1,82 @@
+package eu.decentsoftware.dropdatabase.dialect;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is the {@link Dialect} of MySQL and MariaDB. Existing rows are skipped using
+ * {@code INSERT IGNORE} and updated using {@code ON DUPLICATE KEY UPDATE}.
+ * <p>
+ * The new values are referenced using {@code VALUES(column)} by {@link #INSTANCE}, which is supported
+ * by all versions of MySQL and MariaDB. MySQL 8.0.20 deprecated it in favour of a row alias, which is
+ * used by {@link #ROW_ALIAS} and requires MySQL 8.0.19 or newer. MariaDB does not support the alias.
+ *
+ * @author Tomas Plansky
+ * @see Dialect
+ * @since 1.0.0
+ */
+public final class MySQLDialect implements Dialect {
+
+    /**
+     * The dialect referencing the new values using {@code VALUES(column)}.
+     */
+    public static final MySQLDialect INSTANCE = new MySQLDialect(false);
+    /**
+     * The dialect referencing the new values using the row alias {@code new}.
+     */
+    public static final MySQLDialect ROW_ALIAS = new MySQLDialect(true);
+
+    private final boolean rowAlias;
+
+    private MySQLDialect(boolean rowAlias) {
+        this.rowAlias = rowAlias;
+    }
+
+    @NotNull
+    @Override
+    public String quoteIdentifier(@NotNull String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+
+    @NotNull
+    @Override
+    public String getInsertClause(boolean ignore) {
+        return ignore ? "INSERT IGNORE INTO" : "INSERT INTO";
+    }
+
+    @Override
+    public void appendConflictClause(@NotNull StringBuilder query, @NotNull String[] columns, @NotNull String[] conflictColumns, boolean ignore, boolean update) {
+        if (!update) {
+            // Ignoring is handled by the INSERT clause.
+            return;
+        }
+        if (rowAlias) {
+            query.append(" AS new");
+        }
+        query.append(" ON DUPLICATE KEY UPDATE ");
+
+        // The key does not change, unless there is nothing else to update.
+        List<String> keys = Arrays.asList(conflictColumns);
+        boolean updateKeys = keys.containsAll(Arrays.asList(columns));
+        boolean first = true;
+        for (String column : columns) {
+            if (!updateKeys && keys.contains(column)) {
+                continue;
+            }
+            if (!first) {
+                query.append(", ");
+            }
+            first = false;
+            String quoted = quoteIdentifier(column);
+            query.append(quoted).append(" = ");
+            if (rowAlias) {
+                query.append("new.").append(quoted);
+            } else {
+                query.append("VALUES(").append(quoted).append(")");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package eu.decentsoftware.dropdatabase.dialect;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is the {@link Dialect} of PostgreSQL and SQLite. Existing rows are skipped using
+ * {@code ON CONFLICT DO NOTHING} and updated using {@code ON CONFLICT (key) DO UPDATE}, which
+ * references the new values using {@code EXCLUDED.column}.
+ * <p>
+ * Updating existing rows requires the columns of the key, that identifies them. SQLite supports
+ * this since version 3.24.0.
+ *
+ * @author Tomas Plansky
+ * @see Dialect
+ * @since 1.0.0
+ */
+public final class OnConflictDialect implements Dialect {
+
+    /**
+     * The shared instance of this dialect. The dialect has no state.
+     */
+    public static final OnConflictDialect INSTANCE = new OnConflictDialect();
+
+    private OnConflictDialect() {
+    }
+
+    @NotNull
+    @Override
+    public String quoteIdentifier(@NotNull String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    @NotNull
+    @Override
+    public String getInsertClause(boolean ignore) {
+        return "INSERT INTO";
+    }
+
+    @Override
+    public void appendConflictClause(@NotNull StringBuilder query, @NotNull String[] columns, @NotNull String[] conflictColumns, boolean ignore, boolean update) {
+        if (!update) {
+            if (ignore) {
+                query.append(" ON CONFLICT DO NOTHING");
+            }
+            return;
+        }
+        if (conflictColumns.length == 0) {
+            throw new IllegalArgumentException("The conflict columns must be set to update existing rows.");
+        }
+
+        query.append(" ON CONFLICT (");
+        for (int i = 0; i < conflictColumns.length; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(quoteIdentifier(conflictColumns[i]));
+        }
+        query.append(")");
+
+        // The key does not change, only the other columns are updated.
+        List<String> keys = Arrays.asList(conflictColumns);
+        boolean first = true;
+        for (String column : columns) {
+            if (keys.contains(column)) {
+                continue;
+            }
+            query.append(first ? " DO UPDATE SET " : ", ");
+            first = false;
+            String quoted = quoteIdentifier(column);
+            query.append(quoted).append(" = EXCLUDED.").append(quoted);
+        }
+        if (first) {
+            // All columns belong to the key, the existing row already holds the values.
+            query.append(" DO NOTHING");
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+package eu.decentsoftware.dropdatabase.internal;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads one column of the current row of a {@link ResultSet} and writes it to a field of an
+ * object. This interface is not intended to be used by the end user and is only used internally
+ * by the {@link DatabaseManager}.
+ * <p>
+ * Readers are created once per mapped field using {@link #of(Class, MethodHandle)}. They read
+ * the column by its index using the getter matching the type of the field, so that primitive
+ * values are never boxed, and write it using a pre-bound {@link MethodHandle}.
+ *
+ * @author Tomas Plansky
+ * @see EntityDescriptor
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+@FunctionalInterface
+public interface ColumnReader {
+
+    /**
+     * Read the column at the given index of the current row and write it to the given object.
+     *
+     * @param rs     The result set.
+     * @param index  The index of the column (starting at 1).
+     * @param target The object.
+     * @throws Throwable If the column could not be read or written.
+     */
+    void read(@NotNull ResultSet rs, int index, @NotNull Object target) throws Throwable;
+
+    /**
+     * Create a reader for a field of the given type.
+     *
+     * @param type   The type of the field.
+     * @param setter The setter of the field, taking the object and the value.
+     * @return The reader.
+     */
+    @NotNull
+    static ColumnReader of(@NotNull Class<?> type, @NotNull MethodHandle setter) {
+        if (type.isPrimitive()) {
+            final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, type));
+            // SQL NULL is read as the default value of the primitive type.
+            if (type == int.class) {
+                return (rs, index, target) -> {
+                    handle.invokeExact(target, rs.getInt(index));
+                };
+            } else if (type == long.class) {
+                return (rs, index, target) -> {
+                    handle.invokeExact(target, rs.getLong(index));
+                };
+            } else if (type == double.class) {
+                return (rs, index, target) -> {
+                    handle.invokeExact(target, rs.getDouble(index));
+                };
+            } else if (type == float.class) {
+                return (rs, index, target) -> {
+                    handle.invokeExact(target, rs.getFloat(index));
+                };
+            } else if (type == boolean.class) {
+                return (rs, index, target) -> {
+                    handle.invokeExact(target, rs.getBoolean(index));
+                };
+            } else if (type == short.class) {
+                return (rs, index, target) -> {
+                    handle.invokeExact(target, rs.getShort(index));
+                };
+            } else if (type == byte.class) {
+                return (rs, index, target) -> {
+                    handle.invokeExact(target, rs.getByte(index));
+                };
+            }
+            // char has no matching getter.
+            return (rs, index, target) -> {
+                String value = rs.getString(index);
+                handle.invokeExact(target, value == null || value.isEmpty() ? '\0' : value.charAt(0));
+            };
+        }
+
+        final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        if (type == String.class) {
+            return (rs, index, target) -> {
+                handle.invokeExact(target, (Object) rs.getString(index));
+            };
+        } else if (type == Integer.class) {
+            return (rs, index, target) -> {
+                int value = rs.getInt(index);
+                handle.invokeExact(target, rs.wasNull() ? null : (Object) value);
+            };
+        } else if (type == Long.class) {
+            return (rs, index, target) -> {
+                long value = rs.getLong(index);
+                handle.invokeExact(target, rs.wasNull() ? null : (Object) value);
+            };
+        } else if (type == Double.class) {
+            return (rs, index, target) -> {
+                double value = rs.getDouble(index);
+                handle.invokeExact(target, rs.wasNull() ? null : (Object) value);
+            };
+        } else if (type == Float.class) {
+            return (rs, index, target) -> {
+                float value = rs.getFloat(index);
+                handle.invokeExact(target, rs.wasNull() ? null : (Object) value);
+            };
+        } else if (type == Boolean.class) {
+            return (rs, index, target) -> {
+                boolean value = rs.getBoolean(index);
+                handle.invokeExact(target, rs.wasNull() ? null : (Object) value);
+            };
+        } else if (type == Short.class) {
+            return (rs, index, target) -> {
+                short value = rs.getShort(index);
+                handle.invokeExact(target, rs.wasNull() ? null : (Object) value);
+            };
+        } else if (type == Byte.class) {
+            return (rs, index, target) -> {
+                byte value = rs.getByte(index);
+                handle.invokeExact(target, rs.wasNull() ? null : (Object) value);
+            };
+        } else if (type == byte[].class) {
+            return (rs, index, target) -> {
+                handle.invokeExact(target, (Object) rs.getBytes(index));
+            };
+        }
+        return (rs, index, target) -> {
+            handle.invokeExact(target, readObject(rs, index, type));
+        };
+    }
+
+    /**
+     * Read a column of a type without a dedicated getter. The value is converted by the driver
+     * if it does not match the type of the field already.
+     *
+     * @param rs    The result set.
+     * @param index The index of the column (starting at 1).
+     * @param type  The type of the field.
+     * @return The value.
+     * @throws SQLException If the column could not be read.
+     */
+    static Object readObject(@NotNull ResultSet rs, int index, @NotNull Class<?> type) throws SQLException {
+        Object value = rs.getObject(index);
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        try {
+            return rs.getObject(index, type);
+        } catch (SQLException | AbstractMethodError | UnsupportedOperationException e) {
+            // The driver cannot convert the value, let the field decide.
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,736 @@
+package eu.decentsoftware.dropdatabase.internal;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.dialect.Dialect;
+import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
+import eu.decentsoftware.dropdatabase.mapper.EntityMapper;
+import eu.decentsoftware.dropdatabase.query.CreateTableQuery;
+import eu.decentsoftware.dropdatabase.query.InsertQuery;
+import eu.decentsoftware.dropdatabase.query.SelectQuery;
+import eu.decentsoftware.dropdatabase.query.intent.ColumnValuePair;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable description of how a class is mapped to a database table. This class is not
+ * intended to be used by the end user and is only used internally by the {@link DatabaseManager}.
+ * <p>
+ * All reflection is done once, when the descriptor of a class is first requested using
+ * {@link #of(Class)}. The descriptor is then cached for the lifetime of the class. Fields
+ * are accessed through pre-bound {@link MethodHandle}s and loaded rows are read by column
+ * index using {@link ColumnReader}s.
+ * <p>
+ * If an {@link EntityMapper} was generated for the class at compile time, loading, saving and
+ * creating the table use the mapper instead, which accesses the fields directly.
+ *
+ * @param <T> The mapped class.
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+@Getter
+public final class EntityDescriptor<T> {
+
+    private static final Logger LOGGER = Logger.getLogger("DropDatabase");
+    /**
+     * The maximum number of cached UPDATE queries per dialect, see {@link #getUpdateSql(Dialect, int[])}.
+     */
+    private static final int MAX_UPDATE_SQL = 64;
+    /**
+     * The handle allocating an instance of a class without calling any constructor, or null if
+     * it is not available. It is used for classes without a no-arg constructor.
+     */
+    private static final MethodHandle ALLOCATOR = loadAllocator();
+    private static final ClassValue<EntityDescriptor<?>> CACHE = new ClassValue<EntityDescriptor<?>>() {
+        @Override
+        protected EntityDescriptor<?> computeValue(Class<?> type) {
+            return new EntityDescriptor<>(type);
+        }
+    };
+
+    /**
+     * The mapped class.
+     */
+    private final @NonNull Class<T> type;
+    /**
+     * The {@link DatabaseTable} annotation of the class, or null if the class is not annotated.
+     */
+    private final @Nullable DatabaseTable table;
+    /**
+     * The generated mapper of the class, or null if there is none.
+     */
+    private final @Nullable EntityMapper<T> mapper;
+    /**
+     * The mapped columns in the order of the fields in the class.
+     */
+    private final @NonNull List<ColumnDescriptor> columns;
+    /**
+     * The columns marked as {@link DatabaseColumn#primaryKey()}, in the order of {@link #columns}.
+     */
+    private final @NonNull List<ColumnDescriptor> primaryKeyColumns;
+    /**
+     * The names of the mapped columns in the order of {@link #columns}.
+     */
+    private final @NonNull String[] columnNames;
+    /**
+     * The names of the columns of the primary key, in the order of {@link #primaryKeyColumns}.
+     */
+    private final @NonNull String[] primaryKeyNames;
+    /**
+     * The indices of the columns of the primary key in {@link #columns}, in the order of {@link #primaryKeyColumns}.
+     */
+    private final @NonNull int[] primaryKeyIndices;
+    /**
+     * The only column marked as {@link DatabaseColumn#autoIncrement()}, whose value is generated by
+     * the database when it is omitted. Null if there is no such column, if there are more of them,
+     * or if it is the only column.
+     */
+    private final @Nullable ColumnDescriptor generatedKeyColumn;
+    /**
+     * The index of {@link #generatedKeyColumn} in {@link #columns}, or -1 if there is none.
+     */
+    @Getter(AccessLevel.NONE)
+    private final int generatedKeyIndex;
+    /**
+     * The SELECT query used to load all objects. Null if the class is not annotated.
+     */
+    private final @Nullable String selectSql;
+    @Getter(AccessLevel.NONE)
+    private final Map<String, ColumnDescriptor> columnsByName;
+    /**
+     * The INSERT queries used to save an object per dialect, ignoring and updating existing rows,
+     * with and without the generated key column.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<Dialect, String[]> saveSql = new ConcurrentHashMap<>();
+    /**
+     * The UPDATE queries used to save the changed columns of an object per dialect and changed columns.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<Dialect, Map<BitSet, String>> updateSql = new ConcurrentHashMap<>();
+    /**
+     * The handle creating new instances of the class, or null if the class cannot be instantiated.
+     */
+    @Getter(AccessLevel.NONE)
+    private final @Nullable MethodHandle instantiator;
+
+    private EntityDescriptor(@NotNull Class<T> type) {
+        this.type = type;
+        this.table = type.getAnnotation(DatabaseTable.class);
+        this.instantiator = findInstantiator(type);
+
+        List<ColumnDescriptor> columns = new ArrayList<>();
+        Map<String, ColumnDescriptor> columnsByName = new HashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!ORMUtil.isDatabaseColumn(field)) {
+                continue;
+            }
+            ColumnDescriptor column = new ColumnDescriptor(field, field.getAnnotation(DatabaseColumn.class));
+            columns.add(column);
+            columnsByName.put(column.getName(), column);
+        }
+        this.mapper = loadMapper(type, columnsByName);
+        if (mapper != null) {
+            // The order of the fields returned by reflection is unspecified, use the order of the mapper.
+            columns.clear();
+            for (String name : mapper.getColumnNames()) {
+                columns.add(columnsByName.get(name));
+            }
+        }
+        this.columns = Collections.unmodifiableList(columns);
+        this.columnsByName = columnsByName;
+        this.primaryKeyColumns = Collections.unmodifiableList(columns.stream()
+                .filter((column) -> column.getAnnotation().primaryKey())
+                .collect(Collectors.toList()));
+        this.primaryKeyNames = primaryKeyColumns.stream().map(ColumnDescriptor::getName).toArray(String[]::new);
+        this.primaryKeyIndices = primaryKeyColumns.stream().mapToInt(columns::indexOf).toArray();
+        this.columnNames = columns.stream().map(ColumnDescriptor::getName).toArray(String[]::new);
+        List<ColumnDescriptor> autoIncrementColumns = columns.stream()
+                .filter((column) -> column.getAnnotation().autoIncrement())
+                .collect(Collectors.toList());
+        this.generatedKeyColumn = autoIncrementColumns.size() == 1 && columns.size() > 1 ? autoIncrementColumns.get(0) : null;
+        this.generatedKeyIndex = generatedKeyColumn == null ? -1 : columns.indexOf(generatedKeyColumn);
+
+        if (table == null || columns.isEmpty()) {
+            this.selectSql = null;
+        } else {
+            this.selectSql = SelectQuery.builder()
+                    .setDatabase(table.database())
+                    .setTable(table.name())
+                    .setColumns(columnNames)
+                    .build()
+                    .toString();
+        }
+    }
+
+    /**
+     * Get the descriptor of the given class.
+     *
+     * @param type The class.
+     * @param <T>  The class.
+     * @return The descriptor.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> EntityDescriptor<T> of(@NotNull Class<T> type) {
+        return (EntityDescriptor<T>) CACHE.get(type);
+    }
+
+    /**
+     * Create a new instance of the class using its no-arg constructor. If the class has none,
+     * the instance is allocated without calling any constructor. The fields are expected to be
+     * populated afterwards.
+     *
+     * @return The new instance.
+     * @throws SQLQueryException If the class cannot be instantiated.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public T newInstance() throws SQLQueryException {
+        if (instantiator == null) {
+            throw new SQLQueryException("Failed to instantiate " + type.getName() + ", it has no no-arg constructor.");
+        }
+        try {
+            return (T) (Object) instantiator.invokeExact();
+        } catch (Throwable e) {
+            throw new SQLQueryException("Failed to instantiate " + type.getName() + ".", e);
+        }
+    }
+
+    /**
+     * Resolve the indices of the mapped columns in the given result set. The indices
+     * are in the order of {@link #getColumns()}.
+     *
+     * @param rs The result set.
+     * @return The indices (starting at 1).
+     * @throws SQLException If a column is missing in the result set.
+     */
+    @NotNull
+    public int[] resolveIndices(@NotNull ResultSet rs) throws SQLException {
+        int[] indices = new int[columns.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = rs.findColumn(columns.get(i).getName());
+        }
+        return indices;
+    }
+
+    /**
+     * Create a new instance of the class and populate it from the current row of the given result set.
+     *
+     * @param rs      The result set.
+     * @param indices The indices of the mapped columns, see {@link #resolveIndices(ResultSet)}.
+     * @return The new instance.
+     * @throws SQLException      If a column could not be read.
+     * @throws SQLQueryException If the class cannot be instantiated or a field could not be written.
+     */
+    @NotNull
+    public T hydrate(@NotNull ResultSet rs, @NotNull int[] indices) throws SQLException, SQLQueryException {
+        T object = newInstance();
+        if (mapper != null) {
+            mapper.read(rs, indices, object);
+            return object;
+        }
+        for (int i = 0; i < indices.length; i++) {
+            columns.get(i).read(rs, indices[i], object);
+        }
+        return object;
+    }
+
+    /**
+     * Get the {@link DatabaseTable} annotation of the class.
+     *
+     * @return The annotation.
+     * @throws SQLQueryException If the class is not annotated.
+     */
+    @NotNull
+    public DatabaseTable requireTable() throws SQLQueryException {
+        if (table == null) {
+            throw new SQLQueryException("Class " + type.getName() + " is not a database object.");
+        }
+        return table;
+    }
+
+    /**
+     * Get the mapped column with the given name.
+     *
+     * @param name The name of the column.
+     * @return The column, or null if there is no such column.
+     */
+    @Nullable
+    public ColumnDescriptor getColumn(@NotNull String name) {
+        return columnsByName.get(name);
+    }
+
+    /**
+     * Get the values of all mapped columns of the given object, in the order of {@link #getColumns()}.
+     *
+     * @param object The object.
+     * @return The values.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public Object[] getValues(@NotNull Object object) {
+        Object[] values = new Object[columns.size()];
+        if (mapper != null) {
+            mapper.write((T) object, values);
+            return values;
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = columns.get(i).get(object);
+        }
+        return values;
+    }
+
+    /**
+     * Get the value of the primary key of the given object. If the primary key consists of
+     * multiple columns, the value is a list of their values, so that it can be compared.
+     *
+     * @param object The object.
+     * @return The value of the primary key.
+     * @throws SQLQueryException If the class has no primary key.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public Object getPrimaryKey(@NotNull Object object) throws SQLQueryException {
+        if (mapper != null) {
+            return mapper.getPrimaryKey((T) object);
+        }
+        if (primaryKeyColumns.isEmpty()) {
+            throw new SQLQueryException("Class " + type.getName() + " has no primary key column.");
+        } else if (primaryKeyColumns.size() == 1) {
+            return primaryKeyColumns.get(0).get(object);
+        }
+        List<Object> values = new ArrayList<>(primaryKeyColumns.size());
+        for (ColumnDescriptor column : primaryKeyColumns) {
+            values.add(column.get(object));
+        }
+        return values;
+    }
+
+    /**
+     * Check whether the database should generate the key of the object, whose values are given.
+     * This is the case if the class has a {@link #getGeneratedKeyColumn() generated key column}
+     * and its value is null or zero.
+     *
+     * @param values The values of the object, see {@link #getValues(Object)}.
+     * @return True if the key should be generated, false otherwise.
+     */
+    public boolean isGeneratedKeyMissing(@NotNull Object[] values) {
+        if (generatedKeyIndex < 0) {
+            return false;
+        }
+        Object value = values[generatedKeyIndex];
+        return value == null || value instanceof Number && ((Number) value).doubleValue() == 0;
+    }
+
+    /**
+     * Get the values of an object without the value of the {@link #getGeneratedKeyColumn() generated key column},
+     * which are the parameters of the INSERT query returned by {@link #getSaveSql(Dialect, boolean, boolean)}
+     * when the key is generated.
+     *
+     * @param values The values of the object, see {@link #getValues(Object)}.
+     * @return The values without the key.
+     * @throws IllegalStateException If the class has no generated key column.
+     */
+    @NotNull
+    public Object[] removeGeneratedKey(@NotNull Object[] values) {
+        if (generatedKeyIndex < 0) {
+            throw new IllegalStateException("Class " + type.getName() + " has no generated key column.");
+        }
+        Object[] result = new Object[values.length - 1];
+        System.arraycopy(values, 0, result, 0, generatedKeyIndex);
+        System.arraycopy(values, generatedKeyIndex + 1, result, generatedKeyIndex, result.length - generatedKeyIndex);
+        return result;
+    }
+
+    /**
+     * Pair the given values of an object with the names of their columns, for building an INSERT query.
+     *
+     * @param values      The values of the object, see {@link #getValues(Object)}.
+     * @param generateKey Whether the key is generated by the database, so the generated key column is omitted.
+     * @return The columns and values.
+     */
+    @NotNull
+    public ColumnValuePair[] getColumnValuePairs(@NotNull Object[] values, boolean generateKey) {
+        ColumnValuePair[] pairs = new ColumnValuePair[generateKey ? values.length - 1 : values.length];
+        int index = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (generateKey && i == generatedKeyIndex) {
+                continue;
+            }
+            pairs[index++] = new ColumnValuePair(columnNames[i], values[i]);
+        }
+        return pairs;
+    }
+
+    /**
+     * Write the key, that was generated by the database, to the {@link #getGeneratedKeyColumn() generated key column}
+     * of the given object. Numbers are converted to the type of the field.
+     *
+     * @param object The object.
+     * @param key    The generated key, as returned by {@link ResultSet#getObject(int)}.
+     * @throws IllegalStateException If the class has no generated key column.
+     * @throws SQLQueryException     If the key could not be written to the field.
+     */
+    public void setGeneratedKey(@NotNull Object object, @Nullable Object key) throws SQLQueryException {
+        if (generatedKeyColumn == null) {
+            throw new IllegalStateException("Class " + type.getName() + " has no generated key column.");
+        }
+        generatedKeyColumn.set(object, convertKey(key, generatedKeyColumn.getField().getType()));
+    }
+
+    @Nullable
+    private static Object convertKey(@Nullable Object key, @NotNull Class<?> type) {
+        if (!(key instanceof Number) || type.isInstance(key)) {
+            return key;
+        }
+        Number number = (Number) key;
+        if (type == int.class || type == Integer.class) {
+            return number.intValue();
+        } else if (type == long.class || type == Long.class) {
+            return number.longValue();
+        } else if (type == short.class || type == Short.class) {
+            return number.shortValue();
+        } else if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+        } else if (type == BigInteger.class) {
+            return new BigInteger(number.toString());
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(number.toString());
+        } else if (type == String.class) {
+            return number.toString();
+        }
+        return key;
+    }
+
+    /**
+     * Get the INSERT query used to save an object in the given dialect. The query is built once
+     * per dialect. Its parameters are the values returned by {@link #getValues(Object)}.
+     *
+     * @param dialect           The dialect of the database.
+     * @param updateOnDuplicate Whether existing rows are updated, otherwise they are ignored.
+     * @return The query, or null if the class is not annotated.
+     * @throws IllegalArgumentException If the dialect requires a primary key to update existing rows,
+     *                                  but the class has none.
+     */
+    @Nullable
+    public String getSaveSql(@NotNull Dialect dialect, boolean updateOnDuplicate) {
+        return getSaveSql(dialect, updateOnDuplicate, false);
+    }
+
+    /**
+     * Get the INSERT query used to save an object in the given dialect, see {@link #getSaveSql(Dialect, boolean)}.
+     * If the key is generated, the query omits the {@link #getGeneratedKeyColumn() generated key column},
+     * and its parameters are the values returned by {@link #removeGeneratedKey(Object[])}.
+     *
+     * @param dialect           The dialect of the database.
+     * @param updateOnDuplicate Whether existing rows are updated, otherwise they are ignored.
+     * @param generateKey       Whether the key is generated by the database.
+     * @return The query, or null if the class is not annotated.
+     * @throws IllegalArgumentException If the dialect requires a primary key to update existing rows,
+     *                                  but the class has none.
+     * @throws IllegalStateException    If the key is generated, but the class has no generated key column.
+     */
+    @Nullable
+    public String getSaveSql(@NotNull Dialect dialect, boolean updateOnDuplicate, boolean generateKey) {
+        if (table == null || columns.isEmpty()) {
+            return null;
+        }
+        if (generateKey && generatedKeyColumn == null) {
+            throw new IllegalStateException("Class " + type.getName() + " has no generated key column.");
+        }
+        String[] queries = saveSql.get(dialect);
+        if (queries == null) {
+            queries = saveSql.computeIfAbsent(dialect, (key) -> new String[4]);
+        }
+        int index = (updateOnDuplicate ? 1 : 0) + (generateKey ? 2 : 0);
+        if (queries[index] == null) {
+            // Build the query with placeholder values, only the SQL is used.
+            ColumnValuePair[] placeholders = columns.stream()
+                    .filter((column) -> !generateKey || column != generatedKeyColumn)
+                    .map((column) -> new ColumnValuePair(column.getName(), null))
+                    .toArray(ColumnValuePair[]::new);
+            queries[index] = InsertQuery.builder()
+                    .setDialect(dialect)
+                    .setDatabase(table.database())
+                    .setTable(table.name())
+                    .setColumns(placeholders)
+                    .setConflictColumns(primaryKeyNames)
+                    .setUpdateOnDuplicate(updateOnDuplicate)
+                    .setIgnore(!updateOnDuplicate)
+                    .build()
+                    .toString();
+        }
+        return queries[index];
+    }
+
+    /**
+     * Get the UPDATE query used to save the given changed columns of an object in the given dialect.
+     * The parameters of the query are the values of the changed columns, followed by the values of
+     * the {@link #getPrimaryKeyIndices() primary key columns}, which identify the row. Only the first
+     * {@link #MAX_UPDATE_SQL} combinations of changed columns are cached per dialect.
+     *
+     * @param dialect        The dialect of the database.
+     * @param changedColumns The indices of the changed columns, in ascending order.
+     * @return The query.
+     * @throws IllegalStateException If the class is not annotated or has no primary key.
+     */
+    @NotNull
+    public String getUpdateSql(@NotNull Dialect dialect, @NotNull int[] changedColumns) {
+        if (table == null || primaryKeyIndices.length == 0) {
+            throw new IllegalStateException("Class " + type.getName() + " has no table or no primary key.");
+        }
+        BitSet key = new BitSet(columns.size());
+        for (int index : changedColumns) {
+            key.set(index);
+        }
+        Map<BitSet, String> queries = updateSql.get(dialect);
+        if (queries == null) {
+            queries = updateSql.computeIfAbsent(dialect, (d) -> new ConcurrentHashMap<>());
+        }
+        String query = queries.get(key);
+        if (query != null) {
+            return query;
+        }
+
+        StringBuilder builder = new StringBuilder("UPDATE ").append(table.name()).append(" SET ");
+        for (int i = 0; i < changedColumns.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(dialect.quoteIdentifier(columnNames[changedColumns[i]])).append(" = ?");
+        }
+        builder.append(" WHERE ");
+        for (int i = 0; i < primaryKeyIndices.length; i++) {
+            if (i > 0) {
+                builder.append(" AND ");
+            }
+            builder.append(dialect.quoteIdentifier(columnNames[primaryKeyIndices[i]])).append(" = ?");
+        }
+        query = builder.toString();
+        if (queries.size() < MAX_UPDATE_SQL) {
+            queries.put(key, query);
+        }
+        return query;
+    }
+
+    /**
+     * Get the definitions of the mapped columns, used to create the table.
+     *
+     * @return The column definitions.
+     */
+    @NotNull
+    public CreateTableQuery.Column[] getColumnDefinitions() {
+        if (mapper != null) {
+            return mapper.getColumnDefinitions();
+        }
+        return columns.stream().map((column) -> {
+            DatabaseColumn annotation = column.getAnnotation();
+            return new CreateTableQuery.Column(
+                    annotation.name(),
+                    annotation.type(),
+                    annotation.primaryKey(),
+                    annotation.autoIncrement(),
+                    annotation.notNull(),
+                    annotation.unique(),
+                    false
+            );
+        }).toArray(CreateTableQuery.Column[]::new);
+    }
+
+    /**
+     * Load the generated mapper of the given class. A mapper, that does not map the same columns
+     * as the class, was generated from an older version of the class and is not used.
+     *
+     * @param type    The class.
+     * @param columns The mapped columns of the class by their names.
+     * @return The mapper, or null if there is none.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <T> EntityMapper<T> loadMapper(@NotNull Class<T> type, @NotNull Map<String, ColumnDescriptor> columns) {
+        if (type.getAnnotation(DatabaseTable.class) == null || type.getClassLoader() == null) {
+            return null;
+        }
+        String name = type.getName();
+        int packageEnd = name.lastIndexOf('.');
+        String mapperName = name.substring(0, packageEnd + 1) + name.substring(packageEnd + 1).replace('$', '_') + EntityMapper.SUFFIX;
+        try {
+            Class<?> mapperClass = Class.forName(mapperName, true, type.getClassLoader());
+            if (!EntityMapper.class.isAssignableFrom(mapperClass)) {
+                return null;
+            }
+            EntityMapper<T> mapper = (EntityMapper<T>) mapperClass.getDeclaredConstructor().newInstance();
+            String[] names = mapper.getColumnNames();
+            if (mapper.getType() != type || names.length != columns.size() || !columns.keySet().containsAll(Arrays.asList(names))) {
+                LOGGER.log(Level.WARNING, "Mapper " + mapperName + " is outdated, recompile " + name + ". Using reflection instead.");
+                return null;
+            }
+            return mapper;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to load mapper " + mapperName + ", using reflection instead.", e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static MethodHandle findInstantiator(@NotNull Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            return ALLOCATOR == null ? null : ALLOCATOR.bindTo(type);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Load the allocateInstance method of sun.misc.Unsafe. It is looked up by reflection, so
+     * that the class is not referenced at compile time.
+     */
+    @Nullable
+    private static MethodHandle loadAllocator() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Method allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+            return MethodHandles.lookup().unreflect(allocateInstance).bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Immutable description of how a field is mapped to a database column.
+     *
+     * @author Tomas Plansky
+     * @since 1.0.0
+     */
+    @Getter
+    public static final class ColumnDescriptor {
+
+        /**
+         * The mapped field. It is already accessible.
+         */
+        private final @NonNull Field field;
+        /**
+         * The {@link DatabaseColumn} annotation of the field.
+         */
+        private final @NonNull DatabaseColumn annotation;
+        /**
+         * The name of the column.
+         */
+        private final @NonNull String name;
+        /**
+         * The getter of the field, of type (Object) -> Object.
+         */
+        @Getter(AccessLevel.NONE)
+        private final MethodHandle getter;
+        /**
+         * The setter of the field, of type (Object, Object) -> void.
+         */
+        @Getter(AccessLevel.NONE)
+        private final MethodHandle setter;
+        @Getter(AccessLevel.NONE)
+        private final ColumnReader reader;
+
+        private ColumnDescriptor(@NotNull Field field, @NotNull DatabaseColumn annotation) {
+            this.field = field;
+            this.annotation = annotation;
+            this.name = annotation.name();
+            try {
+                // Accessible final fields can be written too.
+                field.setAccessible(true);
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle rawSetter = lookup.unreflectSetter(field);
+                this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+                this.setter = rawSetter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+                this.reader = ColumnReader.of(field.getType(), rawSetter);
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new SQLQueryException("Failed to access field " + field.getName() + " of " + field.getDeclaringClass().getName() + ".", e);
+            }
+        }
+
+        /**
+         * Get the value of this column from the given object.
+         *
+         * @param object The object.
+         * @return The value.
+         */
+        @Nullable
+        public Object get(@NotNull Object object) {
+            try {
+                return (Object) getter.invokeExact(object);
+            } catch (Throwable e) {
+                throw new SQLQueryException("Failed to read field " + field.getName() + ".", e);
+            }
+        }
+
+        /**
+         * Set the value of this column to the given object.
+         *
+         * @param object The object.
+         * @param value  The value.
+         */
+        public void set(@NotNull Object object, @Nullable Object value) {
+            try {
+                setter.invokeExact(object, value);
+            } catch (Throwable e) {
+                throw new SQLQueryException("Failed to write field " + field.getName() + ".", e);
+            }
+        }
+
+        /**
+         * Read this column from the current row of the given result set and write it to the given object.
+         *
+         * @param rs     The result set.
+         * @param index  The index of this column in the result set (starting at 1).
+         * @param object The object.
+         * @throws SQLException If the column could not be read.
+         */
+        public void read(@NotNull ResultSet rs, int index, @NotNull Object object) throws SQLException {
+            try {
+                reader.read(rs, index, object);
+            } catch (SQLException | SQLQueryException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLQueryException("Failed to write field " + field.getName() + ".", e);
+            }
+        }
+
+    }
+
+}
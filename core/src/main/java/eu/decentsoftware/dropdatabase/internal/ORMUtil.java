@@ -9,12 +9,13 @@ import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.Objects;
+import java.util.List;
 
 /**
  * Utility class for ORM. This class is not intended to be used by the end user
  * and is only used internally by the {@link DatabaseManager}.
+ * <p>
+ * The mapping of each class is resolved once and cached, see {@link EntityDescriptor}.
  *
  * @author Tomas Plansky
  * @since 1.0.0
@@ -24,45 +25,23 @@ import java.util.Objects;
 public final class ORMUtil {
 
     public static ColumnValuePair[] getValues(@NotNull Object object) {
-        return Arrays.stream(object.getClass().getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(DatabaseColumn.class))
-                .filter(field -> !Modifier.isStatic(field.getModifiers()))
-                .map(field -> {
-                    try {
-                        field.setAccessible(true);
-                        return new ColumnValuePair(field.getAnnotation(DatabaseColumn.class).name(), field.get(object));
-                    } catch (IllegalAccessException e) {
-                        e.printStackTrace();
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .toArray(ColumnValuePair[]::new);
+        List<EntityDescriptor.ColumnDescriptor> columns = EntityDescriptor.of(object.getClass()).getColumns();
+        ColumnValuePair[] values = new ColumnValuePair[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            EntityDescriptor.ColumnDescriptor column = columns.get(i);
+            values[i] = new ColumnValuePair(column.getName(), column.get(object));
+        }
+        return values;
     }
 
     public static String[] getColumnNames(@NotNull Class<?> clazz) {
-        return Arrays.stream(clazz.getDeclaredFields())
-                .filter(ORMUtil::isDatabaseColumn)
-                .map(field -> {
-                    field.setAccessible(true);
-                    DatabaseColumn columnAnnotation = field.getAnnotation(DatabaseColumn.class);
-                    return columnAnnotation.name();
-                })
-                .filter(Objects::nonNull)
-                .toArray(String[]::new);
+        return EntityDescriptor.of(clazz).getColumnNames().clone();
     }
 
     public static void setFieldValue(@NotNull Object parent, @NotNull String fieldName, Object value) {
-        try {
-            Field field = parent.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            if (Modifier.isStatic(field.getModifiers())) {
-                field.set(null, value);
-            } else {
-                field.set(parent, value);
-            }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            e.printStackTrace();
+        EntityDescriptor.ColumnDescriptor column = EntityDescriptor.of(parent.getClass()).getColumn(fieldName);
+        if (column != null) {
+            column.set(parent, value);
         }
     }
 
@@ -0,0 +1,87 @@
+package eu.decentsoftware.dropdatabase.internal;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.listener.QueryEvent;
+import eu.decentsoftware.dropdatabase.listener.QueryListener;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class notifies the {@link QueryListener}s about the execution of a single query and
+ * measures its execution time. This class is not intended to be used by the end user and
+ * is only used internally by the {@link DatabaseManager}.
+ * <p>
+ * Observations are only created if there are listeners, so that executing queries does
+ * not cost anything extra otherwise.
+ *
+ * @author Tomas Plansky
+ * @see QueryListener
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class QueryObservation {
+
+    private final QueryListener[] listeners;
+    private final QueryEvent.Type type;
+    private final String sql;
+    private final int parameterCount;
+    private final long acquireNanos;
+    private final long startedAt;
+
+    private QueryObservation(@NotNull QueryListener[] listeners, @NotNull QueryEvent.Type type, @NotNull String sql, int parameterCount, long acquireNanos) {
+        this.listeners = listeners;
+        this.type = type;
+        this.sql = sql;
+        this.parameterCount = parameterCount;
+        this.acquireNanos = acquireNanos;
+        QueryEvent event = new QueryEvent(type, sql, parameterCount, acquireNanos, 0, -1);
+        for (QueryListener listener : listeners) {
+            listener.beforeQuery(event);
+        }
+        this.startedAt = System.nanoTime();
+    }
+
+    /**
+     * Start observing a query. This notifies the listeners, that the query is about to be executed.
+     *
+     * @param listeners    The listeners.
+     * @param type         The type of the query.
+     * @param sql          The SQL of the query.
+     * @param args         The values bound to the query. Can be null.
+     * @param acquireNanos The time in nanoseconds it took to acquire the connection.
+     * @return The observation, or null if there are no listeners.
+     */
+    @Nullable
+    public static QueryObservation start(@NotNull QueryListener[] listeners, @NotNull QueryEvent.Type type, @NotNull String sql, Object[] args, long acquireNanos) {
+        if (listeners.length == 0) {
+            return null;
+        }
+        return new QueryObservation(listeners, type, sql, args == null ? 0 : args.length, acquireNanos);
+    }
+
+    /**
+     * Notify the listeners, that the query was executed successfully.
+     *
+     * @param rows The number of affected rows, or -1 if it is not known.
+     */
+    public void succeeded(long rows) {
+        QueryEvent event = new QueryEvent(type, sql, parameterCount, acquireNanos, System.nanoTime() - startedAt, rows);
+        for (QueryListener listener : listeners) {
+            listener.afterQuery(event);
+        }
+    }
+
+    /**
+     * Notify the listeners, that the query failed.
+     *
+     * @param exception The exception.
+     */
+    public void failed(@NotNull Exception exception) {
+        QueryEvent event = new QueryEvent(type, sql, parameterCount, acquireNanos, System.nanoTime() - startedAt, -1);
+        for (QueryListener listener : listeners) {
+            listener.onError(event, exception);
+        }
+    }
+
+}
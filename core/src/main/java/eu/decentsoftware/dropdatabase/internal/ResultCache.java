@@ -0,0 +1,295 @@
+package eu.decentsoftware.dropdatabase.internal;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.cache.CacheCounters;
+import eu.decentsoftware.dropdatabase.cache.ResultCacheSettings;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LRU cache of query results, keyed by the SQL and the values of the query, and a key identifying
+ * the mapping of the result, so that the same query mapped to different results is cached
+ * separately. This class is not intended to be used by the end user and is only used internally
+ * by the {@link DatabaseManager}.
+ * <p>
+ * Results are tagged with the table they were read from and invalidated when the table is written
+ * to. To not cache a result read before a concurrent write, a result is only stored if its table
+ * was not invalidated while it was being read. Each table has its own version, so writes to one
+ * table do not prevent caching the results of others. See {@link #getVersion(String)}.
+ *
+ * @author Tomas Plansky
+ * @see ResultCacheSettings
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class ResultCache {
+
+    /**
+     * Placeholder for cached null results.
+     */
+    private static final Object NULL = new Object();
+
+    private final @NonNull ResultCacheSettings settings;
+    private final @NonNull CacheCounters counters;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * The keys of the cached results by their table. Results of unknown tables are stored under null.
+     */
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+    /**
+     * The versions of the tables, incremented every time the table is invalidated.
+     */
+    private final ConcurrentHashMap<String, Long> tableVersions = new ConcurrentHashMap<>();
+    /**
+     * The number of times all results were invalidated.
+     */
+    private volatile long clearVersion;
+    /**
+     * The number of times any results were invalidated. Results of unknown tables use this version.
+     */
+    private volatile long version;
+    private long weight;
+
+    /**
+     * Create a new instance of {@link ResultCache}.
+     *
+     * @param settings The settings.
+     * @param counters The counters to record hits, misses and evictions to.
+     */
+    public ResultCache(@NonNull ResultCacheSettings settings, @NonNull CacheCounters counters) {
+        this.settings = settings;
+        this.counters = counters;
+    }
+
+    /**
+     * Get the current version of the given table. The version changes every time the results of the
+     * table are invalidated. Take it before reading a result and pass it to
+     * {@link #put(String, Object[], Object, String, Object, long)}.
+     *
+     * @param table The table the query reads from, or null if it is not known.
+     * @return The version.
+     */
+    public long getVersion(@Nullable String table) {
+        if (table == null) {
+            // The query might read from any table.
+            return version;
+        }
+        // Both versions only increase, so their sum changes, whenever one of them does.
+        return clearVersion + tableVersions.getOrDefault(normalize(table), 0L);
+    }
+
+    /**
+     * Look up the cached result of the given query.
+     *
+     * @param sql    The SQL of the query.
+     * @param values The values of the query.
+     * @param type   The key identifying the mapping of the result.
+     * @return The cached result, or a placeholder for which {@link #isMiss(Object)} returns true,
+     * if the result is not cached.
+     */
+    @Nullable
+    public synchronized Object get(@NotNull String sql, Object[] values, @NotNull Object type) {
+        Key key = new Key(sql, values, type, false);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            counters.recordMiss();
+            return NULL;
+        }
+        counters.recordHit();
+        return entry.value;
+    }
+
+    /**
+     * Check whether the given result of {@link #get(String, Object[], Object)} means, that the result
+     * is not cached. Cached results might be null.
+     *
+     * @param result The result.
+     * @return True if the result is not cached, false otherwise.
+     */
+    public static boolean isMiss(@Nullable Object result) {
+        return result == NULL;
+    }
+
+    /**
+     * Cache the result of the given query, unless the results of its table were invalidated since
+     * the given version was taken, or the result alone is heavier than the whole cache.
+     *
+     * @param sql     The SQL of the query.
+     * @param values  The values of the query.
+     * @param type    The key identifying the mapping of the result.
+     * @param table   The table the query reads from, or null if it is not known.
+     * @param value   The result.
+     * @param version The version taken before the query was executed.
+     */
+    public synchronized void put(@NotNull String sql, Object[] values, @NotNull Object type, @Nullable String table, @Nullable Object value, long version) {
+        long entryWeight = weigh(value);
+        if (version != getVersion(table) || entryWeight > settings.getMaxWeight()) {
+            return;
+        }
+        Key key = new Key(sql, values, type, true);
+        remove(key);
+        String normalized = normalize(table);
+        long expiresAt = System.nanoTime() + settings.getExpireAfter() * 1_000_000L;
+        entries.put(key, new Entry(value, normalized, entryWeight, expiresAt));
+        keysByTable.computeIfAbsent(normalized, (t) -> new HashSet<>()).add(key);
+        weight += entryWeight;
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > settings.getMaxEntries() || weight > settings.getMaxWeight()) && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            iterator.remove();
+            unindex(eldest.getKey(), eldest.getValue());
+            counters.recordEviction();
+        }
+    }
+
+    /**
+     * Invalidate the cached results of queries reading from the given table.
+     *
+     * @param table The table, or null to invalidate all results.
+     */
+    public synchronized void invalidate(@Nullable String table) {
+        version++;
+        if (table == null) {
+            clearVersion++;
+            entries.clear();
+            keysByTable.clear();
+            weight = 0;
+            return;
+        }
+        String normalized = normalize(table);
+        tableVersions.merge(normalized, 1L, Long::sum);
+        removeAll(keysByTable.remove(normalized));
+        // Results of unknown tables might read from any table.
+        removeAll(keysByTable.remove(null));
+    }
+
+    /**
+     * Get the number of currently cached results.
+     *
+     * @return The number of results.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void remove(@NotNull Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    /**
+     * Remove the results with the given keys, which were removed from {@link #keysByTable} already.
+     *
+     * @param keys The keys, or null if there are none.
+     */
+    private void removeAll(@Nullable Set<Key> keys) {
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+        }
+    }
+
+    /**
+     * Remove a result, that was removed from {@link #entries}, from the index and the weight.
+     *
+     * @param key   The key of the result.
+     * @param entry The result.
+     */
+    private void unindex(@NotNull Key key, @NotNull Entry entry) {
+        weight -= entry.weight;
+        Set<Key> keys = keysByTable.get(entry.table);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByTable.remove(entry.table);
+        }
+    }
+
+    private static long weigh(@Nullable Object value) {
+        if (value instanceof Collection) {
+            return Math.max(1, ((Collection<?>) value).size());
+        } else if (value instanceof Map) {
+            return Math.max(1, ((Map<?, ?>) value).size());
+        }
+        return 1;
+    }
+
+    @Nullable
+    private static String normalize(@Nullable String table) {
+        return table == null ? null : table.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Key {
+
+        private final String sql;
+        private final Object[] values;
+        private final Object type;
+        private final int hash;
+
+        private Key(@NotNull String sql, Object[] values, @NotNull Object type, boolean copy) {
+            this.sql = sql;
+            // Stored keys copy the values, so that the caller cannot change them afterwards.
+            this.values = values == null ? new Object[0] : copy ? values.clone() : values;
+            this.type = type;
+            this.hash = 31 * (31 * sql.hashCode() + Arrays.deepHashCode(this.values)) + type.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && sql.equals(key.sql) && type.equals(key.type) && Arrays.deepEquals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final String table;
+        private final long weight;
+        private final long expiresAt;
+
+        private Entry(Object value, String table, long weight, long expiresAt) {
+            this.value = value;
+            this.table = table;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package eu.decentsoftware.dropdatabase.internal;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the values of ORM objects, as they are stored in the database, so that only the
+ * changed columns have to be written when the objects are saved. This class is not intended
+ * to be used by the end user and is only used internally by the {@link DatabaseManager}.
+ * <p>
+ * Objects are identified by their identity, not by {@link Object#equals(Object)}, and are
+ * referenced weakly, so tracking an object does not prevent it from being garbage collected.
+ * The values of collected objects are removed the next time this tracker is used.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class SnapshotTracker {
+
+    private static final int[] UNCHANGED = new int[0];
+
+    private final ConcurrentHashMap<Key, Object[]> snapshots = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    /**
+     * Remember the given values as the values of the given object in the database. Arrays
+     * are copied, so that changing their content later is detected.
+     *
+     * @param object The object.
+     * @param values The values of the object, see {@link EntityDescriptor#getValues(Object)}.
+     */
+    public void track(@NotNull Object object, @NotNull Object[] values) {
+        expunge();
+        final Object[] snapshot = values.clone();
+        for (int i = 0; i < snapshot.length; i++) {
+            if (snapshot[i] instanceof byte[]) {
+                snapshot[i] = ((byte[]) snapshot[i]).clone();
+            }
+        }
+        snapshots.put(new Key(object, queue), snapshot);
+    }
+
+    /**
+     * Check whether the given object is tracked.
+     *
+     * @param object The object.
+     * @return True if the object is tracked, false otherwise.
+     */
+    public boolean isTracked(@NotNull Object object) {
+        return snapshots.containsKey(new Key(object, null));
+    }
+
+    /**
+     * Get the indices of the columns of the given object, whose values differ from the values
+     * remembered by {@link #track(Object, Object[])}.
+     *
+     * @param object            The object.
+     * @param values            The current values of the object, see {@link EntityDescriptor#getValues(Object)}.
+     * @param primaryKeyIndices The indices of the columns of the primary key.
+     * @return The indices of the changed columns, an empty array if nothing changed, or null if
+     * the object is not tracked or its primary key changed, so it must be saved as a whole.
+     */
+    @Nullable
+    public int[] getChangedColumns(@NotNull Object object, @NotNull Object[] values, @NotNull int[] primaryKeyIndices) {
+        expunge();
+        final Object[] snapshot = snapshots.get(new Key(object, null));
+        if (snapshot == null || snapshot.length != values.length) {
+            return null;
+        }
+        for (int index : primaryKeyIndices) {
+            if (!Objects.deepEquals(snapshot[index], values[index])) {
+                // The object refers to another row now.
+                return null;
+            }
+        }
+
+        int count = 0;
+        int[] changed = null;
+        for (int i = 0; i < values.length; i++) {
+            if (!Objects.deepEquals(snapshot[i], values[i])) {
+                if (changed == null) {
+                    changed = new int[values.length - i];
+                }
+                changed[count++] = i;
+            }
+        }
+        if (changed == null) {
+            return UNCHANGED;
+        }
+        return count == changed.length ? changed : Arrays.copyOf(changed, count);
+    }
+
+    /**
+     * Get the number of tracked objects, including objects that were garbage collected,
+     * but were not removed yet.
+     *
+     * @return The number of objects.
+     */
+    public int size() {
+        expunge();
+        return snapshots.size();
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            snapshots.remove(reference);
+        }
+    }
+
+    /**
+     * A weak reference to a tracked object, that is equal to other references to the same object.
+     */
+    private static final class Key extends WeakReference<Object> {
+
+        private final int hash;
+
+        private Key(@NotNull Object referent, @Nullable ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            // Cleared references are only equal to themselves, so they can still be removed.
+            Object referent = get();
+            return referent != null && referent == ((Key) o).get();
+        }
+
+    }
+
+}
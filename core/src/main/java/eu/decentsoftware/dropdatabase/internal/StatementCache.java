@@ -0,0 +1,186 @@
+package eu.decentsoftware.dropdatabase.internal;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.cache.CacheCounters;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * LRU cache of prepared statements of a single connection, keyed by their SQL. This class
+ * is not intended to be used by the end user and is only used internally by the {@link DatabaseManager}.
+ * <p>
+ * Statements are checked out of the cache while they are in use and put back afterwards, so
+ * a cached statement is never used by two callers at once, even if the connection is shared
+ * between threads or a query is executed from within the result callback of the same query.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class StatementCache {
+
+    private final @NonNull Connection connection;
+    private final int capacity;
+    private final @NonNull CacheCounters counters;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private boolean closed;
+
+    /**
+     * Create a new instance of {@link StatementCache}.
+     *
+     * @param connection The connection, whose statements are cached.
+     * @param capacity   The maximum number of cached statements. If this is 0, nothing is cached.
+     * @param counters   The counters to record hits, misses and evictions to.
+     */
+    public StatementCache(@NonNull Connection connection, int capacity, @NonNull CacheCounters counters) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a prepared statement for the given SQL. The statement is taken from the cache if
+     * possible, otherwise a new statement is prepared. The statement must be given back using
+     * {@link #recycle(String, PreparedStatement, boolean)} after it was used.
+     *
+     * @param sql The SQL of the statement.
+     * @return The prepared statement.
+     * @throws SQLException If the statement could not be prepared.
+     */
+    @NotNull
+    public PreparedStatement prepare(@NotNull String sql) throws SQLException {
+        return prepare(sql, null);
+    }
+
+    /**
+     * Get a prepared statement for the given SQL, that returns the values of the given column
+     * generated by the database using {@link PreparedStatement#getGeneratedKeys()}. The statement
+     * is cached separately from statements of the same SQL, that do not return generated keys,
+     * and must be given back using {@link #recycle(String, String, PreparedStatement, boolean)}.
+     *
+     * @param sql          The SQL of the statement.
+     * @param generatedKey The name of the generated column, or null if no keys are returned.
+     * @return The prepared statement.
+     * @throws SQLException If the statement could not be prepared.
+     */
+    @NotNull
+    public PreparedStatement prepare(@NotNull String sql, @Nullable String generatedKey) throws SQLException {
+        final String key = getKey(sql, generatedKey);
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = statements.remove(key);
+        }
+        if (statement != null) {
+            counters.recordHit();
+            return statement;
+        }
+        counters.recordMiss();
+        if (generatedKey == null) {
+            return connection.prepareStatement(sql);
+        }
+        return connection.prepareStatement(sql, new String[]{generatedKey});
+    }
+
+    /**
+     * Give back a statement, that was obtained using {@link #prepare(String)}. Reusable statements
+     * are put back to the cache, evicting the least recently used statement if the cache is full.
+     * Other statements are closed.
+     *
+     * @param sql       The SQL of the statement.
+     * @param statement The statement.
+     * @param reusable  Whether the statement was used successfully and can be used again.
+     */
+    public void recycle(@NotNull String sql, @NotNull PreparedStatement statement, boolean reusable) {
+        recycle(sql, null, statement, reusable);
+    }
+
+    /**
+     * Give back a statement, that was obtained using {@link #prepare(String, String)}, see
+     * {@link #recycle(String, PreparedStatement, boolean)}.
+     *
+     * @param sql          The SQL of the statement.
+     * @param generatedKey The name of the generated column, or null if no keys are returned.
+     * @param statement    The statement.
+     * @param reusable     Whether the statement was used successfully and can be used again.
+     */
+    public void recycle(@NotNull String sql, @Nullable String generatedKey, @NotNull PreparedStatement statement, boolean reusable) {
+        if (!reusable || capacity <= 0) {
+            closeQuietly(statement);
+            return;
+        }
+        try {
+            statement.clearParameters();
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+
+        List<PreparedStatement> evicted = new ArrayList<>(1);
+        synchronized (this) {
+            if (closed) {
+                evicted.add(statement);
+                statements.clear();
+            }
+            PreparedStatement previous = closed ? null : statements.put(getKey(sql, generatedKey), statement);
+            if (previous != null) {
+                // Another caller used the same SQL concurrently and was faster.
+                evicted.add(previous);
+            }
+            Iterator<PreparedStatement> iterator = statements.values().iterator();
+            while (statements.size() > capacity && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+                counters.recordEviction();
+            }
+        }
+        evicted.forEach(StatementCache::closeQuietly);
+    }
+
+    /**
+     * Close all cached statements.
+     */
+    public void close() {
+        List<PreparedStatement> cached;
+        synchronized (this) {
+            closed = true;
+            cached = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        cached.forEach(StatementCache::closeQuietly);
+    }
+
+    /**
+     * Get the number of currently cached statements.
+     *
+     * @return The number of statements.
+     */
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    @NotNull
+    private static String getKey(@NotNull String sql, @Nullable String generatedKey) {
+        // Queries do not contain NUL characters, so the keys of both kinds of statements do not collide.
+        return generatedKey == null ? sql : sql + '\0' + generatedKey;
+    }
+
+    private static void closeQuietly(@NotNull PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // The statement is being discarded anyway.
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package eu.decentsoftware.dropdatabase.listener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class records latencies into a histogram with a fixed relative precision, similar to
+ * an HDR histogram. Recording a value is lock-free and does not allocate, so the histogram
+ * can be updated concurrently from the hot path.
+ * <p>
+ * Values are grouped into buckets, whose width grows with the value, so that every bucket
+ * covers at most about 3% of its values. Values from 0 to about 68 seconds (in nanoseconds)
+ * are recorded precisely, larger values are recorded as the largest trackable value.
+ *
+ * @author Tomas Plansky
+ * @see QueryStatsListener
+ * @since 1.0.0
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of bits of precision of each bucket. Buckets are 2^SUB_BUCKET_BITS
+     * times narrower than their values, so they have a relative error of about 3%.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * The largest trackable value in nanoseconds (about 68 seconds).
+     */
+    private static final long MAX_VALUE = (1L << 36) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record the given latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Get the number of recorded latencies.
+     *
+     * @return The number of latencies.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the mean of the recorded latencies.
+     *
+     * @param unit The unit of the result.
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public double getMean(TimeUnit unit) {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count / unit.toNanos(1);
+    }
+
+    /**
+     * Get the largest recorded latency.
+     *
+     * @param unit The unit of the result.
+     * @return The largest latency, or 0 if nothing was recorded.
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the latency, that the given percentage of the recorded latencies is lower than
+     * or equal to. The result is the upper bound of the bucket containing the percentile.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @param unit       The unit of the result.
+     * @return The latency, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                long upperBound = Math.min(valueOf(i + 1) - 1, max.get());
+                return unit.convert(upperBound, TimeUnit.NANOSECONDS);
+            }
+        }
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Remove all recorded latencies.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Get the index of the bucket containing the given value. Values below {@link #SUB_BUCKET_COUNT}
+     * have their own bucket. Larger values are shifted, so that only their highest
+     * {@link #SUB_BUCKET_BITS} + 1 bits are kept, and the shift selects the group of buckets.
+     */
+    private static int indexOf(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Get the lowest value of the bucket with the given index.
+     */
+    private static long valueOf(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+    }
+
+}
@@ -0,0 +1,83 @@
+package eu.decentsoftware.dropdatabase.listener;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class describes a query executed by a {@link eu.decentsoftware.dropdatabase.DatabaseManager}.
+ * It is passed to the {@link QueryListener}s.
+ *
+ * @author Tomas Plansky
+ * @see QueryListener
+ * @since 1.0.0
+ */
+@Getter
+@ToString
+public final class QueryEvent {
+
+    /**
+     * The type of query.
+     */
+    public enum Type {
+        /**
+         * A query that returns a result.
+         */
+        QUERY,
+        /**
+         * A query that does not return a result.
+         */
+        UPDATE
+    }
+
+    /**
+     * The type of the query.
+     */
+    private final @NotNull Type type;
+    /**
+     * The SQL of the query.
+     */
+    private final @NotNull String sql;
+    /**
+     * The number of values bound to the placeholders (?) of the query.
+     */
+    private final int parameterCount;
+    /**
+     * The time in nanoseconds it took to acquire the connection, on which the query is executed.
+     */
+    private final long acquireNanos;
+    /**
+     * The time in nanoseconds it took to execute the query, or 0 if it was not executed yet.
+     * For queries that return a result, this includes handling the result, except for streamed
+     * results, where it only includes opening the result.
+     */
+    private final long executionNanos;
+    /**
+     * The number of affected rows, or -1 if it is not known. The number of rows is only
+     * known for queries that do not return a result.
+     */
+    private final long rows;
+
+    @ApiStatus.Internal
+    public QueryEvent(@NotNull Type type, @NotNull String sql, int parameterCount, long acquireNanos, long executionNanos, long rows) {
+        this.type = type;
+        this.sql = sql;
+        this.parameterCount = parameterCount;
+        this.acquireNanos = acquireNanos;
+        this.executionNanos = executionNanos;
+        this.rows = rows;
+    }
+
+    /**
+     * Get the total time in milliseconds, it took to acquire the connection and execute the query.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(acquireNanos + executionNanos);
+    }
+
+}
@@ -0,0 +1,48 @@
+package eu.decentsoftware.dropdatabase.listener;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This interface is used to listen to the execution of queries by a
+ * {@link eu.decentsoftware.dropdatabase.DatabaseManager}. Register it using
+ * {@link eu.decentsoftware.dropdatabase.DatabaseManager#addQueryListener(QueryListener)}.
+ * <p>
+ * The methods are called on the thread executing the query, right before and after the
+ * statement is executed, so they should return quickly. Exceptions thrown by a listener
+ * are propagated to the caller of the query.
+ *
+ * @author Tomas Plansky
+ * @see QueryEvent
+ * @see QueryStatsListener
+ * @since 1.0.0
+ */
+public interface QueryListener {
+
+    /**
+     * Called before a query is executed. The execution time and the number of rows
+     * of the event are not known yet.
+     *
+     * @param event The query.
+     */
+    default void beforeQuery(@NotNull QueryEvent event) {
+    }
+
+    /**
+     * Called after a query was executed successfully.
+     *
+     * @param event The query.
+     */
+    default void afterQuery(@NotNull QueryEvent event) {
+    }
+
+    /**
+     * Called after a query failed. The number of rows of the event is not known.
+     *
+     * @param event     The query.
+     * @param exception The exception. This is usually a {@link java.sql.SQLException}, but it may
+     *                  also be an exception thrown while handling the result of the query.
+     */
+    default void onError(@NotNull QueryEvent event, @NotNull Exception exception) {
+    }
+
+}
@@ -0,0 +1,151 @@
+package eu.decentsoftware.dropdatabase.listener;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is an implementation of {@link QueryListener}, that keeps a {@link LatencyHistogram}
+ * of the execution times of each query and logs queries slower than a threshold.
+ * <p>
+ * Queries are told apart by their SQL, so queries with values inlined in the SQL instead of using
+ * placeholders (?) are tracked separately. To keep the memory usage bounded, only a limited number
+ * of distinct queries is tracked, all other queries are recorded in a shared histogram under
+ * {@link #OTHER_QUERIES}.
+ * <p>
+ * Slow queries are logged as warnings to the {@code DropDatabase} {@link Logger}.
+ *
+ * @author Tomas Plansky
+ * @see LatencyHistogram
+ * @since 1.0.0
+ */
+public class QueryStatsListener implements QueryListener {
+
+    /**
+     * The key of the histogram of queries, that are not tracked separately.
+     */
+    public static final String OTHER_QUERIES = "<other>";
+
+    private static final Logger LOGGER = Logger.getLogger("DropDatabase");
+
+    /**
+     * The time in milliseconds after which a query is logged as slow. If this is
+     * negative, no queries are logged.
+     */
+    @Getter
+    private final long slowQueryThreshold;
+    /**
+     * The maximum number of distinct queries tracked separately.
+     */
+    @Getter
+    private final int maxQueries;
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final LatencyHistogram otherHistogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Create a new instance of {@link QueryStatsListener}.
+     *
+     * @param slowQueryThreshold The time in milliseconds after which a query is logged as slow.
+     *                           If this is negative, no queries are logged.
+     * @param maxQueries         The maximum number of distinct queries tracked separately.
+     */
+    public QueryStatsListener(long slowQueryThreshold, int maxQueries) {
+        if (maxQueries < 0) {
+            throw new IllegalArgumentException("Max queries must not be negative.");
+        }
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.maxQueries = maxQueries;
+    }
+
+    /**
+     * Create a new instance of {@link QueryStatsListener}, that tracks up to 1000 distinct queries.
+     *
+     * @param slowQueryThreshold The time in milliseconds after which a query is logged as slow.
+     *                           If this is negative, no queries are logged.
+     */
+    public QueryStatsListener(long slowQueryThreshold) {
+        this(slowQueryThreshold, 1000);
+    }
+
+    @Override
+    public void afterQuery(@NotNull QueryEvent event) {
+        getOrCreateHistogram(event.getSql()).record(event.getExecutionNanos());
+        if (slowQueryThreshold >= 0 && event.getTotalMillis() >= slowQueryThreshold) {
+            LOGGER.log(Level.WARNING, "Slow query ({0} ms, {1} ms waiting for connection, {2} parameters, {3} rows): {4}", new Object[]{
+                    event.getTotalMillis(),
+                    TimeUnit.NANOSECONDS.toMillis(event.getAcquireNanos()),
+                    event.getParameterCount(),
+                    event.getRows(),
+                    event.getSql()
+            });
+        }
+    }
+
+    @Override
+    public void onError(@NotNull QueryEvent event, @NotNull Exception exception) {
+        errors.increment();
+    }
+
+    @NotNull
+    private LatencyHistogram getOrCreateHistogram(@NotNull String sql) {
+        LatencyHistogram histogram = histograms.get(sql);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (histograms.size() >= maxQueries) {
+            return otherHistogram;
+        }
+        return histograms.computeIfAbsent(sql, (key) -> new LatencyHistogram());
+    }
+
+    /**
+     * Get the histogram of the execution times of the given query.
+     *
+     * @param sql The SQL of the query, or {@link #OTHER_QUERIES}.
+     * @return The histogram, or null if the query was not executed yet.
+     */
+    @Nullable
+    public LatencyHistogram getHistogram(@NotNull String sql) {
+        return OTHER_QUERIES.equals(sql) ? otherHistogram : histograms.get(sql);
+    }
+
+    /**
+     * Get the histograms of the execution times of all tracked queries by their SQL.
+     * The histogram of the queries, that are not tracked separately, is not included.
+     *
+     * @return The unmodifiable view of the histograms.
+     * @see #getHistogram(String)
+     */
+    @NotNull
+    public Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Get the number of queries, that failed.
+     *
+     * @return The number of failed queries.
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Remove all recorded statistics.
+     */
+    public void reset() {
+        histograms.clear();
+        otherHistogram.reset();
+        errors.reset();
+    }
+
+}
@@ -0,0 +1,106 @@
+package eu.decentsoftware.dropdatabase.mapper;
+
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
+import eu.decentsoftware.dropdatabase.internal.ColumnReader;
+import eu.decentsoftware.dropdatabase.query.CreateTableQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This interface maps a {@link DatabaseTable} class to its table without reflection. Implementations
+ * are generated at compile time by the annotation processor of the {@code processor} module, one per
+ * annotated class, and used by the {@link eu.decentsoftware.dropdatabase.DatabaseManager} automatically.
+ * If a class has no mapper, its fields are accessed using reflection instead.
+ * <p>
+ * The mapper of a class is named like the class, with {@code $} replaced by {@code _} and followed
+ * by {@link #SUFFIX}, and is located in the same package, e.g. {@code com.example.User_Mapper}.
+ * All methods use the mapped columns in the order of {@link #getColumnNames()}.
+ *
+ * @param <T> The mapped class.
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+public interface EntityMapper<T> {
+
+    /**
+     * The suffix of the names of the generated mappers.
+     */
+    String SUFFIX = "_Mapper";
+
+    /**
+     * Get the mapped class.
+     *
+     * @return The mapped class.
+     */
+    @NotNull
+    Class<T> getType();
+
+    /**
+     * Get the names of the mapped columns.
+     *
+     * @return The names of the columns.
+     */
+    @NotNull
+    String[] getColumnNames();
+
+    /**
+     * Read the mapped columns from the current row of the given result set and write them to the given object.
+     *
+     * @param rs      The result set.
+     * @param indices The indices of the mapped columns in the result set (starting at 1).
+     * @param object  The object.
+     * @throws SQLException      If a column could not be read.
+     * @throws SQLQueryException If a field could not be written.
+     */
+    void read(@NotNull ResultSet rs, @NotNull int[] indices, @NotNull T object) throws SQLException, SQLQueryException;
+
+    /**
+     * Write the values of the mapped columns of the given object to the given array.
+     *
+     * @param object The object.
+     * @param values The array, its length is the number of mapped columns.
+     * @throws SQLQueryException If a field could not be read.
+     */
+    void write(@NotNull T object, @NotNull Object[] values) throws SQLQueryException;
+
+    /**
+     * Get the value of the primary key of the given object. If the primary key consists of
+     * multiple columns, the value is a list of their values, so that it can be compared.
+     *
+     * @param object The object.
+     * @return The value of the primary key.
+     * @throws SQLQueryException If the class has no primary key.
+     */
+    @Nullable
+    Object getPrimaryKey(@NotNull T object) throws SQLQueryException;
+
+    /**
+     * Get the definitions of the mapped columns, used to create the table.
+     *
+     * @return The column definitions.
+     * @see DatabaseColumn
+     */
+    @NotNull
+    CreateTableQuery.Column[] getColumnDefinitions();
+
+    /**
+     * Read a column of a type without a dedicated getter in {@link ResultSet}. Generated mappers
+     * use this method, so that they read such columns the same way as the reflective mapping.
+     *
+     * @param rs    The result set.
+     * @param index The index of the column (starting at 1).
+     * @param type  The type of the field.
+     * @return The value.
+     * @throws SQLException If the column could not be read.
+     */
+    @Nullable
+    static Object readObject(@NotNull ResultSet rs, int index, @NotNull Class<?> type) throws SQLException {
+        return ColumnReader.readObject(rs, index, type);
+    }
+
+}
@@ -0,0 +1,403 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import eu.decentsoftware.dropdatabase.connector.Connector;
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class is an implementation of {@link ConnectionProvider}, which keeps a bounded
+ * pool of connections created by any {@link Connector}. Each caller borrows a connection
+ * exclusively, so concurrent queries run on separate connections.
+ * <p>
+ * The pool keeps at least {@link PoolSettings#getMinSize()} connections open and never opens
+ * more than {@link PoolSettings#getMaxSize()}. If all connections are in use, callers wait up to
+ * {@link PoolSettings#getBorrowTimeout()} milliseconds for one to be returned. A background
+ * thread closes connections that were idle for too long or exceeded their maximum lifetime.
+ * <p>
+ * Borrowed connections are only validated if they were not used for longer than
+ * {@link PoolSettings#getValidationThreshold()}, and idle connections are kept alive by the
+ * background thread every {@link PoolSettings#getKeepaliveInterval()} milliseconds. When a
+ * connection turns out to be broken, all idle connections are validated before they are
+ * borrowed again, since they are likely to be broken too.
+ *
+ * @author Tomas Plansky
+ * @see ConnectionProvider
+ * @see PoolSettings
+ * @since 1.0.0
+ */
+public class ConnectionPool implements ConnectionProvider {
+
+    private final @NonNull Connector connector;
+    @Getter
+    private final @NonNull PoolSettings settings;
+    private final ScheduledExecutorService housekeeper;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    /**
+     * Idle connections, the most recently used connection is first.
+     */
+    private final ArrayDeque<ManagedConnection> idle = new ArrayDeque<>();
+    private int totalConnections;
+    private int pendingThreads;
+    private long createdConnections;
+    private long destroyedConnections;
+    private long borrowTimeouts;
+    private boolean closed;
+    /**
+     * Idle connections not known to be alive since this time (in {@link System#nanoTime()}) are
+     * validated before they are borrowed, regardless of the validation threshold.
+     */
+    private volatile long validateBefore = System.nanoTime();
+
+    /**
+     * Create a new instance of {@link ConnectionPool}. The pool immediately opens
+     * {@link PoolSettings#getMinSize()} connections.
+     *
+     * @param connector The connector used to open new connections.
+     * @param settings  The settings of the pool.
+     * @throws SQLConnectionException If the initial connections could not be opened.
+     */
+    public ConnectionPool(@NonNull Connector connector, @NonNull PoolSettings settings) throws SQLConnectionException {
+        this.connector = connector;
+        this.settings = settings;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DropDatabase-Pool-Housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            fill();
+        } catch (RuntimeException e) {
+            // Stop the housekeeper and close the connections opened so far.
+            close();
+            throw e;
+        }
+        long interval = settings.getHousekeepingInterval();
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquire() throws SQLConnectionException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getBorrowTimeout());
+        while (true) {
+            ManagedConnection candidate = null;
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLConnectionException("The connection pool is closed.");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null || totalConnections < settings.getMaxSize()) {
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        borrowTimeouts++;
+                        throw new SQLConnectionException("Timed out waiting for a connection from the pool.");
+                    }
+                    pendingThreads++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLConnectionException("Interrupted while waiting for a connection from the pool.", e);
+                    } finally {
+                        pendingThreads--;
+                    }
+                }
+                if (candidate == null) {
+                    // Reserve the slot now, the connection is opened outside the lock.
+                    totalConnections++;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (candidate == null) {
+                return open();
+            }
+            if (isExpired(candidate)) {
+                destroy(candidate);
+                continue;
+            }
+            boolean alive = candidate.isUnverifiedSince(validateBefore)
+                    ? candidate.isValid(5)
+                    : candidate.isAlive(settings.getValidationThreshold());
+            if (!alive) {
+                invalidate(candidate);
+                continue;
+            }
+            candidate.touch();
+            return candidate;
+        }
+    }
+
+    @Override
+    public void release(@NotNull ManagedConnection connection) {
+        boolean discard;
+        lock.lock();
+        try {
+            discard = closed || isExpired(connection);
+            if (!discard) {
+                connection.touch();
+                idle.addFirst(connection);
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (discard) {
+            destroy(connection);
+        }
+    }
+
+    @Override
+    public void invalidate(@NotNull ManagedConnection connection) {
+        validateBefore = System.nanoTime();
+        destroy(connection);
+    }
+
+    /**
+     * Close the given connection and free its slot in the pool.
+     *
+     * @param connection The connection.
+     */
+    private void destroy(@NotNull ManagedConnection connection) {
+        connection.closeQuietly();
+        lock.lock();
+        try {
+            totalConnections--;
+            destroyedConnections++;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned connection is borrowed from the pool. Closing it returns it to the pool
+     * instead of closing the physical connection, so make sure to always close it.
+     */
+    @NotNull
+    @Override
+    public Connection getConnection() throws SQLConnectionException {
+        final ManagedConnection connection = acquire();
+        final AtomicBoolean returned = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (returned.compareAndSet(false, true)) {
+                                release(connection);
+                            }
+                            return null;
+                        case "isClosed":
+                            return returned.get() || connection.getConnection().isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "PooledConnection[" + connection.getConnection() + "]";
+                        default:
+                            if (returned.get()) {
+                                throw new SQLException("The connection was already returned to the pool.");
+                            }
+                            try {
+                                return method.invoke(connection.getConnection(), args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                }
+        );
+    }
+
+    @NotNull
+    @Override
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(
+                    totalConnections,
+                    idle.size(),
+                    totalConnections - idle.size(),
+                    pendingThreads,
+                    createdConnections,
+                    destroyedConnections,
+                    borrowTimeouts
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the pool. Idle connections are closed immediately, connections that are
+     * currently in use are closed as soon as they are returned.
+     */
+    @Override
+    public void close() {
+        List<ManagedConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        toClose.forEach(this::destroy);
+    }
+
+    /**
+     * Open a new connection for a slot that was already reserved in {@link #totalConnections}.
+     */
+    @NotNull
+    private ManagedConnection open() throws SQLConnectionException {
+        try {
+            Connection physical = connector.connect();
+            if (physical == null || physical.isClosed()) {
+                throw new SQLConnectionException("Failed to connect to the database.");
+            }
+            lock.lock();
+            try {
+                createdConnections++;
+            } finally {
+                lock.unlock();
+            }
+            return new ManagedConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                totalConnections--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            if (e instanceof SQLConnectionException) {
+                throw (SQLConnectionException) e;
+            }
+            throw new SQLConnectionException("Failed to connect to the database.", e);
+        }
+    }
+
+    /**
+     * Put a connection, that was taken out of the pool by the housekeeping thread, back to
+     * the idle connections without marking it as used.
+     *
+     * @param connection The connection.
+     */
+    private void returnIdle(@NotNull ManagedConnection connection) {
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.addLast(connection);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        destroy(connection);
+    }
+
+    private boolean isExpired(@NotNull ManagedConnection connection) {
+        return settings.getMaxLifetime() > 0 && connection.getAgeMillis() >= settings.getMaxLifetime();
+    }
+
+    /**
+     * Open connections until the pool holds at least {@link PoolSettings#getMinSize()} connections.
+     */
+    private void fill() throws SQLConnectionException {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalConnections >= settings.getMinSize()) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+            ManagedConnection connection = open();
+            release(connection);
+        }
+    }
+
+    /**
+     * Close idle connections that exceeded their idle timeout or lifetime, validate idle
+     * connections that exceeded their keepalive interval and replace closed connections
+     * if the pool dropped below its minimum size.
+     */
+    private void housekeep() {
+        List<ManagedConnection> evicted = new ArrayList<>();
+        List<ManagedConnection> unverified = new ArrayList<>();
+        lock.lock();
+        try {
+            int removable = totalConnections - settings.getMinSize();
+            // Iterate from the least recently used connection.
+            Iterator<ManagedConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext()) {
+                ManagedConnection connection = iterator.next();
+                boolean idleTooLong = removable > 0 && settings.getIdleTimeout() > 0
+                        && connection.getIdleMillis() >= settings.getIdleTimeout();
+                if (idleTooLong || isExpired(connection)) {
+                    iterator.remove();
+                    evicted.add(connection);
+                    removable--;
+                } else if (settings.getKeepaliveInterval() > 0
+                        && connection.getUnverifiedMillis() >= settings.getKeepaliveInterval()) {
+                    // Take the connection out of the pool, so it cannot be borrowed while we validate it.
+                    iterator.remove();
+                    unverified.add(connection);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::destroy);
+        for (ManagedConnection connection : unverified) {
+            if (connection.isValid(5)) {
+                returnIdle(connection);
+            } else {
+                destroy(connection);
+            }
+        }
+        try {
+            fill();
+        } catch (SQLConnectionException ignored) {
+            // The database is unreachable right now, we try again on the next run.
+        }
+    }
+
+}
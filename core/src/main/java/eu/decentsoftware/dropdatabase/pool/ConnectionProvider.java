@@ -0,0 +1,104 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+
+/**
+ * This class is used by the {@link eu.decentsoftware.dropdatabase.DatabaseManager} to obtain
+ * connections to the database. Every connection acquired using {@link #acquire()} must be
+ * returned using either {@link #release(ManagedConnection)} or {@link #invalidate(ManagedConnection)}.
+ * The same applies to connections acquired using {@link #acquireExclusive()} and {@link #acquireForRead(boolean)}.
+ *
+ * @author Tomas Plansky
+ * @see SharedConnectionProvider
+ * @see ConnectionPool
+ * @see ReadWriteConnectionProvider
+ * @since 1.0.0
+ */
+public interface ConnectionProvider {
+
+    /**
+     * Acquire a connection to the database.
+     *
+     * @return The connection.
+     * @throws SQLConnectionException If no connection could be acquired.
+     */
+    @NotNull
+    ManagedConnection acquire() throws SQLConnectionException;
+
+    /**
+     * Acquire a connection to the database, that is not used by anyone else until it is
+     * released. Such a connection is required to change its state, e.g. to disable auto-commit
+     * for a transaction, without affecting other callers.
+     * <p>
+     * By default, this is the same as {@link #acquire()}, which is fine for providers that
+     * never share connections.
+     *
+     * @return The connection.
+     * @throws SQLConnectionException If no connection could be acquired.
+     */
+    @NotNull
+    default ManagedConnection acquireExclusive() throws SQLConnectionException {
+        return acquire();
+    }
+
+    /**
+     * Acquire a connection to the database, that is only used to read data. Providers, that
+     * keep separate connections for reading, such as {@link ReadWriteConnectionProvider}, return
+     * one of those. Queries executed on it must not write anything.
+     * <p>
+     * By default, this is the same as {@link #acquire()} or {@link #acquireExclusive()}.
+     *
+     * @param exclusive Whether the connection must not be used by anyone else until it is released.
+     * @return The connection.
+     * @throws SQLConnectionException If no connection could be acquired.
+     */
+    @NotNull
+    default ManagedConnection acquireForRead(boolean exclusive) throws SQLConnectionException {
+        return exclusive ? acquireExclusive() : acquire();
+    }
+
+    /**
+     * Return a connection, that was previously acquired using {@link #acquire()}, so
+     * it can be used again.
+     *
+     * @param connection The connection.
+     */
+    void release(@NotNull ManagedConnection connection);
+
+    /**
+     * Discard a connection, that was previously acquired using {@link #acquire()}, because
+     * it is broken and must not be used again.
+     *
+     * @param connection The connection.
+     */
+    void invalidate(@NotNull ManagedConnection connection);
+
+    /**
+     * Get a plain JDBC connection for direct use outside the {@link eu.decentsoftware.dropdatabase.DatabaseManager}.
+     * See the implementations for details about who is responsible for closing it.
+     *
+     * @return The connection.
+     * @throws SQLConnectionException If no connection could be acquired.
+     */
+    @NotNull
+    Connection getConnection() throws SQLConnectionException;
+
+    /**
+     * Get a snapshot of the current statistics of this provider.
+     *
+     * @return The statistics.
+     */
+    @NotNull
+    PoolStats getStats();
+
+    /**
+     * Close this provider and all connections it manages.
+     *
+     * @throws SQLConnectionException If a connection failed to close.
+     */
+    void close() throws SQLConnectionException;
+
+}
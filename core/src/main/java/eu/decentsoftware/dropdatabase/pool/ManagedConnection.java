@@ -0,0 +1,189 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import eu.decentsoftware.dropdatabase.cache.CacheCounters;
+import eu.decentsoftware.dropdatabase.internal.StatementCache;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * This class wraps a physical {@link Connection} handed out by a {@link ConnectionProvider}
+ * and keeps track of the bookkeeping information needed to manage its lifecycle.
+ *
+ * @author Tomas Plansky
+ * @see ConnectionProvider
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class ManagedConnection {
+
+    /**
+     * The physical connection to the database.
+     */
+    @Getter
+    private final @NonNull Connection connection;
+    /**
+     * The time (in {@link System#nanoTime()}) at which the connection was created.
+     */
+    private final long createdAt;
+    /**
+     * The time (in {@link System#nanoTime()}) at which the connection was last used.
+     */
+    private volatile long lastUsedAt;
+    /**
+     * The time (in {@link System#nanoTime()}) at which the connection was last known to be alive.
+     */
+    private volatile long lastAliveAt;
+    /**
+     * The cache of prepared statements of this connection, created when it is first needed.
+     */
+    private volatile StatementCache statementCache;
+
+    /**
+     * Create a new instance of {@link ManagedConnection}.
+     *
+     * @param connection The physical connection to wrap.
+     */
+    @Contract(pure = true)
+    public ManagedConnection(@NonNull Connection connection) {
+        this.connection = connection;
+        this.createdAt = System.nanoTime();
+        this.lastUsedAt = createdAt;
+        this.lastAliveAt = createdAt;
+    }
+
+    /**
+     * Mark the connection as used right now. A connection that was just used
+     * successfully is also known to be alive.
+     */
+    public void touch() {
+        long now = System.nanoTime();
+        this.lastUsedAt = now;
+        this.lastAliveAt = now;
+    }
+
+    /**
+     * Get the age of this connection in milliseconds.
+     *
+     * @return The age of this connection.
+     */
+    public long getAgeMillis() {
+        return (System.nanoTime() - createdAt) / 1_000_000L;
+    }
+
+    /**
+     * Get the time in milliseconds since this connection was last used.
+     *
+     * @return The idle time of this connection.
+     */
+    public long getIdleMillis() {
+        return (System.nanoTime() - lastUsedAt) / 1_000_000L;
+    }
+
+    /**
+     * Get the time in milliseconds since this connection was last known to be alive,
+     * either because it was used or because it was validated.
+     *
+     * @return The time since this connection was last known to be alive.
+     */
+    public long getUnverifiedMillis() {
+        return (System.nanoTime() - lastAliveAt) / 1_000_000L;
+    }
+
+    /**
+     * Check whether this connection was last known to be alive before the given time.
+     *
+     * @param nanoTime The time (in {@link System#nanoTime()}).
+     * @return True if the connection was last known to be alive before the given time.
+     */
+    public boolean isUnverifiedSince(long nanoTime) {
+        return lastAliveAt - nanoTime < 0;
+    }
+
+    /**
+     * Check whether the physical connection is still usable, asking the driver
+     * to verify it with the given timeout. This is a round trip to the database
+     * for most drivers, so it should not be called for every query.
+     *
+     * @param timeoutSeconds The timeout in seconds.
+     * @return True if the connection is valid, false otherwise.
+     */
+    public boolean isValid(int timeoutSeconds) {
+        try {
+            if (!connection.isClosed() && connection.isValid(timeoutSeconds)) {
+                this.lastAliveAt = System.nanoTime();
+                return true;
+            }
+            return false;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check whether the physical connection is usable, validating it only if it was not
+     * known to be alive within the given threshold.
+     *
+     * @param validationThreshold The threshold in milliseconds.
+     * @return True if the connection is usable, false otherwise.
+     */
+    public boolean isAlive(long validationThreshold) {
+        if (getUnverifiedMillis() < validationThreshold) {
+            return true;
+        }
+        return isValid(5);
+    }
+
+    /**
+     * Get the cache of prepared statements of this connection. The cache is created
+     * with the given capacity and counters when this method is first called.
+     *
+     * @param capacity The maximum number of cached statements.
+     * @param counters The counters to record hits, misses and evictions to.
+     * @return The statement cache.
+     */
+    @NotNull
+    public StatementCache getStatementCache(int capacity, @NotNull CacheCounters counters) {
+        StatementCache cache = this.statementCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = this.statementCache;
+                if (cache == null) {
+                    cache = new StatementCache(connection, capacity, counters);
+                    this.statementCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Close the cached statements and the physical connection.
+     *
+     * @throws SQLException If the connection failed to close.
+     */
+    public void close() throws SQLException {
+        StatementCache cache = this.statementCache;
+        if (cache != null) {
+            cache.close();
+        }
+        connection.close();
+    }
+
+    /**
+     * Close the cached statements and the physical connection, ignoring any errors.
+     */
+    public void closeQuietly() {
+        try {
+            close();
+        } catch (SQLException ignored) {
+            // The connection is being discarded anyway.
+        }
+    }
+
+}
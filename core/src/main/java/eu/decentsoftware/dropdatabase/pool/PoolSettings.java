@@ -0,0 +1,155 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class holds the settings of a {@link ConnectionPool}. Instances are created
+ * using the {@link Builder} class.
+ *
+ * @author Tomas Plansky
+ * @see ConnectionPool
+ * @since 1.0.0
+ */
+@Getter
+public final class PoolSettings {
+
+    /**
+     * The minimum number of connections the pool keeps open.
+     */
+    private final int minSize;
+    /**
+     * The maximum number of connections the pool opens.
+     */
+    private final int maxSize;
+    /**
+     * The maximum time in milliseconds a thread waits for a connection.
+     */
+    private final long borrowTimeout;
+    /**
+     * The time in milliseconds after which an unused connection above {@link #minSize} is closed.
+     */
+    private final long idleTimeout;
+    /**
+     * The time in milliseconds after which a connection is closed and replaced, regardless of its usage.
+     */
+    private final long maxLifetime;
+    /**
+     * The interval in milliseconds in which the pool evicts idle and expired connections.
+     */
+    private final long housekeepingInterval;
+    /**
+     * The time in milliseconds after which an unused connection is validated before it is borrowed.
+     */
+    private final long validationThreshold;
+    /**
+     * The time in milliseconds after which an idle connection is validated by the housekeeping thread.
+     */
+    private final long keepaliveInterval;
+
+    /**
+     * Create new pool settings from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private PoolSettings(@NotNull Builder builder) {
+        if (builder.minSize < 0 || builder.maxSize < 1 || builder.minSize > builder.maxSize) {
+            throw new IllegalArgumentException("Pool size must satisfy 0 <= minSize <= maxSize and maxSize >= 1.");
+        }
+        if (builder.borrowTimeout < 0 || builder.idleTimeout < 0 || builder.maxLifetime < 0 || builder.housekeepingInterval <= 0
+                || builder.validationThreshold < 0 || builder.keepaliveInterval < 0) {
+            throw new IllegalArgumentException("Pool timeouts must not be negative.");
+        }
+        this.minSize = builder.minSize;
+        this.maxSize = builder.maxSize;
+        this.borrowTimeout = builder.borrowTimeout;
+        this.idleTimeout = builder.idleTimeout;
+        this.maxLifetime = builder.maxLifetime;
+        this.housekeepingInterval = builder.housekeepingInterval;
+        this.validationThreshold = builder.validationThreshold;
+        this.keepaliveInterval = builder.keepaliveInterval;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link PoolSettings} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link PoolSettings} class. This class
+     * is used to create a new {@link PoolSettings} instance.
+     *
+     * @author Tomas Plansky
+     * @see PoolSettings
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The minimum number of connections the pool keeps open.
+         */
+        private int minSize = 1;
+        /**
+         * The maximum number of connections the pool opens.
+         */
+        private int maxSize = 10;
+        /**
+         * The maximum time in milliseconds a thread waits for a connection.
+         */
+        private long borrowTimeout = 30_000L;
+        /**
+         * The time in milliseconds after which an unused connection above the minimum
+         * size is closed. If this is 0, idle connections are never closed.
+         */
+        private long idleTimeout = 600_000L;
+        /**
+         * The time in milliseconds after which a connection is closed and replaced. If
+         * this is 0, connections are never replaced because of their age.
+         */
+        private long maxLifetime = 1_800_000L;
+        /**
+         * The interval in milliseconds in which the pool evicts idle and expired connections.
+         */
+        private long housekeepingInterval = 30_000L;
+        /**
+         * The time in milliseconds after which an unused connection is validated before it
+         * is borrowed. Connections used more recently are handed out without a round trip to
+         * the database. If this is 0, connections are validated every time they are borrowed.
+         */
+        private long validationThreshold = SharedConnectionProvider.DEFAULT_VALIDATION_THRESHOLD;
+        /**
+         * The time in milliseconds after which an idle connection is validated by the housekeeping
+         * thread, so that it does not time out on the server. If this is 0, idle connections are
+         * not validated in the background.
+         */
+        private long keepaliveInterval = 120_000L;
+
+        /**
+         * Build the {@link PoolSettings} instance.
+         *
+         * @return The {@link PoolSettings} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public PoolSettings build() {
+            return new PoolSettings(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import lombok.Data;
+
+/**
+ * This class holds a snapshot of the statistics of a {@link ConnectionProvider}.
+ *
+ * @author Tomas Plansky
+ * @see ConnectionProvider#getStats()
+ * @since 1.0.0
+ */
+@Data
+public class PoolStats {
+
+    /**
+     * The number of connections currently open, both idle and in use.
+     */
+    private final int totalConnections;
+    /**
+     * The number of open connections that are currently not in use.
+     */
+    private final int idleConnections;
+    /**
+     * The number of connections that are currently in use.
+     */
+    private final int activeConnections;
+    /**
+     * The number of threads currently waiting for a connection.
+     */
+    private final int pendingThreads;
+    /**
+     * The number of connections created since the provider was created.
+     */
+    private final long createdConnections;
+    /**
+     * The number of connections closed since the provider was created.
+     */
+    private final long destroyedConnections;
+    /**
+     * The number of times a thread gave up waiting for a connection.
+     */
+    private final long borrowTimeouts;
+
+}
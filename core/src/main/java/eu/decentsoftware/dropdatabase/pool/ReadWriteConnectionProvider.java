@@ -0,0 +1,133 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * This class is an implementation of {@link ConnectionProvider}, which combines two providers.
+ * Connections acquired using {@link #acquireForRead(boolean)} are obtained from the reader
+ * provider, all other connections are obtained from the writer provider.
+ * <p>
+ * This is useful for databases, that allow many readers but only one writer at a time, such as
+ * SQLite in the WAL mode. The writer provider then holds a single connection, so writes never
+ * wait for a lock held by another connection, while reads run concurrently on the reader provider.
+ *
+ * @author Tomas Plansky
+ * @see ConnectionProvider
+ * @since 1.0.0
+ */
+public class ReadWriteConnectionProvider implements ConnectionProvider {
+
+    @Getter
+    private final @NonNull ConnectionProvider writer;
+    @Getter
+    private final @NonNull ConnectionProvider reader;
+    /**
+     * Connections, that were acquired from the reader provider. Shared connections may be
+     * acquired by multiple callers at once, so the connections are never removed explicitly.
+     */
+    private final Map<ManagedConnection, Boolean> readerConnections = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Create a new instance of {@link ReadWriteConnectionProvider}.
+     *
+     * @param writer The provider of the connections, that are used to write data.
+     * @param reader The provider of the connections, that are only used to read data.
+     */
+    @Contract(pure = true)
+    public ReadWriteConnectionProvider(@NonNull ConnectionProvider writer, @NonNull ConnectionProvider reader) {
+        this.writer = writer;
+        this.reader = reader;
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquire() throws SQLConnectionException {
+        return writer.acquire();
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquireExclusive() throws SQLConnectionException {
+        return writer.acquireExclusive();
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquireForRead(boolean exclusive) throws SQLConnectionException {
+        ManagedConnection connection = reader.acquireForRead(exclusive);
+        readerConnections.put(connection, Boolean.TRUE);
+        return connection;
+    }
+
+    @Override
+    public void release(@NotNull ManagedConnection connection) {
+        providerOf(connection).release(connection);
+    }
+
+    @Override
+    public void invalidate(@NotNull ManagedConnection connection) {
+        providerOf(connection).invalidate(connection);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned connection is obtained from the writer provider.
+     */
+    @NotNull
+    @Override
+    public Connection getConnection() throws SQLConnectionException {
+        return writer.getConnection();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The statistics of both providers are summed up.
+     */
+    @NotNull
+    @Override
+    public PoolStats getStats() {
+        PoolStats writerStats = writer.getStats();
+        PoolStats readerStats = reader.getStats();
+        return new PoolStats(
+                writerStats.getTotalConnections() + readerStats.getTotalConnections(),
+                writerStats.getIdleConnections() + readerStats.getIdleConnections(),
+                writerStats.getActiveConnections() + readerStats.getActiveConnections(),
+                writerStats.getPendingThreads() + readerStats.getPendingThreads(),
+                writerStats.getCreatedConnections() + readerStats.getCreatedConnections(),
+                writerStats.getDestroyedConnections() + readerStats.getDestroyedConnections(),
+                writerStats.getBorrowTimeouts() + readerStats.getBorrowTimeouts()
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The reader provider is closed first, so that no reader is left open, if closing the
+     * writer provider fails.
+     */
+    @Override
+    public void close() throws SQLConnectionException {
+        try {
+            reader.close();
+        } finally {
+            writer.close();
+        }
+    }
+
+    @NotNull
+    private ConnectionProvider providerOf(@NotNull ManagedConnection connection) {
+        return readerConnections.containsKey(connection) ? reader : writer;
+    }
+
+}
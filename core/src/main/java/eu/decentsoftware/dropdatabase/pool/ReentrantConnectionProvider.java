@@ -0,0 +1,191 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * This class is an implementation of {@link ConnectionProvider}, which lets a thread acquire
+ * the connection it already holds again. A thread, that holds a connection of the wrapped
+ * provider, e.g. while iterating a stream or handling the result of a query, gets the same
+ * connection for the queries it executes meanwhile, instead of waiting for another one.
+ * The connection is returned to the wrapped provider once the thread released it as many
+ * times as it acquired it.
+ * <p>
+ * This is required for providers with a single connection, such as the writer of a SQLite
+ * database, where the nested query would otherwise wait for the connection held by its own
+ * thread until it times out. Other threads still wait until the connection is returned.
+ * <p>
+ * The wrapped provider must not hand out a connection to more than one caller at once,
+ * e.g. a {@link ConnectionPool}.
+ *
+ * @author Tomas Plansky
+ * @see ConnectionProvider
+ * @since 1.0.0
+ */
+public class ReentrantConnectionProvider implements ConnectionProvider {
+
+    @Getter
+    private final @NonNull ConnectionProvider delegate;
+    /**
+     * The connections held by threads, by the threads and by the connections.
+     */
+    private final Map<Thread, Hold> holdsByThread = new HashMap<>();
+    private final Map<ManagedConnection, Hold> holdsByConnection = new IdentityHashMap<>();
+
+    /**
+     * Create a new instance of {@link ReentrantConnectionProvider}.
+     *
+     * @param delegate The provider of the connections.
+     */
+    @Contract(pure = true)
+    public ReentrantConnectionProvider(@NonNull ConnectionProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquire() throws SQLConnectionException {
+        ManagedConnection held = reacquire();
+        return held != null ? held : hold(delegate.acquire());
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquireExclusive() throws SQLConnectionException {
+        ManagedConnection held = reacquire();
+        return held != null ? held : hold(delegate.acquireExclusive());
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquireForRead(boolean exclusive) throws SQLConnectionException {
+        ManagedConnection held = reacquire();
+        return held != null ? held : hold(delegate.acquireForRead(exclusive));
+    }
+
+    @Override
+    public void release(@NotNull ManagedConnection connection) {
+        final boolean broken;
+        synchronized (this) {
+            Hold hold = holdsByConnection.get(connection);
+            if (hold != null && !unhold(hold, false)) {
+                return;
+            }
+            broken = hold != null && hold.broken;
+        }
+        if (broken) {
+            delegate.invalidate(connection);
+        } else {
+            delegate.release(connection);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the connection was acquired more than once by its thread, it is discarded once
+     * the outermost caller returns it, since that caller is still using it.
+     */
+    @Override
+    public void invalidate(@NotNull ManagedConnection connection) {
+        synchronized (this) {
+            Hold hold = holdsByConnection.get(connection);
+            if (hold != null && !unhold(hold, true)) {
+                return;
+            }
+        }
+        delegate.invalidate(connection);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned connection is obtained from the wrapped provider.
+     */
+    @NotNull
+    @Override
+    public Connection getConnection() throws SQLConnectionException {
+        return delegate.getConnection();
+    }
+
+    @NotNull
+    @Override
+    public PoolStats getStats() {
+        return delegate.getStats();
+    }
+
+    @Override
+    public void close() throws SQLConnectionException {
+        synchronized (this) {
+            holdsByThread.clear();
+            holdsByConnection.clear();
+        }
+        delegate.close();
+    }
+
+    /**
+     * Acquire the connection held by the current thread again.
+     *
+     * @return The connection, or null if the current thread does not hold any.
+     */
+    private synchronized ManagedConnection reacquire() {
+        Hold hold = holdsByThread.get(Thread.currentThread());
+        if (hold == null) {
+            return null;
+        }
+        hold.count++;
+        return hold.connection;
+    }
+
+    @NotNull
+    private synchronized ManagedConnection hold(@NotNull ManagedConnection connection) {
+        Hold hold = new Hold(Thread.currentThread(), connection);
+        holdsByThread.put(hold.thread, hold);
+        holdsByConnection.put(connection, hold);
+        return connection;
+    }
+
+    /**
+     * Release the connection of the given hold once. The caller must hold the lock of this provider.
+     *
+     * @param hold   The hold.
+     * @param broken Whether the connection is broken.
+     * @return True if the connection is not held anymore, so it must be returned to the wrapped provider.
+     */
+    private boolean unhold(@NotNull Hold hold, boolean broken) {
+        hold.broken |= broken;
+        if (--hold.count > 0) {
+            return false;
+        }
+        // The connection might be released on another thread than it was acquired on, e.g. by closing a stream.
+        holdsByConnection.remove(hold.connection);
+        holdsByThread.remove(hold.thread, hold);
+        return true;
+    }
+
+    /**
+     * A connection held by a thread, and how many times the thread acquired it.
+     */
+    private static final class Hold {
+
+        private final Thread thread;
+        private final ManagedConnection connection;
+        private int count = 1;
+        private boolean broken;
+
+        private Hold(@NotNull Thread thread, @NotNull ManagedConnection connection) {
+            this.thread = thread;
+            this.connection = connection;
+        }
+
+    }
+
+}
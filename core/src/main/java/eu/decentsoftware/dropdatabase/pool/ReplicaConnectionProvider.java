@@ -0,0 +1,271 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is an implementation of {@link ConnectionProvider}, which sends queries reading data
+ * to replicas of the database, and everything else to the primary database. Connections acquired
+ * using {@link #acquireForRead(boolean)} are obtained from one of the replica providers, chosen
+ * according to {@link ReplicaSettings#getStrategy()}. All other connections are obtained from the
+ * primary provider.
+ * <p>
+ * Replicas usually lag behind the primary. So that a thread sees its own writes, it reads from the
+ * primary while it holds a connection acquired for writing, and for {@link ReplicaSettings#getStickiness()}
+ * milliseconds after releasing it. This does not apply to writes made by other threads, e.g. by the
+ * asynchronous methods of the {@link eu.decentsoftware.dropdatabase.DatabaseManager}.
+ * <p>
+ * If no replica can provide a connection, the primary is used instead.
+ *
+ * @author Tomas Plansky
+ * @see ReplicaSettings
+ * @since 1.0.0
+ */
+public class ReplicaConnectionProvider implements ConnectionProvider {
+
+    private static final Logger LOGGER = Logger.getLogger("DropDatabase");
+
+    @Getter
+    private final @NonNull ConnectionProvider primary;
+    private final @NonNull ConnectionProvider[] replicas;
+    @Getter
+    private final @NonNull ReplicaSettings settings;
+    private final long stickinessNanos;
+    /**
+     * The number of connections of each replica, that are currently in use.
+     */
+    private final AtomicInteger[] active;
+    private final AtomicInteger next = new AtomicInteger();
+    /**
+     * The indices of the replicas, that connections were acquired from. Shared connections may be
+     * acquired by multiple callers at once, so the connections are never removed explicitly.
+     */
+    private final Map<ManagedConnection, Integer> replicaConnections = Collections.synchronizedMap(new WeakHashMap<>());
+    private final ThreadLocal<Session> sessions = ThreadLocal.withInitial(Session::new);
+
+    /**
+     * Create a new instance of {@link ReplicaConnectionProvider}.
+     *
+     * @param primary  The provider of the connections to the primary database.
+     * @param replicas The providers of the connections to the replicas.
+     * @param settings The settings.
+     */
+    public ReplicaConnectionProvider(@NonNull ConnectionProvider primary, @NonNull ConnectionProvider[] replicas, @NonNull ReplicaSettings settings) {
+        if (replicas.length == 0) {
+            throw new IllegalArgumentException("At least one replica must be given.");
+        }
+        this.primary = primary;
+        this.replicas = replicas.clone();
+        this.settings = settings;
+        this.stickinessNanos = TimeUnit.MILLISECONDS.toNanos(settings.getStickiness());
+        this.active = new AtomicInteger[replicas.length];
+        for (int i = 0; i < active.length; i++) {
+            active[i] = new AtomicInteger();
+        }
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquire() throws SQLConnectionException {
+        ManagedConnection connection = primary.acquire();
+        sessions.get().writes++;
+        return connection;
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquireExclusive() throws SQLConnectionException {
+        ManagedConnection connection = primary.acquireExclusive();
+        sessions.get().writes++;
+        return connection;
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquireForRead(boolean exclusive) throws SQLConnectionException {
+        if (sessions.get().isSticky(stickinessNanos)) {
+            return primary.acquireForRead(exclusive);
+        }
+        final int start = choose();
+        for (int i = 0; i < replicas.length; i++) {
+            int index = (start + i) % replicas.length;
+            ManagedConnection connection;
+            try {
+                connection = replicas[index].acquireForRead(exclusive);
+            } catch (SQLConnectionException e) {
+                LOGGER.log(Level.WARNING, "Replica " + index + " is unavailable, trying the next one.", e);
+                continue;
+            }
+            active[index].incrementAndGet();
+            replicaConnections.put(connection, index);
+            return connection;
+        }
+        // All replicas are unavailable, the primary has the data too.
+        return primary.acquireForRead(exclusive);
+    }
+
+    @Override
+    public void release(@NotNull ManagedConnection connection) {
+        Integer index = replicaConnections.get(connection);
+        if (index != null) {
+            active[index].decrementAndGet();
+            replicas[index].release(connection);
+        } else {
+            sessions.get().released();
+            primary.release(connection);
+        }
+    }
+
+    @Override
+    public void invalidate(@NotNull ManagedConnection connection) {
+        Integer index = replicaConnections.get(connection);
+        if (index != null) {
+            active[index].decrementAndGet();
+            replicas[index].invalidate(connection);
+        } else {
+            sessions.get().released();
+            primary.invalidate(connection);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned connection is obtained from the primary provider.
+     */
+    @NotNull
+    @Override
+    public Connection getConnection() throws SQLConnectionException {
+        return primary.getConnection();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The statistics of the primary and all replica providers are summed up.
+     */
+    @NotNull
+    @Override
+    public PoolStats getStats() {
+        PoolStats stats = primary.getStats();
+        int total = stats.getTotalConnections();
+        int idle = stats.getIdleConnections();
+        int activeConnections = stats.getActiveConnections();
+        int pending = stats.getPendingThreads();
+        long created = stats.getCreatedConnections();
+        long destroyed = stats.getDestroyedConnections();
+        long timeouts = stats.getBorrowTimeouts();
+        for (ConnectionProvider replica : replicas) {
+            stats = replica.getStats();
+            total += stats.getTotalConnections();
+            idle += stats.getIdleConnections();
+            activeConnections += stats.getActiveConnections();
+            pending += stats.getPendingThreads();
+            created += stats.getCreatedConnections();
+            destroyed += stats.getDestroyedConnections();
+            timeouts += stats.getBorrowTimeouts();
+        }
+        return new PoolStats(total, idle, activeConnections, pending, created, destroyed, timeouts);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All providers are closed, even if closing some of them fails. The first failure is thrown
+     * afterwards.
+     */
+    @Override
+    public void close() throws SQLConnectionException {
+        SQLConnectionException failure = null;
+        for (ConnectionProvider replica : replicas) {
+            try {
+                replica.close();
+            } catch (SQLConnectionException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        try {
+            primary.close();
+        } catch (SQLConnectionException e) {
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Choose the replica to try first.
+     *
+     * @return The index of the replica.
+     */
+    private int choose() {
+        final int start = Math.floorMod(next.getAndIncrement(), replicas.length);
+        if (settings.getStrategy() == ReplicaSettings.Strategy.ROUND_ROBIN) {
+            return start;
+        }
+        int best = start;
+        int bestActive = active[start].get();
+        for (int i = 1; i < replicas.length && bestActive > 0; i++) {
+            int index = (start + i) % replicas.length;
+            int indexActive = active[index].get();
+            if (indexActive < bestActive) {
+                best = index;
+                bestActive = indexActive;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The writes of a single thread.
+     */
+    private static final class Session {
+
+        /**
+         * The number of connections acquired for writing, that were not released yet.
+         */
+        private int writes;
+        /**
+         * Whether the thread ever released a connection acquired for writing.
+         */
+        private boolean wrote;
+        /**
+         * When the thread last released a connection acquired for writing, in {@link System#nanoTime()}.
+         */
+        private long lastWrite;
+
+        private void released() {
+            if (writes > 0) {
+                writes--;
+                wrote = true;
+                lastWrite = System.nanoTime();
+            }
+        }
+
+        private boolean isSticky(long stickinessNanos) {
+            return writes > 0 || (wrote && System.nanoTime() - lastWrite < stickinessNanos);
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class holds the settings of the {@link ReplicaConnectionProvider}, which sends queries
+ * reading data to replicas of the database. Instances are created using the {@link Builder} class.
+ *
+ * @author Tomas Plansky
+ * @see ReplicaConnectionProvider
+ * @since 1.0.0
+ */
+@Getter
+public final class ReplicaSettings {
+
+    /**
+     * How a replica is chosen for a query.
+     */
+    private final @NonNull Strategy strategy;
+    /**
+     * The time in milliseconds after a write, during which the same thread reads from the primary.
+     */
+    private final long stickiness;
+
+    /**
+     * Create new replica settings from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private ReplicaSettings(@NotNull Builder builder) {
+        if (builder.strategy == null) {
+            throw new IllegalArgumentException("Replica strategy must be set.");
+        }
+        if (builder.stickiness < 0) {
+            throw new IllegalArgumentException("Replica stickiness must not be negative.");
+        }
+        this.strategy = builder.strategy;
+        this.stickiness = builder.stickiness;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link ReplicaSettings} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * How a replica is chosen for a query.
+     */
+    public enum Strategy {
+        /**
+         * Use the replicas one after another.
+         */
+        ROUND_ROBIN,
+        /**
+         * Use the replica with the fewest connections in use by this provider. Replicas
+         * with the same number of connections in use are used one after another.
+         */
+        LEAST_LOADED
+    }
+
+    /**
+     * The builder class for the {@link ReplicaSettings} class. This class
+     * is used to create a new {@link ReplicaSettings} instance.
+     *
+     * @author Tomas Plansky
+     * @see ReplicaSettings
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * How a replica is chosen for a query.
+         */
+        private Strategy strategy = Strategy.ROUND_ROBIN;
+        /**
+         * The time in milliseconds after a write, during which the same thread reads from the
+         * primary instead of a replica, so that it sees its own writes even if the replicas
+         * lag behind. Use 0 to always read from the replicas.
+         */
+        private long stickiness = 1_000L;
+
+        /**
+         * Build the {@link ReplicaSettings} instance.
+         *
+         * @return The {@link ReplicaSettings} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public ReplicaSettings build() {
+            return new ReplicaSettings(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,221 @@
+package eu.decentsoftware.dropdatabase.pool;
+
+import eu.decentsoftware.dropdatabase.connector.Connector;
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * This class is an implementation of {@link ConnectionProvider}, which shares one
+ * connection between all callers. The connection is reopened if it gets closed or
+ * becomes invalid.
+ * <p>
+ * The connection is only validated if it was not used for longer than the validation
+ * threshold, so that the steady-state query path does not need an extra round trip
+ * to the database. Failures in between are detected when the connection is used.
+ * <p>
+ * Callers, that need a connection for themselves, e.g. for a transaction, get a second,
+ * dedicated connection, that is kept open and reused by the next such caller.
+ * <p>
+ * This is the default provider of the {@link eu.decentsoftware.dropdatabase.DatabaseManager}.
+ * If you execute many queries concurrently, consider using {@link ConnectionPool} instead.
+ *
+ * @author Tomas Plansky
+ * @see ConnectionProvider
+ * @since 1.0.0
+ */
+public class SharedConnectionProvider implements ConnectionProvider {
+
+    /**
+     * The default time in milliseconds after which an unused connection is validated before it is used.
+     */
+    public static final long DEFAULT_VALIDATION_THRESHOLD = 30_000L;
+
+    private final @NonNull Connector connector;
+    private final long validationThreshold;
+    private volatile ManagedConnection connection;
+    /**
+     * The dedicated connection returned by {@link #acquireExclusive()}, or null if it is not open.
+     */
+    private ManagedConnection exclusiveConnection;
+    private boolean exclusiveConnectionInUse;
+    private long createdConnections;
+    private long destroyedConnections;
+
+    /**
+     * Create a new instance of {@link SharedConnectionProvider}.
+     *
+     * @param connector The connector to the database.
+     */
+    @Contract(pure = true)
+    public SharedConnectionProvider(@NonNull Connector connector) {
+        this(connector, DEFAULT_VALIDATION_THRESHOLD);
+    }
+
+    /**
+     * Create a new instance of {@link SharedConnectionProvider}.
+     *
+     * @param connector           The connector to the database.
+     * @param validationThreshold The time in milliseconds after which an unused connection is
+     *                            validated before it is used. If this is 0, the connection is
+     *                            validated every time it is used.
+     */
+    @Contract(pure = true)
+    public SharedConnectionProvider(@NonNull Connector connector, long validationThreshold) {
+        this.connector = connector;
+        this.validationThreshold = validationThreshold;
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquire() throws SQLConnectionException {
+        ManagedConnection current = this.connection;
+        if (current != null && current.isAlive(validationThreshold)) {
+            current.touch();
+            return current;
+        }
+
+        synchronized (this) {
+            // Another thread might have reconnected while we were waiting.
+            if (this.connection != current && this.connection != null) {
+                return this.connection;
+            }
+            if (current != null) {
+                current.closeQuietly();
+                destroyedConnections++;
+            }
+            this.connection = connect();
+            return this.connection;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Since the shared connection cannot be used exclusively, a dedicated connection is
+     * used instead. It stays open after it is released and is reused by the next caller. If
+     * it is in use already, e.g. by an open stream, a temporary connection is opened, that
+     * is closed when it is released.
+     */
+    @NotNull
+    @Override
+    public ManagedConnection acquireExclusive() throws SQLConnectionException {
+        ManagedConnection current;
+        synchronized (this) {
+            current = exclusiveConnectionInUse ? null : exclusiveConnection;
+            exclusiveConnectionInUse |= current != null;
+        }
+        if (current != null) {
+            if (current.isAlive(validationThreshold)) {
+                current.touch();
+                return current;
+            }
+            invalidate(current);
+        }
+
+        // Connect outside the lock, so that the shared connection is not blocked meanwhile.
+        ManagedConnection connected = connect();
+        synchronized (this) {
+            if (exclusiveConnection == null) {
+                exclusiveConnection = connected;
+                exclusiveConnectionInUse = true;
+            }
+        }
+        return connected;
+    }
+
+    @Override
+    public void release(@NotNull ManagedConnection connection) {
+        if (connection == this.connection) {
+            // The connection is shared, there is nothing to return.
+            return;
+        }
+        synchronized (this) {
+            if (connection == exclusiveConnection) {
+                exclusiveConnectionInUse = false;
+                return;
+            }
+        }
+        // This is a temporary connection, see acquireExclusive().
+        invalidate(connection);
+    }
+
+    @Override
+    public synchronized void invalidate(@NotNull ManagedConnection connection) {
+        if (this.connection == connection) {
+            this.connection = null;
+        }
+        if (exclusiveConnection == connection) {
+            exclusiveConnection = null;
+            exclusiveConnectionInUse = false;
+        }
+        connection.closeQuietly();
+        destroyedConnections++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned connection is shared, do not close it. It is closed when this provider is closed.
+     */
+    @NotNull
+    @Override
+    public Connection getConnection() throws SQLConnectionException {
+        return acquire().getConnection();
+    }
+
+    @NotNull
+    @Override
+    public synchronized PoolStats getStats() {
+        int total = (connection == null ? 0 : 1) + (exclusiveConnection == null ? 0 : 1);
+        int idle = exclusiveConnection == null || exclusiveConnectionInUse ? 0 : 1;
+        return new PoolStats(total, idle, total - idle, 0, createdConnections, destroyedConnections, 0);
+    }
+
+    @Override
+    public synchronized void close() throws SQLConnectionException {
+        ManagedConnection exclusive = this.exclusiveConnection;
+        this.exclusiveConnection = null;
+        if (exclusive != null && !exclusiveConnectionInUse) {
+            exclusive.closeQuietly();
+            destroyedConnections++;
+        }
+        // A dedicated connection in use is closed once it is released.
+        exclusiveConnectionInUse = false;
+
+        ManagedConnection current = this.connection;
+        this.connection = null;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (!current.getConnection().isClosed()) {
+                current.close();
+            }
+            destroyedConnections++;
+        } catch (SQLException e) {
+            throw new SQLConnectionException("Failed to close the connection.", e);
+        }
+    }
+
+    @NotNull
+    private ManagedConnection connect() throws SQLConnectionException {
+        try {
+            Connection physical = connector.connect();
+            if (physical == null || physical.isClosed()) {
+                throw new SQLConnectionException("Failed to connect to the database.");
+            }
+            synchronized (this) {
+                createdConnections++;
+            }
+            return new ManagedConnection(physical);
+        } catch (SQLException e) {
+            throw new SQLConnectionException("Failed to connect to the database.", e);
+        }
+    }
+
+}
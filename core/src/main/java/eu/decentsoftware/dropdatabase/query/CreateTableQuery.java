@@ -8,6 +8,7 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,6 +17,7 @@ import java.util.List;
 public class CreateTableQuery implements Query {
 
     private final String query;
+    private final String table;
 
     /**
      * Create a new CREATE TABLE query from the given builder.
@@ -59,6 +61,7 @@ public class CreateTableQuery implements Query {
         }
         stringBuilder.append(")");
         this.query = stringBuilder.toString();
+        this.table = builder.table;
     }
 
     @NotNull
@@ -72,6 +75,12 @@ public class CreateTableQuery implements Query {
         return new Object[0];
     }
 
+    @Nullable
+    @Override
+    public String getTable() {
+        return table;
+    }
+
     /**
      * Create a new instance of the {@link Builder} class. This builder
      * is used to create a new {@link CreateTableQuery} instance.
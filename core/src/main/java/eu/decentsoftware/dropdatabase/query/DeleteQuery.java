@@ -7,11 +7,13 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class DeleteQuery implements Query {
 
     private final @NotNull String query;
     private final Object[] values;
+    private final String table;
 
     /**
      * Create a new DELETE query from the given builder.
@@ -27,6 +29,7 @@ public class DeleteQuery implements Query {
         }
         this.query = stringBuilder.toString();
         this.values = builder.values;
+        this.table = builder.table;
     }
 
     @NotNull
@@ -40,6 +43,12 @@ public class DeleteQuery implements Query {
         return values;
     }
 
+    @Nullable
+    @Override
+    public String getTable() {
+        return table;
+    }
+
     /**
      * Create a new instance of the {@link Builder} class. This builder
      * is used to create a new {@link DeleteQuery} instance.
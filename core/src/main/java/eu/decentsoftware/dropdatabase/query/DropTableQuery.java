@@ -2,10 +2,12 @@ package eu.decentsoftware.dropdatabase.query;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class DropTableQuery implements Query {
 
     private final @NotNull String query;
+    private final String table;
 
     /**
      * Create a new instance of {@link DropTableQuery}.
@@ -15,6 +17,7 @@ public class DropTableQuery implements Query {
     @Contract(pure = true)
     public DropTableQuery(@NotNull String table) {
         this.query = "DROP TABLE `" + table + "`";
+        this.table = table;
     }
 
     /**
@@ -26,6 +29,7 @@ public class DropTableQuery implements Query {
     @Contract(pure = true)
     public DropTableQuery(@NotNull String database, @NotNull String table) {
         this.query = "DROP TABLE `" + database + "`.`" + table + "`";
+        this.table = table;
     }
 
     @NotNull
@@ -39,4 +43,10 @@ public class DropTableQuery implements Query {
         return new Object[0];
     }
 
+    @Nullable
+    @Override
+    public String getTable() {
+        return table;
+    }
+
 }
@@ -2,17 +2,24 @@ package eu.decentsoftware.dropdatabase.query;
 
 import eu.decentsoftware.dropdatabase.DatabaseManager;
 import eu.decentsoftware.dropdatabase.connector.Connector;
+import eu.decentsoftware.dropdatabase.dialect.Dialect;
+import eu.decentsoftware.dropdatabase.dialect.MySQLDialect;
 import eu.decentsoftware.dropdatabase.query.intent.ColumnValuePair;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class InsertQuery implements Query {
 
     private final @NotNull String query;
-    private Object[] values;
+    private final Object[] values;
+    private final String table;
 
     /**
      * Create a new INSERT query from the given builder.
@@ -21,47 +28,51 @@ public class InsertQuery implements Query {
      * @see Builder
      */
     private InsertQuery(@NotNull Builder builder) {
-        StringBuilder stringBuilder = new StringBuilder();
-        if (builder.ignore) {
-            stringBuilder.append("INSERT IGNORE INTO ");
-        } else {
-            stringBuilder.append("INSERT INTO ");
+        if (builder.columns == null || builder.columns.length == 0) {
+            throw new IllegalArgumentException("At least one column must be set.");
+        }
+        if (builder.dialect == null) {
+            throw new IllegalArgumentException("Dialect must be set.");
         }
+        Dialect dialect = builder.dialect;
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append(dialect.getInsertClause(builder.ignore)).append(" ");
         stringBuilder.append(builder.table).append(" (");
         int length = builder.columns.length;
-        this.values = new Object[length];
+        int rowCount = builder.rows.size() + 1;
+        String[] columnNames = new String[length];
+        this.values = new Object[length * rowCount];
         for (int i = 0; i < builder.columns.length; i++) {
+            columnNames[i] = builder.columns[i].getColumnName();
             this.values[i] = builder.columns[i].getValue();
-            stringBuilder.append("`").append(builder.columns[i]).append("`");
+            stringBuilder.append(dialect.quoteIdentifier(columnNames[i]));
             if (i != builder.columns.length - 1) {
                 stringBuilder.append(", ");
             }
         }
-        stringBuilder.append(") VALUES (");
-        for (int i = 0; i < builder.columns.length; i++) {
-            stringBuilder.append("?");
-            if (i != builder.columns.length - 1) {
+        stringBuilder.append(") VALUES ");
+        for (int row = 0; row < rowCount; row++) {
+            if (row > 0) {
+                ColumnValuePair[] columns = builder.rows.get(row - 1);
+                for (int i = 0; i < length; i++) {
+                    this.values[row * length + i] = columns[i].getValue();
+                }
                 stringBuilder.append(", ");
             }
-        }
-        if (builder.updateOnDuplicate) {
-            stringBuilder.append(") ON DUPLICATE KEY UPDATE ");
-            for (int i = 0; i < builder.columns.length; i++) {
-                stringBuilder.append("`").append(builder.columns[i]).append("`").append(" = ?");
-                if (i != builder.columns.length - 1) {
+            stringBuilder.append("(");
+            for (int i = 0; i < length; i++) {
+                stringBuilder.append("?");
+                if (i != length - 1) {
                     stringBuilder.append(", ");
                 }
             }
-            // Duplicate values for update
-            this.values = new Object[length * 2];
-            for (int i = 0; i < length; i++) {
-                this.values[i] = builder.columns[i].getValue();
-                this.values[i + length] = builder.columns[i].getValue();
-            }
-        } else {
             stringBuilder.append(")");
         }
+        // The new values are referenced by the clause, so they are bound only once.
+        String[] conflictColumns = builder.conflictColumns == null ? new String[0] : builder.conflictColumns;
+        dialect.appendConflictClause(stringBuilder, columnNames, conflictColumns, builder.ignore, builder.updateOnDuplicate);
         this.query = stringBuilder.toString();
+        this.table = builder.table;
     }
 
     @NotNull
@@ -75,6 +86,12 @@ public class InsertQuery implements Query {
         return values;
     }
 
+    @Nullable
+    @Override
+    public String getTable() {
+        return table;
+    }
+
     /**
      * Create a new instance of the {@link Builder} class. This builder
      * is used to create a new {@link InsertQuery} instance.
@@ -112,9 +129,14 @@ public class InsertQuery implements Query {
          */
         private String table;
         /**
-         * The columns to insert.
+         * The columns to insert. The values of these columns form the first inserted row.
          */
         private ColumnValuePair[] columns;
+        /**
+         * Additional rows to insert. Each row must contain the same columns in the
+         * same order as {@link #columns}.
+         */
+        private final List<ColumnValuePair[]> rows = new ArrayList<>();
         /**
          * Whether to update the row if it already exists.
          */
@@ -123,6 +145,17 @@ public class InsertQuery implements Query {
          * Whether to ignore the error if the row already exists.
          */
         private boolean ignore;
+        /**
+         * The columns of the key, that identifies existing rows, such as the primary key. This
+         * is required by some dialects to update existing rows. The columns of the key are
+         * not updated.
+         */
+        private String[] conflictColumns;
+        /**
+         * The dialect of the database. Use {@link DatabaseManager#getDialect()} to get the
+         * dialect of the {@link Connector}. Defaults to {@link MySQLDialect#INSTANCE}.
+         */
+        private Dialect dialect = MySQLDialect.INSTANCE;
 
         /**
          * Set the columns to insert into the database table.
@@ -135,6 +168,48 @@ public class InsertQuery implements Query {
             return this;
         }
 
+        /**
+         * Set the columns of the key, that identifies existing rows.
+         *
+         * @param conflictColumns The names of the columns.
+         * @return The builder.
+         */
+        public InsertQuery.Builder setConflictColumns(String... conflictColumns) {
+            this.conflictColumns = conflictColumns;
+            return this;
+        }
+
+        /**
+         * Add a row to insert into the database table. The first added row sets the
+         * columns, if they are not set yet. Every other row must contain the same columns
+         * in the same order.
+         *
+         * @param row The columns and values of the row.
+         * @return The builder.
+         * @throws IllegalArgumentException If the row contains different columns.
+         */
+        public InsertQuery.Builder addRow(ColumnValuePair... row) {
+            if (columns == null) {
+                columns = row;
+                return this;
+            }
+            if (row.length != columns.length) {
+                throw new IllegalArgumentException("All rows must contain the same columns.");
+            }
+            for (int i = 0; i < row.length; i++) {
+                if (!row[i].getColumnName().equals(columns[i].getColumnName())) {
+                    throw new IllegalArgumentException("All rows must contain the same columns.");
+                }
+            }
+            rows.add(row);
+            return this;
+        }
+
+        /**
+         * Build the {@link InsertQuery} instance.
+         *
+         * @return The {@link InsertQuery} instance.
+         */
         public InsertQuery build() {
             return new InsertQuery(this);
         }
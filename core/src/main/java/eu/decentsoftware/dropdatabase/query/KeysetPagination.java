@@ -0,0 +1,403 @@
+package eu.decentsoftware.dropdatabase.query;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
+import eu.decentsoftware.dropdatabase.internal.EntityDescriptor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * This class pages through the objects of a table by the values of a unique key, instead of
+ * skipping rows using an offset. A page is loaded using a condition on the key, e.g.
+ * {@code id > ?}, so the database seeks to the first row of the page using an index on the key,
+ * and every page takes the same time, no matter how deep it is.
+ * <p>
+ * The key consists of one or more columns, which must be mapped by the ORM class, must not be
+ * null and must identify a row uniquely, e.g. {@code score} followed by the primary key {@code id}.
+ * Pages end with a token, that is passed to load the next page. The token contains the key of the
+ * last object of the page, so rows added or removed meanwhile do not shift the following pages.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * KeysetPagination pagination = KeysetPagination.builder()
+ *         .setColumns("score", "id")
+ *         .setDescending(true)
+ *         .setPageSize(50)
+ *         .build();
+ *
+ * Page<User> page = databaseManager.loadORMPage(User.class, pagination, null, (builder) -> {});
+ * Page<User> nextPage = databaseManager.loadORMPage(User.class, pagination, page.getNextToken(), (builder) -> {});
+ * }</pre>
+ * Instances are immutable and created using the {@link Builder} class.
+ *
+ * @author Tomas Plansky
+ * @see DatabaseManager#loadORMPage(Class, KeysetPagination, String, Consumer)
+ * @see Page
+ * @since 1.0.0
+ */
+@Getter
+public final class KeysetPagination {
+
+    private static final byte TOKEN_VERSION = 1;
+
+    /**
+     * The columns of the key, in the order the objects are sorted by.
+     */
+    private final @NonNull String[] columns;
+    /**
+     * Whether the objects are sorted in descending order of the key.
+     */
+    private final boolean descending;
+    /**
+     * The maximum number of objects on a page.
+     */
+    private final int pageSize;
+    /**
+     * The condition selecting the rows after a key.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final @NotNull String condition;
+
+    /**
+     * Create a new keyset pagination from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private KeysetPagination(@NotNull Builder builder) {
+        if (builder.columns == null || builder.columns.length == 0) {
+            throw new IllegalArgumentException("Keyset pagination must have at least one column.");
+        }
+        if (builder.pageSize < 1) {
+            throw new IllegalArgumentException("Keyset pagination page size must be positive.");
+        }
+        this.columns = builder.columns.clone();
+        this.descending = builder.descending;
+        this.pageSize = builder.pageSize;
+        this.condition = createCondition(columns, descending ? "<" : ">");
+    }
+
+    /**
+     * Create a callback, that builds the query of the page after the given token. The callback calls
+     * the given callback first, then adds the condition on the key to its where clause and sets the
+     * order by, limit and offset. One more object than the page size is loaded to find out, whether
+     * there is a next page, so pass the loaded objects to {@link #toPage(Class, List)}.
+     *
+     * @param token                The token of the previous page, or null to build the query of the first page.
+     * @param queryBuilderCallback The callback to build the query, e.g. to set the where clause.
+     * @return The callback.
+     * @throws IllegalArgumentException If the token is invalid.
+     * @see DatabaseManager#loadORMObjects(Class, Consumer)
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Consumer<SelectQuery.Builder> apply(@Nullable String token, @NonNull Consumer<SelectQuery.Builder> queryBuilderCallback) {
+        final Object[] values = token == null ? null : getConditionValues(decode(token));
+        return (builder) -> {
+            queryBuilderCallback.accept(builder);
+            if (values != null) {
+                String where = builder.getWhere();
+                Object[] whereValues = builder.getValues();
+                if (where == null || where.isEmpty()) {
+                    builder.setWhere(condition).setValues(values);
+                } else {
+                    Object[] allValues = new Object[(whereValues == null ? 0 : whereValues.length) + values.length];
+                    if (whereValues != null) {
+                        System.arraycopy(whereValues, 0, allValues, 0, whereValues.length);
+                    }
+                    System.arraycopy(values, 0, allValues, allValues.length - values.length, values.length);
+                    builder.setWhere("(" + where + ") AND " + condition).setValues(allValues);
+                }
+            }
+            builder.setOrderByColumns(columns)
+                    .setDescending(descending)
+                    .setLimit(pageSize + 1)
+                    .setOffset(0);
+        };
+    }
+
+    /**
+     * Create a page from the objects loaded by a query built using {@link #apply(String, Consumer)}.
+     *
+     * @param clazz   The class of the objects.
+     * @param objects The loaded objects.
+     * @return The page.
+     * @throws SQLQueryException If a column of the key is not mapped or its value cannot be stored in a token.
+     */
+    @NotNull
+    public <T> Page<T> toPage(@NonNull Class<T> clazz, @NonNull List<T> objects) throws SQLQueryException {
+        if (objects.size() <= pageSize) {
+            return new Page<>(objects, null);
+        }
+        List<T> items = new ArrayList<>(objects.subList(0, pageSize));
+        EntityDescriptor<T> descriptor = EntityDescriptor.of(clazz);
+        T last = items.get(pageSize - 1);
+        Object[] key = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            EntityDescriptor.ColumnDescriptor column = descriptor.getColumn(columns[i]);
+            if (column == null) {
+                throw new SQLQueryException("Keyset column " + columns[i] + " is not mapped by " + clazz.getName() + ".");
+            }
+            key[i] = column.get(last);
+            if (key[i] == null) {
+                throw new SQLQueryException("Keyset column " + columns[i] + " of " + clazz.getName() + " must not be null.");
+            }
+        }
+        return new Page<>(items, encode(key));
+    }
+
+    /**
+     * Create the condition selecting the rows after a key. For the columns {@code a, b}, it is
+     * {@code a >= ? AND (a > ? OR (a = ? AND b > ?))}. The first part is redundant, but it lets
+     * databases, that cannot use an index for the rest, seek to the first row.
+     *
+     * @param columns  The columns of the key.
+     * @param operator The operator comparing the columns.
+     * @return The condition.
+     */
+    @NotNull
+    private static String createCondition(@NotNull String[] columns, @NotNull String operator) {
+        if (columns.length == 1) {
+            return "`" + columns[0] + "` " + operator + " ?";
+        }
+        StringBuilder condition = new StringBuilder();
+        condition.append("`").append(columns[0]).append("` ").append(operator).append("= ? AND (");
+        for (int i = 0; i < columns.length; i++) {
+            if (i != 0) {
+                condition.append(" OR (");
+            }
+            for (int j = 0; j < i; j++) {
+                condition.append("`").append(columns[j]).append("` = ? AND ");
+            }
+            condition.append("`").append(columns[i]).append("` ").append(operator).append(" ?");
+            if (i != 0) {
+                condition.append(")");
+            }
+        }
+        return condition.append(")").toString();
+    }
+
+    /**
+     * Get the values of the placeholders in the condition created by {@link #createCondition(String[], String)}.
+     *
+     * @param key The values of the key columns.
+     * @return The values.
+     */
+    @NotNull
+    private static Object[] getConditionValues(@NotNull Object[] key) {
+        if (key.length == 1) {
+            return key;
+        }
+        List<Object> values = new ArrayList<>();
+        values.add(key[0]);
+        for (int i = 0; i < key.length; i++) {
+            for (int j = 0; j <= i; j++) {
+                values.add(key[j]);
+            }
+        }
+        return values.toArray();
+    }
+
+    /**
+     * Encode the key of the last object of a page into a token.
+     *
+     * @param key The values of the key columns.
+     * @return The token.
+     * @throws SQLQueryException If a value cannot be stored in a token.
+     */
+    @NotNull
+    private static String encode(@NotNull Object[] key) throws SQLQueryException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(TOKEN_VERSION);
+            out.writeByte(key.length);
+            for (Object value : key) {
+                if (value instanceof String) {
+                    byte[] string = ((String) value).getBytes(StandardCharsets.UTF_8);
+                    out.writeByte('S');
+                    out.writeInt(string.length);
+                    out.write(string);
+                } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    out.writeByte('I');
+                    out.writeInt(((Number) value).intValue());
+                } else if (value instanceof Long) {
+                    out.writeByte('J');
+                    out.writeLong((Long) value);
+                } else if (value instanceof Double) {
+                    out.writeByte('D');
+                    out.writeDouble((Double) value);
+                } else if (value instanceof Float) {
+                    out.writeByte('F');
+                    out.writeFloat((Float) value);
+                } else if (value instanceof Boolean) {
+                    out.writeByte('Z');
+                    out.writeBoolean((Boolean) value);
+                } else if (value instanceof BigDecimal) {
+                    out.writeByte('B');
+                    out.writeUTF(value.toString());
+                } else if (value instanceof Timestamp) {
+                    out.writeByte('T');
+                    out.writeLong(((Timestamp) value).getTime());
+                    out.writeInt(((Timestamp) value).getNanos());
+                } else if (value instanceof Date) {
+                    out.writeByte('d');
+                    out.writeLong(((Date) value).getTime());
+                } else {
+                    throw new SQLQueryException("Values of type " + value.getClass().getName() + " cannot be used as a keyset.");
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLQueryException("Failed to create the token.", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decode the key of the last object of a page from a token.
+     *
+     * @param token The token.
+     * @return The values of the key columns.
+     * @throws IllegalArgumentException If the token is invalid or was created for a key with other columns.
+     */
+    @NotNull
+    private Object[] decode(@NotNull String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != TOKEN_VERSION || in.readByte() != columns.length) {
+                throw new IllegalArgumentException("Invalid token: " + token);
+            }
+            Object[] key = new Object[columns.length];
+            for (int i = 0; i < key.length; i++) {
+                byte type = in.readByte();
+                switch (type) {
+                    case 'S':
+                        // The length comes from the client, so it is checked before allocating.
+                        int length = in.readInt();
+                        if (length < 0 || length > in.available()) {
+                            throw new IllegalArgumentException("Invalid token: " + token);
+                        }
+                        byte[] string = new byte[length];
+                        in.readFully(string);
+                        key[i] = new String(string, StandardCharsets.UTF_8);
+                        break;
+                    case 'I':
+                        key[i] = in.readInt();
+                        break;
+                    case 'J':
+                        key[i] = in.readLong();
+                        break;
+                    case 'D':
+                        key[i] = in.readDouble();
+                        break;
+                    case 'F':
+                        key[i] = in.readFloat();
+                        break;
+                    case 'Z':
+                        key[i] = in.readBoolean();
+                        break;
+                    case 'B':
+                        key[i] = new BigDecimal(in.readUTF());
+                        break;
+                    case 'T':
+                        Timestamp timestamp = new Timestamp(in.readLong());
+                        timestamp.setNanos(in.readInt());
+                        key[i] = timestamp;
+                        break;
+                    case 'd':
+                        key[i] = new Date(in.readLong());
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid token: " + token);
+                }
+            }
+            if (in.available() != 0) {
+                throw new IllegalArgumentException("Invalid token: " + token);
+            }
+            return key;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid token: " + token, e);
+        }
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link KeysetPagination} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link KeysetPagination} class. This class
+     * is used to create a new {@link KeysetPagination} instance.
+     *
+     * @author Tomas Plansky
+     * @see KeysetPagination
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The columns of the key, in the order the objects are sorted by. Together, they must
+         * identify a row uniquely, so end them with the primary key, e.g. {@code score, id}.
+         */
+        private String[] columns;
+        /**
+         * Whether the objects are sorted in descending order of the key.
+         */
+        private boolean descending;
+        /**
+         * The maximum number of objects on a page.
+         */
+        private int pageSize = 50;
+
+        /**
+         * Set the columns of the key, in the order the objects are sorted by.
+         *
+         * @param columns The columns of the key.
+         */
+        public Builder setColumns(String... columns) {
+            this.columns = columns;
+            return this;
+        }
+
+        /**
+         * Build the {@link KeysetPagination} instance.
+         *
+         * @return The {@link KeysetPagination} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public KeysetPagination build() {
+            return new KeysetPagination(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package eu.decentsoftware.dropdatabase.query;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * This class represents a page of objects loaded using a {@link KeysetPagination}.
+ *
+ * @param <T> The type of the objects.
+ * @author Tomas Plansky
+ * @see KeysetPagination
+ * @since 1.0.0
+ */
+@Getter
+public final class Page<T> {
+
+    /**
+     * The objects on this page, in the order of the pagination.
+     */
+    private final @NonNull List<T> items;
+    /**
+     * The token to load the next page with, or null if this is the last page.
+     */
+    private final @Nullable String nextToken;
+
+    /**
+     * Create a new page.
+     *
+     * @param items     The objects on the page.
+     * @param nextToken The token to load the next page with, or null if this is the last page.
+     */
+    public Page(@NonNull List<T> items, @Nullable String nextToken) {
+        this.items = items;
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Check whether there is a page after this one.
+     *
+     * @return True if there is a next page, false otherwise.
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+}
@@ -0,0 +1,143 @@
+package eu.decentsoftware.dropdatabase.query;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import lombok.NonNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents a compiled query. It holds the final SQL of a query without its values,
+ * so that the query can be executed repeatedly with different values, without building the SQL
+ * again every time.
+ * <p>
+ * Create it once, using {@link Query#prepare()} or {@link #of(String)}, keep it in a constant or a
+ * field and execute it using {@link DatabaseManager#executeQuery(PreparedQuery, java.util.function.Consumer, Object...)}
+ * or {@link DatabaseManager#executeUpdate(PreparedQuery, Object...)}. Since the SQL is always the
+ * same instance, the prepared statement is reused from the statement cache of the connection.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * PreparedQuery selectById = SelectQuery.builder()
+ *         .setTable("users")
+ *         .setWhere("id = ?")
+ *         .build()
+ *         .prepare();
+ *
+ * databaseManager.executeQuery(selectById, (rs) -> { ... }, 42);
+ * }</pre>
+ *
+ * @author Tomas Plansky
+ * @see Query#prepare()
+ * @since 1.0.0
+ */
+public final class PreparedQuery {
+
+    private final @NotNull String query;
+    private final @Nullable String table;
+    private final boolean readOnly;
+
+    /**
+     * Create a new compiled query with the given SQL.
+     *
+     * @param query    The SQL of the query.
+     * @param table    The table of the query, or null if it is not known.
+     * @param readOnly Whether the query only reads data.
+     */
+    private PreparedQuery(@NotNull String query, @Nullable String table, boolean readOnly) {
+        this.query = query;
+        this.table = table;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Create a new compiled query from the given SQL. The SQL may contain
+     * placeholders (?) for the values passed when executing the query.
+     *
+     * @param query The SQL of the query.
+     * @return The compiled query.
+     */
+    @NotNull
+    @Contract(value = "_ -> new", pure = true)
+    public static PreparedQuery of(@NonNull String query) {
+        return new PreparedQuery(query, null, false);
+    }
+
+    /**
+     * Create a new compiled query from the given SQL, that reads from or writes to the given table.
+     *
+     * @param query The SQL of the query.
+     * @param table The table of the query.
+     * @return The compiled query.
+     * @see Query#getTable()
+     */
+    @NotNull
+    @Contract(value = "_, _ -> new", pure = true)
+    public static PreparedQuery of(@NonNull String query, @Nullable String table) {
+        return new PreparedQuery(query, table, false);
+    }
+
+    /**
+     * Create a new compiled query from the given SQL, that only reads data from the given table.
+     * Such queries can be sent to the replicas of the database, so the SQL must not write anything
+     * or lock rows, see {@link #isReadOnly()}.
+     *
+     * @param query The SQL of the query.
+     * @param table The table of the query, or null if it is not known.
+     * @return The compiled query.
+     */
+    @NotNull
+    @Contract(value = "_, _ -> new", pure = true)
+    public static PreparedQuery ofReadOnly(@NonNull String query, @Nullable String table) {
+        return new PreparedQuery(query, table, true);
+    }
+
+    /**
+     * Create a new compiled query from the given query. The values of the given query
+     * are not part of the compiled query, they are passed when executing it. Compiled
+     * {@link SelectQuery SelectQueries} are read-only, see {@link #isReadOnly()}.
+     *
+     * @param query The query.
+     * @return The compiled query.
+     */
+    @NotNull
+    @Contract(value = "_ -> new", pure = true)
+    public static PreparedQuery of(@NonNull Query query) {
+        return new PreparedQuery(query.toString(), query.getTable(), query instanceof SelectQuery);
+    }
+
+    /**
+     * Check whether the query only reads data. Read-only queries executed outside of transactions
+     * use a connection for reading, which might be a connection to a replica of the database.
+     * Other queries always use the primary database.
+     *
+     * @return True if the query only reads data, false otherwise.
+     * @see eu.decentsoftware.dropdatabase.pool.ConnectionProvider#acquireForRead(boolean)
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Get the table, that the query reads from or writes to.
+     *
+     * @return The table, or null if it is not known.
+     * @see Query#getTable()
+     */
+    @Nullable
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the SQL of the query.
+     *
+     * @return The SQL.
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        return query;
+    }
+
+}
@@ -2,6 +2,7 @@ package eu.decentsoftware.dropdatabase.query;
 
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * This class represents a query. It is used to create a query and to store
@@ -30,4 +31,30 @@ public interface Query {
 	 */
 	Object[] getValues();
 
+	/**
+	 * Get the table, that the query reads from or writes to.
+	 * <p>
+	 * The table is used to invalidate cached results of queries reading from the table,
+	 * when a query writes to it. If this is null, the table is not known, and all
+	 * cached results are invalidated instead.
+	 *
+	 * @return The table, or null if it is not known.
+	 */
+	@Nullable
+	default String getTable() {
+		return null;
+	}
+
+	/**
+	 * Compile this query, so that it can be executed repeatedly with different
+	 * values, without building it again.
+	 *
+	 * @return The compiled query.
+	 * @see PreparedQuery
+	 */
+	@NotNull
+	default PreparedQuery prepare() {
+		return PreparedQuery.of(this);
+	}
+
 }
@@ -7,11 +7,13 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class SelectQuery implements Query {
 
     private final @NotNull String query;
     private final Object[] values;
+    private final String table;
 
     /**
      * Create a new SELECT query from the given builder.
@@ -38,9 +40,9 @@ public class SelectQuery implements Query {
         }
         stringBuilder.append(" FROM ");
         if (builder.database != null && builder.database.length() > 0) {
-            stringBuilder.append("`").append(builder.database).append("`.`");
+            stringBuilder.append("`").append(builder.database).append("`.");
         }
-        stringBuilder.append(builder.table).append("`");
+        stringBuilder.append("`").append(builder.table).append("`");
         if (builder.where != null && builder.where.length() > 0) {
             stringBuilder.append(" WHERE ").append(builder.where);
         }
@@ -50,8 +52,18 @@ public class SelectQuery implements Query {
         if (builder.having != null && builder.having.length() > 0) {
             stringBuilder.append(" HAVING ").append(builder.having);
         }
-        if (builder.orderBy != null && builder.orderBy.length() > 0) {
-            stringBuilder.append(" ORDER BY ").append("`").append(builder.orderBy).append("`");
+        final String[] orderBy = builder.getOrderByColumns();
+        if (orderBy.length > 0) {
+            stringBuilder.append(" ORDER BY ");
+            for (int i = 0; i < orderBy.length; i++) {
+                stringBuilder.append("`").append(orderBy[i]).append("`");
+                if (builder.descending) {
+                    stringBuilder.append(" DESC");
+                }
+                if (i != orderBy.length - 1) {
+                    stringBuilder.append(", ");
+                }
+            }
         }
         if (builder.limit != 0) {
             stringBuilder.append(" LIMIT ").append(builder.limit);
@@ -61,6 +73,7 @@ public class SelectQuery implements Query {
         }
         this.query = stringBuilder.toString();
         this.values = builder.values;
+        this.table = builder.table;
     }
 
     @NotNull
@@ -74,6 +87,12 @@ public class SelectQuery implements Query {
         return values;
     }
 
+    @Nullable
+    @Override
+    public String getTable() {
+        return table;
+    }
+
     /**
      * Create a new instance of the {@link Builder} class. This builder
      * is used to create a new {@link SelectQuery} instance.
@@ -120,9 +139,17 @@ public class SelectQuery implements Query {
          */
         private String where;
         /**
-         * The order by clause. This is optional.
+         * The order by clause. This is optional. If {@link #orderByColumns} are set, they are used instead.
          */
         private String orderBy;
+        /**
+         * The columns to order the result by. This is optional.
+         */
+        private String[] orderByColumns;
+        /**
+         * Whether the result is ordered by the order by columns in descending order.
+         */
+        private boolean descending;
         /**
          * The group by clause. This is optional.
          */
@@ -157,6 +184,48 @@ public class SelectQuery implements Query {
             return this;
         }
 
+        /**
+         * Set the column to order the result by. This replaces the columns set
+         * by {@link #setOrderByColumns(String...)}.
+         *
+         * @param orderBy The column to order the result by.
+         */
+        public SelectQuery.Builder setOrderBy(String orderBy) {
+            this.orderBy = orderBy;
+            this.orderByColumns = null;
+            return this;
+        }
+
+        /**
+         * Set the columns to order the result by. Rows with equal values in the first
+         * column are ordered by the second column, and so on. This replaces the column
+         * set by {@link #setOrderBy(String)}.
+         *
+         * @param orderByColumns The columns to order the result by.
+         */
+        public SelectQuery.Builder setOrderByColumns(String... orderByColumns) {
+            this.orderByColumns = orderByColumns;
+            this.orderBy = null;
+            return this;
+        }
+
+        /**
+         * Get the columns to order the result by, set using either {@link #setOrderBy(String)}
+         * or {@link #setOrderByColumns(String...)}.
+         *
+         * @return The columns, or an empty array if the result is not ordered.
+         */
+        @NotNull
+        public String[] getOrderByColumns() {
+            if (orderByColumns != null && orderByColumns.length > 0) {
+                return orderByColumns;
+            }
+            if (orderBy != null && !orderBy.isEmpty()) {
+                return new String[]{orderBy};
+            }
+            return new String[0];
+        }
+
         /**
          * Set the values to replace the placeholders (?) in the final query.
          *
@@ -167,6 +236,20 @@ public class SelectQuery implements Query {
             return this;
         }
 
+        /**
+         * Check whether this builder selects all rows of the table, that is, it has
+         * no where, group by, having, order by, limit or offset clause.
+         *
+         * @return True if all rows are selected, false otherwise.
+         */
+        public boolean isUnfiltered() {
+            return (where == null || where.isEmpty())
+                    && (groupBy == null || groupBy.isEmpty())
+                    && (having == null || having.isEmpty())
+                    && getOrderByColumns().length == 0
+                    && limit == 0 && offset == 0;
+        }
+
         /**
          * Build the {@link SelectQuery} instance.
          *
@@ -2,10 +2,12 @@ package eu.decentsoftware.dropdatabase.query;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class TruncateTableQuery implements Query {
 
     private final String query;
+    private final String table;
 
     /**
      * Create a new TruncateTableQuery.
@@ -15,6 +17,7 @@ public class TruncateTableQuery implements Query {
     @Contract(pure = true)
     public TruncateTableQuery(@NotNull String table) {
         this.query = "TRUNCATE TABLE `" + table + "`";
+        this.table = table;
     }
 
     /**
@@ -27,6 +30,7 @@ public class TruncateTableQuery implements Query {
 
     public TruncateTableQuery(@NotNull String database, @NotNull String table) {
         this.query = "TRUNCATE TABLE `" + database + "`.`" + table + "`";
+        this.table = table;
     }
 
     @NotNull
@@ -40,4 +44,10 @@ public class TruncateTableQuery implements Query {
         return new Object[0];
     }
 
+    @Nullable
+    @Override
+    public String getTable() {
+        return table;
+    }
+
 }
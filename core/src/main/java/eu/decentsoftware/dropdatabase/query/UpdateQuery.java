@@ -8,11 +8,13 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class UpdateQuery implements Query {
 
     private final @NotNull String query;
     private final Object[] values;
+    private final String table;
 
     /**
      * Create a new UPDATE query from the given builder.
@@ -34,6 +36,7 @@ public class UpdateQuery implements Query {
             stringBuilder.append(" WHERE ").append(builder.where);
         }
         this.query = stringBuilder.toString();
+        this.table = builder.table;
     }
 
     @NotNull
@@ -47,6 +50,12 @@ public class UpdateQuery implements Query {
         return values;
     }
 
+    @Nullable
+    @Override
+    public String getTable() {
+        return table;
+    }
+
     /**
      * Create a new instance of the {@link Builder} class. This builder
      * is used to create a new {@link UpdateQuery} instance.
@@ -0,0 +1,264 @@
+package eu.decentsoftware.dropdatabase.shard;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class maps shard keys to shards using consistent hashing. Each shard is placed on a ring
+ * of 64-bit hashes at {@link #getVirtualNodes()} points per unit of its weight, and a key belongs
+ * to the shard of the first point at or after the hash of the key.
+ * <p>
+ * The points of a shard only depend on its name, so adding a shard only moves the keys, that now
+ * belong to the new shard, and removing a shard only moves the keys, that belonged to it. On average,
+ * adding a shard to {@code n} shards of the same weight moves {@code 1 / (n + 1)} of the keys.
+ * <p>
+ * Keys are hashed by their {@link String#valueOf(Object) string value}, so keys of different
+ * types with the same string value, such as {@code 42} and {@code 42L}, belong to the same shard.
+ * Instances are immutable and created using the {@link Builder} class.
+ *
+ * @author Tomas Plansky
+ * @see ShardedDatabaseManager
+ * @since 1.0.0
+ */
+public final class ShardMap {
+
+    /**
+     * The weights of the shards by their names, in the order they were added.
+     */
+    @Getter
+    private final @NonNull Map<String, Integer> weights;
+    /**
+     * The number of points on the ring per unit of weight of a shard.
+     */
+    @Getter
+    private final int virtualNodes;
+    /**
+     * The points on the ring, sorted.
+     */
+    private final long[] points;
+    /**
+     * The shards of the points, in the order of {@link #points}.
+     */
+    private final String[] owners;
+
+    /**
+     * Create a new shard map from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private ShardMap(@NotNull Builder builder) {
+        if (builder.weights.isEmpty()) {
+            throw new IllegalArgumentException("Shard map must contain at least one shard.");
+        }
+        if (builder.virtualNodes < 1) {
+            throw new IllegalArgumentException("Shard map must have at least one virtual node per shard.");
+        }
+        this.weights = Collections.unmodifiableMap(new LinkedHashMap<>(builder.weights));
+        this.virtualNodes = builder.virtualNodes;
+
+        int size = 0;
+        for (int weight : weights.values()) {
+            size += weight * virtualNodes;
+        }
+        final long[] hashes = new long[size];
+        final String[] names = new String[size];
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            for (int i = 0; i < entry.getValue() * virtualNodes; i++) {
+                hashes[index] = hash(entry.getKey() + "#" + i);
+                names[index] = entry.getKey();
+                index++;
+            }
+        }
+
+        // Sort the points together with their owners. Equal points are ordered by the name of
+        // the shard, so that the owner does not depend on the order of the shards.
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int result = Long.compareUnsigned(hashes[a], hashes[b]);
+            return result != 0 ? result : names[a].compareTo(names[b]);
+        });
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = names[order[i]];
+        }
+    }
+
+    /**
+     * Get the name of the shard, that the given key belongs to.
+     *
+     * @param key The shard key.
+     * @return The name of the shard.
+     */
+    @NotNull
+    public String locate(@NonNull Object key) {
+        final long hash = hash(String.valueOf(key));
+        // Find the first point at or after the hash, wrapping around the ring.
+        int low = 0;
+        int high = points.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[middle], hash) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return owners[low == points.length ? 0 : low];
+    }
+
+    /**
+     * Get the names of all shards, in the order they were added.
+     *
+     * @return The names of the shards.
+     */
+    @NotNull
+    public Set<String> getShards() {
+        return weights.keySet();
+    }
+
+    /**
+     * Create a new builder, that contains the shards of this map. Use it to add or remove
+     * shards, e.g. before rebalancing.
+     *
+     * @return The builder.
+     * @see ShardedDatabaseManager#rebalanceORMObjects(Class)
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public Builder toBuilder() {
+        Builder builder = new Builder().setVirtualNodes(virtualNodes);
+        builder.weights.putAll(weights);
+        return builder;
+    }
+
+    /**
+     * Hash the given string into a point on the ring. This is the 64-bit FNV-1a hash of its
+     * UTF-8 bytes, mixed using the finalizer of MurmurHash3, so that similar strings, such as
+     * consecutive numbers, are spread over the whole ring. The hash must never change, otherwise
+     * existing keys would move to other shards.
+     *
+     * @param value The string.
+     * @return The hash.
+     */
+    private static long hash(@NotNull String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link ShardMap} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link ShardMap} class. This class
+     * is used to create a new {@link ShardMap} instance.
+     *
+     * @author Tomas Plansky
+     * @see ShardMap
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The weights of the shards by their names.
+         */
+        private final Map<String, Integer> weights = new LinkedHashMap<>();
+        /**
+         * The number of points on the ring per unit of weight of a shard. More points spread
+         * the keys more evenly, but make the map larger.
+         */
+        private int virtualNodes = 160;
+
+        /**
+         * Add a shard with the weight 1.
+         *
+         * @param name The name of the shard.
+         * @return Builder instance.
+         */
+        @Contract("_ -> this")
+        public Builder addShard(@NonNull String name) {
+            return addShard(name, 1);
+        }
+
+        /**
+         * Add a shard with the given weight. A shard with the weight 2 receives twice as many
+         * keys as a shard with the weight 1.
+         *
+         * @param name   The name of the shard.
+         * @param weight The weight of the shard.
+         * @return Builder instance.
+         */
+        @Contract("_, _ -> this")
+        public Builder addShard(@NonNull String name, int weight) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Shard weight must be positive.");
+            }
+            weights.put(name, weight);
+            return this;
+        }
+
+        /**
+         * Remove a shard.
+         *
+         * @param name The name of the shard.
+         * @return Builder instance.
+         */
+        @Contract("_ -> this")
+        public Builder removeShard(@NonNull String name) {
+            weights.remove(name);
+            return this;
+        }
+
+        /**
+         * Build the {@link ShardMap} instance.
+         *
+         * @return The {@link ShardMap} instance.
+         * @throws IllegalArgumentException If the map has no shards.
+         */
+        @NotNull
+        public ShardMap build() {
+            return new ShardMap(this);
+        }
+
+    }
+
+}
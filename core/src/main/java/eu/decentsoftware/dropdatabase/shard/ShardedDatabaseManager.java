@@ -0,0 +1,647 @@
+package eu.decentsoftware.dropdatabase.shard;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.dialect.Dialect;
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
+import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
+import eu.decentsoftware.dropdatabase.internal.EntityDescriptor;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
+import eu.decentsoftware.dropdatabase.query.SelectQuery;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * This class splits the objects of {@link DatabaseTable} classes between multiple databases, called
+ * shards. Each shard is a {@link DatabaseManager} with its own connector. Objects are assigned to the
+ * shards by the value of their shard key column using a {@link ShardMap}.
+ * <p>
+ * The shard key column of a class is the column set using {@link Builder#setShardKey(Class, String)},
+ * or the column named by {@link DatabaseTable#shardKey()}, or the primary key column, if the primary
+ * key consists of a single column. Saving an object and loading objects with a known shard key only
+ * uses the shard of the key. Loading objects without a shard key queries all shards in parallel and
+ * merges the results.
+ * <p>
+ * Shards are added by creating a new manager with the additional shard, and calling
+ * {@link #rebalanceORMObjects(Class)} for each class to move the objects, that now belong to it.
+ * Thanks to consistent hashing, only these objects are moved.
+ *
+ * @author Tomas Plansky
+ * @see ShardMap
+ * @since 1.0.0
+ */
+public class ShardedDatabaseManager {
+
+    /**
+     * The number of objects moved to another shard at once by {@link #rebalanceORMObjects(Class)}.
+     */
+    private static final int REBALANCE_BATCH_SIZE = 500;
+
+    @Getter
+    private final @NonNull ShardMap shardMap;
+    /**
+     * The shards by their names, in the order they were added.
+     */
+    @Getter
+    private final @NonNull Map<String, DatabaseManager> shards;
+    /**
+     * The shard key columns set using {@link Builder#setShardKey(Class, String)}.
+     */
+    private final Map<Class<?>, String> shardKeys;
+    /**
+     * The resolved shard key columns of the classes.
+     */
+    private final Map<Class<?>, EntityDescriptor.ColumnDescriptor> shardKeyColumns = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new sharded database manager from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private ShardedDatabaseManager(@NotNull Builder builder) {
+        ShardMap.Builder shardMapBuilder = ShardMap.builder().setVirtualNodes(builder.virtualNodes);
+        builder.weights.forEach(shardMapBuilder::addShard);
+        this.shardMap = shardMapBuilder.build();
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(builder.shards));
+        this.shardKeys = new HashMap<>(builder.shardKeys);
+    }
+
+    /**
+     * Get the shard with the given name.
+     *
+     * @param name The name of the shard.
+     * @return The shard.
+     * @throws IllegalArgumentException If there is no shard with the given name.
+     */
+    @NotNull
+    public DatabaseManager getShard(@NonNull String name) {
+        DatabaseManager shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalArgumentException("Shard " + name + " does not exist.");
+        }
+        return shard;
+    }
+
+    /**
+     * Get the shard, that the objects with the given shard key belong to.
+     *
+     * @param key The value of the shard key column.
+     * @return The shard.
+     */
+    @NotNull
+    public DatabaseManager getShardFor(@NonNull Object key) {
+        return shards.get(shardMap.locate(key));
+    }
+
+    /**
+     * Get the value of the shard key column of the given object.
+     *
+     * @param object The object.
+     * @return The value of the shard key column.
+     * @throws SQLQueryException If the class has no shard key column, or the value is null.
+     */
+    @NotNull
+    public Object getShardKey(@NonNull Object object) throws SQLQueryException {
+        return getShardKey(getShardKeyColumn(EntityDescriptor.of(object.getClass())), object);
+    }
+
+    /**
+     * Closes all shards. All shards are closed, even if closing some of them fails. The first
+     * failure is thrown afterwards.
+     *
+     * @throws SQLConnectionException If closing a shard failed.
+     * @see DatabaseManager#close()
+     */
+    public void close() throws SQLConnectionException {
+        SQLConnectionException failure = null;
+        for (DatabaseManager shard : shards.values()) {
+            try {
+                shard.close();
+            } catch (SQLConnectionException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /*
+     *  ORM
+     */
+
+    /**
+     * Saves an object to its shard, updating it if it already exists.
+     *
+     * @param object The object to save.
+     * @throws SQLQueryException If the query failed or the object has no shard key.
+     * @see DatabaseManager#saveORMObject(Object)
+     */
+    public void saveORMObject(@NotNull Object object) throws SQLQueryException {
+        saveORMObject(object, true);
+    }
+
+    /**
+     * Saves an object to its shard.
+     *
+     * @param object            The object to save.
+     * @param updateOnDuplicate If the object should be updated if it already exists.
+     * @throws SQLQueryException If the query failed or the object has no shard key.
+     * @see DatabaseManager#saveORMObject(Object, boolean)
+     */
+    public void saveORMObject(@NotNull Object object, boolean updateOnDuplicate) throws SQLQueryException {
+        getShardFor(getShardKey(object)).saveORMObject(object, updateOnDuplicate);
+    }
+
+    /**
+     * Saves multiple objects to their shards, updating them if they already exist.
+     *
+     * @param objects The objects to save.
+     * @throws SQLQueryException If the query failed or an object has no shard key.
+     * @see #saveORMObjects(Collection, boolean)
+     */
+    public void saveORMObjects(@NotNull Collection<?> objects) throws SQLQueryException {
+        saveORMObjects(objects, true);
+    }
+
+    /**
+     * Saves multiple objects to their shards. The objects are grouped by their shards and
+     * each group is saved in a single batch, in parallel with the other groups.
+     * <p>
+     * The objects of each shard are saved atomically, but the shards are independent of each
+     * other. If saving to one shard fails, the objects of the other shards may have been saved.
+     *
+     * @param objects           The objects to save.
+     * @param updateOnDuplicate If the objects should be updated if they already exist.
+     * @throws SQLQueryException If the query failed or an object has no shard key.
+     * @see DatabaseManager#saveORMObjects(Collection, boolean)
+     */
+    public void saveORMObjects(@NotNull Collection<?> objects, boolean updateOnDuplicate) throws SQLQueryException {
+        // Resolve all shards first, so that nothing is saved if an object has no shard key.
+        Map<String, List<Object>> groups = new LinkedHashMap<>();
+        for (Object object : objects) {
+            groups.computeIfAbsent(shardMap.locate(getShardKey(object)), (name) -> new ArrayList<>()).add(object);
+        }
+        if (groups.size() == 1) {
+            Map.Entry<String, List<Object>> group = groups.entrySet().iterator().next();
+            shards.get(group.getKey()).saveORMObjects(group.getValue(), updateOnDuplicate);
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+        for (Map.Entry<String, List<Object>> group : groups.entrySet()) {
+            futures.add(shards.get(group.getKey()).saveORMObjectsAsync(group.getValue(), updateOnDuplicate));
+        }
+        joinAll(futures);
+    }
+
+    /**
+     * Loads a list of objects of the given type from the shard of the given shard key. The key
+     * only selects the shard, so the query should also filter by it, if the shard contains
+     * objects with other keys.
+     *
+     * @param clazz                The class of the object to load.
+     * @param key                  The value of the shard key column.
+     * @param queryBuilderCallback The callback to build the query.
+     * @return A list of objects of the given type loaded from the shard.
+     * @throws SQLQueryException If the query failed.
+     * @see DatabaseManager#loadORMObjects(Class, Consumer)
+     */
+    public <T> List<T> loadORMObjects(@NotNull Class<T> clazz, @NotNull Object key, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
+        return getShardFor(key).loadORMObjects(clazz, queryBuilderCallback);
+    }
+
+    /**
+     * Loads a list of objects of the given type from all shards. The query is executed on all shards
+     * in parallel and the results are merged as if they came from a single database:
+     * <ul>
+     *     <li>If {@link SelectQuery.Builder#getOrderByColumns() order by} is set, its columns must be
+     *     mapped numeric or temporal columns, whose values are not null. The results are sorted by
+     *     them again after they are merged. Other columns are not supported, because each shard cuts
+     *     its results using the collation and the order of null values of its database, which
+     *     differ from the order in Java, so the merged page might not contain the right objects.</li>
+     *     <li>{@link SelectQuery.Builder#setLimit(int) Limit} and {@link SelectQuery.Builder#setOffset(int) offset}
+     *     are applied to the merged result. Each shard loads up to {@code limit + offset} objects.</li>
+     *     <li>{@link SelectQuery.Builder#setGroupBy(String) Group by} and having are applied on each shard
+     *     separately, so groups spanning multiple shards are not merged.</li>
+     * </ul>
+     * The callback is called once for each shard and once more to read the options above, possibly
+     * from multiple threads at once.
+     *
+     * @param clazz                The class of the object to load.
+     * @param queryBuilderCallback The callback to build the query.
+     * @return A list of objects of the given type loaded from all shards.
+     * @throws SQLQueryException If the query failed on any of the shards.
+     * @see DatabaseManager#loadORMObjects(Class, Consumer)
+     */
+    public <T> List<T> loadORMObjects(@NotNull Class<T> clazz, @NotNull Consumer<SelectQuery.Builder> queryBuilderCallback) throws SQLQueryException {
+        EntityDescriptor<T> descriptor = EntityDescriptor.of(clazz);
+        SelectQuery.Builder options = SelectQuery.builder();
+        queryBuilderCallback.accept(options);
+        final int limit = options.getLimit();
+        final int offset = options.getOffset();
+        Comparator<T> comparator = null;
+        if (options.getOrderByColumns().length > 0) {
+            for (String orderBy : options.getOrderByColumns()) {
+                EntityDescriptor.ColumnDescriptor column = descriptor.getColumn(orderBy);
+                if (column == null) {
+                    throw new SQLQueryException("Results of all shards can only be ordered by mapped columns, " + orderBy + " is not.");
+                }
+                if (!isMergeable(column.getField().getType())) {
+                    throw new SQLQueryException("Results of all shards can only be ordered by numeric or temporal columns, " + orderBy + " is not.");
+                }
+                Comparator<T> columnComparator = (a, b) -> compare(orderBy, column.get(a), column.get(b));
+                comparator = comparator == null ? columnComparator : comparator.thenComparing(columnComparator);
+            }
+            if (comparator != null && options.isDescending()) {
+                comparator = comparator.reversed();
+            }
+        }
+
+        // Each shard may hold all the objects of the page, so it has to return the ones before it too.
+        Consumer<SelectQuery.Builder> shardQueryBuilderCallback = (builder) -> {
+            queryBuilderCallback.accept(builder);
+            builder.setLimit(limit > 0 ? limit + offset : 0).setOffset(0);
+        };
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shards.size());
+        for (DatabaseManager shard : shards.values()) {
+            futures.add(shard.loadORMObjectsAsync(clazz, shardQueryBuilderCallback));
+        }
+        List<T> objects = new ArrayList<>();
+        for (List<T> shardObjects : joinAll(futures)) {
+            objects.addAll(shardObjects);
+        }
+        if (comparator != null) {
+            objects.sort(comparator);
+        }
+        if (offset <= 0 && (limit <= 0 || objects.size() <= limit)) {
+            return objects;
+        }
+        int from = Math.min(Math.max(offset, 0), objects.size());
+        int to = limit > 0 ? Math.min(from + limit, objects.size()) : objects.size();
+        return new ArrayList<>(objects.subList(from, to));
+    }
+
+    /**
+     * Creates a table for the given class on all shards.
+     *
+     * @param clazz       The class to create a table for.
+     * @param ifNotExists If the table should only be created if it does not exist.
+     * @throws SQLQueryException If the query failed on any of the shards.
+     * @see DatabaseManager#createORMTable(Class, boolean)
+     */
+    public void createORMTable(@NotNull Class<?> clazz, boolean ifNotExists) throws SQLQueryException {
+        for (DatabaseManager shard : shards.values()) {
+            shard.createORMTable(clazz, ifNotExists);
+        }
+    }
+
+    /**
+     * Moves all objects of the given type, that are stored on another shard than the one they
+     * belong to, to the right shard. Call this after adding or removing shards, for each class.
+     * A shard, that is being removed, must still be added using {@link Builder#addDrainingShard(String, DatabaseManager)},
+     * so that its objects are moved.
+     * <p>
+     * Each object is first saved to its new shard and then deleted from its old shard, so if this
+     * method fails, it can be called again. The objects must not be changed while they are moved,
+     * otherwise the changes may be lost. The class must have a primary key.
+     *
+     * @param clazz The class of the objects to move.
+     * @return The number of objects, that were moved.
+     * @throws SQLQueryException If a query failed or the class has no primary key.
+     */
+    public <T> long rebalanceORMObjects(@NotNull Class<T> clazz) throws SQLQueryException {
+        EntityDescriptor<T> descriptor = EntityDescriptor.of(clazz);
+        DatabaseTable table = descriptor.requireTable();
+        EntityDescriptor.ColumnDescriptor keyColumn = getShardKeyColumn(descriptor);
+        List<EntityDescriptor.ColumnDescriptor> primaryKeyColumns = descriptor.getPrimaryKeyColumns();
+        if (primaryKeyColumns.isEmpty()) {
+            throw new SQLQueryException("Class " + clazz.getName() + " has no primary key column.");
+        }
+
+        long moved = 0;
+        for (Map.Entry<String, DatabaseManager> shard : shards.entrySet()) {
+            // Objects are deleted after the result is read, the shard may not allow writing meanwhile.
+            List<Object[]> movedKeys = new ArrayList<>();
+            Map<String, List<T>> batches = new HashMap<>();
+            try (Stream<T> stream = shard.getValue().streamORMObjects(clazz, (builder) -> {})) {
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    T object = iterator.next();
+                    String target = shardMap.locate(getShardKey(keyColumn, object));
+                    if (target.equals(shard.getKey())) {
+                        continue;
+                    }
+                    List<T> batch = batches.computeIfAbsent(target, (name) -> new ArrayList<>());
+                    batch.add(object);
+                    Object[] primaryKey = new Object[primaryKeyColumns.size()];
+                    for (int i = 0; i < primaryKey.length; i++) {
+                        primaryKey[i] = primaryKeyColumns.get(i).get(object);
+                    }
+                    movedKeys.add(primaryKey);
+                    if (batch.size() >= REBALANCE_BATCH_SIZE) {
+                        shards.get(target).saveORMObjects(batch, true);
+                        batch.clear();
+                    }
+                }
+            }
+            for (Map.Entry<String, List<T>> batch : batches.entrySet()) {
+                if (!batch.getValue().isEmpty()) {
+                    shards.get(batch.getKey()).saveORMObjects(batch.getValue(), true);
+                }
+            }
+            for (int i = 0; i < movedKeys.size(); i += REBALANCE_BATCH_SIZE) {
+                deleteORMObjects(shard.getValue(), table, descriptor.getPrimaryKeyNames(),
+                        movedKeys.subList(i, Math.min(i + REBALANCE_BATCH_SIZE, movedKeys.size())));
+            }
+            moved += movedKeys.size();
+        }
+        return moved;
+    }
+
+    /*
+     *  Utility
+     */
+
+    /**
+     * Get the shard key column of the given class.
+     *
+     * @param descriptor The descriptor of the class.
+     * @return The shard key column.
+     * @throws SQLQueryException If the class has no shard key column.
+     */
+    @NotNull
+    private EntityDescriptor.ColumnDescriptor getShardKeyColumn(@NotNull EntityDescriptor<?> descriptor) throws SQLQueryException {
+        EntityDescriptor.ColumnDescriptor column = shardKeyColumns.get(descriptor.getType());
+        if (column != null) {
+            return column;
+        }
+        DatabaseTable table = descriptor.requireTable();
+        String name = shardKeys.get(descriptor.getType());
+        if (name == null && table.shardKey().length() > 0) {
+            name = table.shardKey();
+        }
+        if (name != null) {
+            column = descriptor.getColumn(name);
+            if (column == null) {
+                throw new SQLQueryException("Shard key column " + name + " of " + descriptor.getType().getName() + " does not exist.");
+            }
+        } else if (descriptor.getPrimaryKeyColumns().size() == 1) {
+            column = descriptor.getPrimaryKeyColumns().get(0);
+        } else {
+            throw new SQLQueryException("Class " + descriptor.getType().getName() + " has no shard key column.");
+        }
+        shardKeyColumns.put(descriptor.getType(), column);
+        return column;
+    }
+
+    @NotNull
+    private static Object getShardKey(@NotNull EntityDescriptor.ColumnDescriptor column, @NotNull Object object) throws SQLQueryException {
+        Object key = column.get(object);
+        if (key == null) {
+            throw new SQLQueryException("Shard key column " + column.getName() + " of " + object.getClass().getName() + " is null.");
+        }
+        return key;
+    }
+
+    /**
+     * Delete the objects with the given primary keys from the given shard.
+     *
+     * @param shard       The shard.
+     * @param table       The table of the objects.
+     * @param columns     The names of the primary key columns.
+     * @param primaryKeys The values of the primary key columns of the objects.
+     * @throws SQLQueryException If the query failed.
+     */
+    private static void deleteORMObjects(@NotNull DatabaseManager shard, @NotNull DatabaseTable table, @NotNull String[] columns,
+                                         @NotNull List<Object[]> primaryKeys) throws SQLQueryException {
+        Dialect dialect = shard.getDialect();
+        StringBuilder query = new StringBuilder("DELETE FROM ");
+        if (table.database().length() > 0) {
+            query.append(dialect.quoteIdentifier(table.database())).append('.');
+        }
+        query.append(dialect.quoteIdentifier(table.name())).append(" WHERE ");
+        Object[] values = new Object[primaryKeys.size() * columns.length];
+        if (columns.length == 1) {
+            query.append(dialect.quoteIdentifier(columns[0])).append(" IN (");
+            for (int i = 0; i < primaryKeys.size(); i++) {
+                query.append(i == 0 ? "?" : ", ?");
+                values[i] = primaryKeys.get(i)[0];
+            }
+            query.append(')');
+        } else {
+            for (int i = 0; i < primaryKeys.size(); i++) {
+                query.append(i == 0 ? "(" : " OR (");
+                for (int j = 0; j < columns.length; j++) {
+                    query.append(j == 0 ? "" : " AND ").append(dialect.quoteIdentifier(columns[j])).append(" = ?");
+                    values[i * columns.length + j] = primaryKeys.get(i)[j];
+                }
+                query.append(')');
+            }
+        }
+        shard.executeUpdate(PreparedQuery.of(query.toString(), table.name()), values);
+    }
+
+    /**
+     * Wait for all the given futures and get their results. If any of them fails, its
+     * exception is thrown after all of them completed.
+     *
+     * @param futures The futures.
+     * @return The results, in the order of the futures.
+     * @throws SQLQueryException If any of the futures failed.
+     */
+    @NotNull
+    private static <T> List<T> joinAll(@NotNull List<CompletableFuture<T>> futures) throws SQLQueryException {
+        List<T> results = new ArrayList<>(futures.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException
+                        ? (RuntimeException) e.getCause()
+                        : new SQLQueryException("Failed to execute query.", e.getCause());
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * Check whether the merged results of all shards can be ordered by a column of the given type
+     * in Java, in the same order the databases use. This is only the case for numbers and points in time.
+     *
+     * @param type The type of the field of the column.
+     * @return True if the results can be ordered by the column, false otherwise.
+     */
+    private static boolean isMergeable(@NotNull Class<?> type) {
+        if (type.isPrimitive()) {
+            return type != boolean.class && type != char.class;
+        }
+        return Comparable.class.isAssignableFrom(type)
+                && (Number.class.isAssignableFrom(type) || Date.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(@NotNull String column, @Nullable Object a, @Nullable Object b) throws SQLQueryException {
+        if (a == null || b == null) {
+            // Databases order null values differently, so the shards might have cut their results differently.
+            throw new SQLQueryException("Results of all shards cannot be ordered by null values of " + column + ".");
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link ShardedDatabaseManager} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link ShardedDatabaseManager} class. This class
+     * is used to create a new {@link ShardedDatabaseManager} instance.
+     *
+     * @author Tomas Plansky
+     * @see ShardedDatabaseManager
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The shards by their names.
+         */
+        private final Map<String, DatabaseManager> shards = new LinkedHashMap<>();
+        /**
+         * The weights of the shards, that objects are assigned to, by their names.
+         */
+        private final Map<String, Integer> weights = new LinkedHashMap<>();
+        /**
+         * The shard key columns of the classes, overriding {@link DatabaseTable#shardKey()}.
+         */
+        private final Map<Class<?>, String> shardKeys = new HashMap<>();
+        /**
+         * The number of points on the ring per unit of weight of a shard.
+         *
+         * @see ShardMap.Builder#setVirtualNodes(int)
+         */
+        private int virtualNodes = 160;
+
+        /**
+         * Add a shard with the weight 1.
+         *
+         * @param name    The name of the shard. It decides which objects belong to the shard,
+         *                so it must not change when shards are added or removed.
+         * @param manager The manager of the database of the shard.
+         * @return Builder instance.
+         */
+        @Contract("_, _ -> this")
+        public Builder addShard(@NonNull String name, @NonNull DatabaseManager manager) {
+            return addShard(name, manager, 1);
+        }
+
+        /**
+         * Add a shard with the given weight. A shard with the weight 2 receives twice as many
+         * objects as a shard with the weight 1.
+         *
+         * @param name    The name of the shard. It decides which objects belong to the shard,
+         *                so it must not change when shards are added or removed.
+         * @param manager The manager of the database of the shard.
+         * @param weight  The weight of the shard.
+         * @return Builder instance.
+         */
+        @Contract("_, _, _ -> this")
+        public Builder addShard(@NonNull String name, @NonNull DatabaseManager manager, int weight) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("Shard weight must be positive.");
+            }
+            shards.put(name, manager);
+            weights.put(name, weight);
+            return this;
+        }
+
+        /**
+         * Add a shard, that is being removed. No objects belong to it, but it is queried when
+         * loading objects from all shards, and {@link ShardedDatabaseManager#rebalanceORMObjects(Class)} moves its
+         * objects to the other shards.
+         *
+         * @param name    The name of the shard.
+         * @param manager The manager of the database of the shard.
+         * @return Builder instance.
+         */
+        @Contract("_, _ -> this")
+        public Builder addDrainingShard(@NonNull String name, @NonNull DatabaseManager manager) {
+            shards.put(name, manager);
+            weights.remove(name);
+            return this;
+        }
+
+        /**
+         * Set the shard key column of the given class, overriding {@link DatabaseTable#shardKey()}.
+         *
+         * @param clazz  The class.
+         * @param column The name of the shard key column.
+         * @return Builder instance.
+         */
+        @Contract("_, _ -> this")
+        public Builder setShardKey(@NonNull Class<?> clazz, @NonNull String column) {
+            shardKeys.put(clazz, column);
+            return this;
+        }
+
+        /**
+         * Build the {@link ShardedDatabaseManager} instance.
+         *
+         * @return The {@link ShardedDatabaseManager} instance.
+         * @throws IllegalArgumentException If no shard was added.
+         */
+        @NotNull
+        public ShardedDatabaseManager build() {
+            return new ShardedDatabaseManager(this);
+        }
+
+    }
+
+}
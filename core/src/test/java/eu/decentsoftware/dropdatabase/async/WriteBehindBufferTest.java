@@ -0,0 +1,78 @@
+package eu.decentsoftware.dropdatabase.async;
+
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class WriteBehindBufferTest {
+
+    private List<Object> written;
+    private WriteBehindBuffer buffer;
+
+    @Before
+    public void setUp() {
+        written = new ArrayList<>();
+        buffer = new WriteBehindBuffer(WriteBehindSettings.builder().setFlushInterval(60_000L).build(), written::addAll);
+    }
+
+    @After
+    public void tearDown() {
+        buffer.close();
+    }
+
+    @Test
+    public void objectsWithoutGeneratedKeysAreNotCoalesced() {
+        for (int i = 0; i < 5; i++) {
+            buffer.add(new User(0, "user-" + i));
+        }
+        assertEquals(5, buffer.size());
+
+        buffer.flush();
+        assertEquals(5, written.size());
+    }
+
+    @Test
+    public void sameObjectWithoutGeneratedKeyIsCoalesced() {
+        User user = new User(0, "user");
+        buffer.add(user);
+        buffer.add(user);
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    public void objectsWithSameKeyAreCoalesced() {
+        buffer.add(new User(1, "old"));
+        User latest = new User(1, "new");
+        buffer.add(latest);
+        buffer.add(new User(2, "other"));
+        assertEquals(2, buffer.size());
+
+        buffer.flush();
+        assertEquals(2, written.size());
+        assertSame(latest, written.get(0));
+    }
+
+    @DatabaseTable(name = "users", database = "")
+    public static class User {
+
+        @DatabaseColumn(name = "id", type = "INTEGER", primaryKey = true, autoIncrement = true)
+        private long id;
+        @DatabaseColumn(name = "name", type = "VARCHAR(32)")
+        private String name;
+
+        public User(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+    }
+
+}
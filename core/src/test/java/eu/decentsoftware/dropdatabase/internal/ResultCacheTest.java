@@ -0,0 +1,59 @@
+package eu.decentsoftware.dropdatabase.internal;
+
+import eu.decentsoftware.dropdatabase.cache.CacheCounters;
+import eu.decentsoftware.dropdatabase.cache.ResultCacheSettings;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ResultCacheTest {
+
+    private static final String TYPE = "type";
+
+    private final ResultCache cache = new ResultCache(ResultCacheSettings.builder().setMaxEntries(3).build(), new CacheCounters());
+
+    @Test
+    public void writesToOtherTablesDoNotPreventCaching() {
+        long version = cache.getVersion("config");
+        cache.invalidate("players");
+        cache.put("SELECT * FROM config", null, TYPE, "config", "value", version);
+        assertEquals("value", cache.get("SELECT * FROM config", null, TYPE));
+    }
+
+    @Test
+    public void writesToTheSameTablePreventCaching() {
+        long version = cache.getVersion("config");
+        cache.invalidate("CONFIG");
+        cache.put("SELECT * FROM config", null, TYPE, "config", "stale", version);
+        assertTrue(ResultCache.isMiss(cache.get("SELECT * FROM config", null, TYPE)));
+    }
+
+    @Test
+    public void invalidationRemovesResultsOfTheTableAndOfUnknownTables() {
+        cache.put("SELECT * FROM config", null, TYPE, "config", "config", cache.getVersion("config"));
+        cache.put("SELECT * FROM players", null, TYPE, "players", "players", cache.getVersion("players"));
+        cache.put("SELECT 1", null, TYPE, null, "unknown", cache.getVersion(null));
+
+        cache.invalidate("players");
+        assertEquals(1, cache.size());
+        assertEquals("config", cache.get("SELECT * FROM config", null, TYPE));
+
+        cache.invalidate(null);
+        assertEquals(0, cache.size());
+        assertTrue(cache.getVersion("config") != 0);
+    }
+
+    @Test
+    public void evictedResultsAreRemovedFromTheIndex() {
+        for (int i = 0; i < 4; i++) {
+            cache.put("SELECT " + i, new Object[]{i}, TYPE, "players", i, cache.getVersion("players"));
+        }
+        assertEquals(3, cache.size());
+        assertTrue(ResultCache.isMiss(cache.get("SELECT 0", new Object[]{0}, TYPE)));
+
+        cache.invalidate("players");
+        assertEquals(0, cache.size());
+    }
+
+}
@@ -0,0 +1,64 @@
+package eu.decentsoftware.dropdatabase.internal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SnapshotTrackerTest {
+
+    private static final int[] PRIMARY_KEY = {0};
+
+    private final SnapshotTracker tracker = new SnapshotTracker();
+
+    @Test
+    public void untrackedObjectHasNoChangedColumns() {
+        Object object = new Object();
+        assertFalse(tracker.isTracked(object));
+        assertNull(tracker.getChangedColumns(object, new Object[]{1, "name"}, PRIMARY_KEY));
+    }
+
+    @Test
+    public void unchangedObjectHasNoChangedColumns() {
+        Object object = new Object();
+        tracker.track(object, new Object[]{1, "name", 10});
+        assertTrue(tracker.isTracked(object));
+        assertEquals(0, tracker.getChangedColumns(object, new Object[]{1, "name", 10}, PRIMARY_KEY).length);
+    }
+
+    @Test
+    public void changedColumnsAreReturned() {
+        Object object = new Object();
+        tracker.track(object, new Object[]{1, "name", 10, null});
+        assertArrayEquals(new int[]{1, 3}, tracker.getChangedColumns(object, new Object[]{1, "other", 10, 5L}, PRIMARY_KEY));
+    }
+
+    @Test
+    public void changedPrimaryKeyRequiresFullSave() {
+        Object object = new Object();
+        tracker.track(object, new Object[]{1, "name"});
+        assertNull(tracker.getChangedColumns(object, new Object[]{2, "name"}, PRIMARY_KEY));
+    }
+
+    @Test
+    public void changedArrayContentIsDetected() {
+        Object object = new Object();
+        byte[] data = {1, 2, 3};
+        tracker.track(object, new Object[]{1, data});
+        data[0] = 4;
+        assertArrayEquals(new int[]{1}, tracker.getChangedColumns(object, new Object[]{1, data}, PRIMARY_KEY));
+    }
+
+    @Test
+    public void objectsAreIdentifiedByIdentity() {
+        String first = new String("object");
+        String second = new String("object");
+        tracker.track(first, new Object[]{1});
+        assertTrue(tracker.isTracked(first));
+        assertFalse(tracker.isTracked(second));
+    }
+
+}
@@ -0,0 +1,116 @@
+package eu.decentsoftware.dropdatabase.query;
+
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KeysetPaginationTest {
+
+    private final KeysetPagination pagination = KeysetPagination.builder()
+            .setColumns("name", "id")
+            .setPageSize(2)
+            .build();
+
+    @Test
+    public void lastPageHasNoToken() {
+        Page<User> page = pagination.toPage(User.class, Arrays.asList(new User(1, "a"), new User(2, "b")));
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextToken());
+    }
+
+    @Test
+    public void tokenSelectsRowsAfterLastItem() {
+        Page<User> page = pagination.toPage(User.class, Arrays.asList(new User(1, "a"), new User(7, "b"), new User(3, "c")));
+        assertEquals(2, page.getItems().size());
+
+        SelectQuery.Builder builder = SelectQuery.builder();
+        pagination.apply(page.getNextToken(), (b) -> b.setWhere("age > ?").setValues(18)).accept(builder);
+        assertEquals("(age > ?) AND `name` >= ? AND (`name` > ? OR (`name` = ? AND `id` > ?))", builder.getWhere());
+        assertArrayEquals(new Object[]{18, "b", "b", "b", 7}, builder.getValues());
+        assertArrayEquals(new String[]{"name", "id"}, builder.getOrderByColumns());
+        assertEquals(3, builder.getLimit());
+    }
+
+    @Test
+    public void descendingSingleColumnCondition() {
+        KeysetPagination descending = KeysetPagination.builder()
+                .setColumns("id")
+                .setDescending(true)
+                .setPageSize(1)
+                .build();
+        Page<User> page = descending.toPage(User.class, Arrays.asList(new User(9, "a"), new User(8, "b")));
+
+        SelectQuery.Builder builder = SelectQuery.builder();
+        descending.apply(page.getNextToken(), (b) -> {
+        }).accept(builder);
+        assertEquals("`id` < ?", builder.getWhere());
+        assertArrayEquals(new Object[]{9}, builder.getValues());
+    }
+
+    @Test
+    public void tokenOfOtherColumnsIsRejected() {
+        KeysetPagination other = KeysetPagination.builder().setColumns("id").setPageSize(1).build();
+        String token = other.toPage(User.class, Arrays.asList(new User(1, "a"), new User(2, "b"))).getNextToken();
+        assertInvalid(token);
+    }
+
+    @Test
+    public void invalidStringLengthsAreRejected() {
+        assertInvalid(token(-1));
+        assertInvalid(token(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void malformedTokensAreRejected() {
+        assertInvalid("not a token");
+        assertInvalid("");
+    }
+
+    /**
+     * Create a token with a string of the given length, but without its content.
+     */
+    private static String token(int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(7)
+                .put((byte) 1)
+                .put((byte) 2)
+                .put((byte) 'S')
+                .putInt(length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private void assertInvalid(String token) {
+        try {
+            pagination.apply(token, (builder) -> {
+            });
+            fail("Token was accepted: " + token);
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Invalid token"));
+        }
+    }
+
+    @DatabaseTable(name = "users", database = "")
+    public static class User {
+
+        @DatabaseColumn(name = "id", type = "INTEGER", primaryKey = true)
+        private int id;
+        @DatabaseColumn(name = "name", type = "VARCHAR(32)")
+        private String name;
+
+        public User(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package eu.decentsoftware.dropdatabase.shard;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShardMapTest {
+
+    @Test
+    public void keysAfterTheLastPointWrapAroundToTheFirst() {
+        ShardMap map = ShardMap.builder().addShard("a").addShard("b").setVirtualNodes(1).build();
+        boolean aFirst = Long.compareUnsigned(hash("a#0"), hash("b#0")) < 0;
+        long firstPoint = aFirst ? hash("a#0") : hash("b#0");
+        long lastPoint = aFirst ? hash("b#0") : hash("a#0");
+
+        int wrapped = 0;
+        for (int key = 0; key < 1000; key++) {
+            long hash = hash(String.valueOf(key));
+            if (Long.compareUnsigned(hash, firstPoint) <= 0 || Long.compareUnsigned(hash, lastPoint) > 0) {
+                assertEquals(aFirst ? "a" : "b", map.locate(key));
+                wrapped += Long.compareUnsigned(hash, lastPoint) > 0 ? 1 : 0;
+            } else {
+                assertEquals(aFirst ? "b" : "a", map.locate(key));
+            }
+        }
+        assertTrue(wrapped > 0);
+    }
+
+    @Test
+    public void keysAreSpreadByWeight() {
+        ShardMap map = ShardMap.builder().addShard("light").addShard("heavy", 3).build();
+        Map<String, Integer> counts = count(map, 20_000);
+        double heavy = counts.get("heavy") / 20_000.0;
+        assertTrue("heavy shard owns " + heavy, heavy > 0.70 && heavy < 0.80);
+    }
+
+    @Test
+    public void keysOfEqualTypesAndValuesBelongToTheSameShard() {
+        ShardMap map = ShardMap.builder().addShard("a").addShard("b").addShard("c").build();
+        for (int key = 0; key < 100; key++) {
+            assertEquals(map.locate(key), map.locate((long) key));
+            assertEquals(map.locate(key), map.locate(String.valueOf(key)));
+        }
+    }
+
+    @Test
+    public void removingAShardOnlyMovesItsKeys() {
+        ShardMap map = ShardMap.builder().addShard("a").addShard("b").addShard("c").build();
+        ShardMap removed = map.toBuilder().removeShard("c").build();
+        for (int key = 0; key < 10_000; key++) {
+            String shard = map.locate(key);
+            if (!shard.equals("c")) {
+                assertEquals(shard, removed.locate(key));
+            }
+        }
+    }
+
+    @Test
+    public void theOrderOfShardsDoesNotMatter() {
+        ShardMap map = ShardMap.builder().addShard("a").addShard("b").build();
+        ShardMap reversed = ShardMap.builder().addShard("b").addShard("a").build();
+        for (int key = 0; key < 1000; key++) {
+            assertEquals(map.locate(key), reversed.locate(key));
+        }
+    }
+
+    private static Map<String, Integer> count(ShardMap map, int keys) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int key = 0; key < keys; key++) {
+            counts.merge(map.locate(key), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * The hash of ShardMap, which must never change.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
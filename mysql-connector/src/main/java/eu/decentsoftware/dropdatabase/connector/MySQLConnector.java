@@ -4,11 +4,13 @@ import eu.decentsoftware.dropdatabase.Credentials;
 import eu.decentsoftware.dropdatabase.exception.SQLDriverException;
 import lombok.NonNull;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 /**
@@ -92,4 +94,13 @@ public class MySQLConnector implements Connector {
 		}
 	}
 
+	/**
+	 * MySQL Connector/J loads the whole result into memory, unless the fetch size is
+	 * {@link Integer#MIN_VALUE}. In that case, the rows are streamed one by one.
+	 */
+	@Override
+	public void configureStreaming(@NotNull Connection connection, @NotNull Statement statement, int fetchSize) throws SQLException {
+		statement.setFetchSize(Integer.MIN_VALUE);
+	}
+
 }
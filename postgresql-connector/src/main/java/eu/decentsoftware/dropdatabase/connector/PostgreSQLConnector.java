@@ -1,14 +1,19 @@
 package eu.decentsoftware.dropdatabase.connector;
 
 import eu.decentsoftware.dropdatabase.Credentials;
+import eu.decentsoftware.dropdatabase.bulk.BulkLoader;
+import eu.decentsoftware.dropdatabase.dialect.Dialect;
+import eu.decentsoftware.dropdatabase.dialect.OnConflictDialect;
 import eu.decentsoftware.dropdatabase.exception.SQLDriverException;
 import lombok.NonNull;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 /**
@@ -96,4 +101,31 @@ public class PostgreSQLConnector implements Connector {
 		}
 	}
 
+	/**
+	 * The PostgreSQL driver only fetches the result using a cursor, if auto-commit is disabled.
+	 * Otherwise, it loads the whole result into memory regardless of the fetch size.
+	 */
+	@Override
+	public void configureStreaming(@NotNull Connection connection, @NotNull Statement statement, int fetchSize) throws SQLException {
+		connection.setAutoCommit(false);
+		statement.setFetchSize(fetchSize);
+	}
+
+	/**
+	 * Rows are loaded using the COPY command, which is much faster than INSERT queries.
+	 *
+	 * @see PostgreSQLCopyLoader
+	 */
+	@NotNull
+	@Override
+	public BulkLoader getBulkLoader() {
+		return PostgreSQLCopyLoader.INSTANCE;
+	}
+
+	@NotNull
+	@Override
+	public Dialect getDialect() {
+		return OnConflictDialect.INSTANCE;
+	}
+
 }
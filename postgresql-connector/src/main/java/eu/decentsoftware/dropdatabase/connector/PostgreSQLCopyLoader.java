@@ -0,0 +1,279 @@
+package eu.decentsoftware.dropdatabase.connector;
+
+import eu.decentsoftware.dropdatabase.bulk.BulkLoadSettings;
+import eu.decentsoftware.dropdatabase.bulk.BulkLoader;
+import org.jetbrains.annotations.NotNull;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * This class is an implementation of {@link BulkLoader}, which loads rows into a PostgreSQL table
+ * using the COPY command. The rows are streamed to the database through the {@code CopyManager}
+ * of the driver, in chunks of {@link BulkLoadSettings#getBufferSize()} bytes.
+ * <p>
+ * In the {@link BulkLoadSettings.Format#TEXT} format, values are converted to text using their
+ * {@link Object#toString()} method, except for booleans and byte arrays. In the
+ * {@link BulkLoadSettings.Format#BINARY} format, the following types are supported, and must
+ * match the types of the columns exactly:
+ * <ul>
+ *     <li>{@link Boolean} - boolean</li>
+ *     <li>{@link Short}, {@link Integer}, {@link Long} - smallint, integer, bigint</li>
+ *     <li>{@link Float}, {@link Double} - real, double precision</li>
+ *     <li>{@link String}, {@link Character} - text, varchar</li>
+ *     <li>{@code byte[]} - bytea</li>
+ *     <li>{@link UUID} - uuid</li>
+ *     <li>{@link LocalDate}, {@link java.sql.Date} - date</li>
+ *     <li>{@link LocalDateTime}, {@link Timestamp} - timestamp</li>
+ *     <li>{@link Instant}, {@link OffsetDateTime} - timestamp with time zone</li>
+ * </ul>
+ * The names of the table and the columns are used as they are, so they must be quoted if needed.
+ *
+ * @author Tomas Plansky
+ * @see PostgreSQLConnector#getBulkLoader()
+ * @since 1.0.0
+ */
+public final class PostgreSQLCopyLoader implements BulkLoader {
+
+	/**
+	 * The shared instance of this loader. The loader has no state.
+	 */
+	public static final PostgreSQLCopyLoader INSTANCE = new PostgreSQLCopyLoader();
+
+	private static final byte[] BINARY_HEADER = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final LocalDateTime EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+	private static final LocalDate EPOCH_DATE = EPOCH.toLocalDate();
+
+	private PostgreSQLCopyLoader() {
+	}
+
+	@Override
+	public long load(@NotNull Connection connection, @NotNull String table, @NotNull String[] columns,
+					 @NotNull Iterator<Object[]> rows, @NotNull BulkLoadSettings settings) throws SQLException {
+		final boolean binary = settings.getFormat() == BulkLoadSettings.Format.BINARY;
+		final String query = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN" + (binary ? " (FORMAT BINARY)" : "");
+		final CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(query);
+		try {
+			final CopyBuffer buffer = new CopyBuffer(copyIn, settings.getBufferSize());
+			final StringBuilder text = new StringBuilder();
+			if (binary) {
+				buffer.write(BINARY_HEADER);
+				// Flags and length of the header extension.
+				buffer.writeInt(0);
+				buffer.writeInt(0);
+			}
+
+			long count = 0;
+			while (rows.hasNext()) {
+				Object[] row = rows.next();
+				if (row.length != columns.length) {
+					throw new SQLException("Row " + count + " has " + row.length + " values, but " + columns.length + " columns are loaded.");
+				}
+				if (binary) {
+					writeBinaryRow(buffer, row);
+				} else {
+					text.setLength(0);
+					appendTextRow(text, row);
+					buffer.write(text.toString().getBytes(StandardCharsets.UTF_8));
+				}
+				count++;
+			}
+
+			if (binary) {
+				// End of the data.
+				buffer.writeShort(-1);
+			}
+			buffer.flush();
+			copyIn.endCopy();
+			return count;
+		} catch (SQLException | RuntimeException e) {
+			if (copyIn.isActive()) {
+				try {
+					copyIn.cancelCopy();
+				} catch (SQLException cancelException) {
+					e.addSuppressed(cancelException);
+				}
+			}
+			throw e;
+		}
+	}
+
+	private static void appendTextRow(@NotNull StringBuilder text, @NotNull Object[] row) {
+		for (int i = 0; i < row.length; i++) {
+			if (i > 0) {
+				text.append('\t');
+			}
+			Object value = row[i];
+			if (value == null) {
+				text.append("\\N");
+			} else if (value instanceof Boolean) {
+				text.append((Boolean) value ? 't' : 'f');
+			} else if (value instanceof byte[]) {
+				// The hex format of bytea, with the backslash escaped for COPY.
+				text.append("\\\\x");
+				for (byte b : (byte[]) value) {
+					text.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+				}
+			} else {
+				appendEscaped(text, value.toString());
+			}
+		}
+		text.append('\n');
+	}
+
+	private static void appendEscaped(@NotNull StringBuilder text, @NotNull String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '\\':
+					text.append("\\\\");
+					break;
+				case '\t':
+					text.append("\\t");
+					break;
+				case '\n':
+					text.append("\\n");
+					break;
+				case '\r':
+					text.append("\\r");
+					break;
+				default:
+					text.append(c);
+			}
+		}
+	}
+
+	private static void writeBinaryRow(@NotNull CopyBuffer buffer, @NotNull Object[] row) throws SQLException {
+		buffer.writeShort(row.length);
+		for (Object value : row) {
+			if (value == null) {
+				buffer.writeInt(-1);
+			} else if (value instanceof Boolean) {
+				buffer.writeInt(1);
+				buffer.writeByte((Boolean) value ? 1 : 0);
+			} else if (value instanceof Short) {
+				buffer.writeInt(2);
+				buffer.writeShort((Short) value);
+			} else if (value instanceof Integer) {
+				buffer.writeInt(4);
+				buffer.writeInt((Integer) value);
+			} else if (value instanceof Long) {
+				buffer.writeInt(8);
+				buffer.writeLong((Long) value);
+			} else if (value instanceof Float) {
+				buffer.writeInt(4);
+				buffer.writeInt(Float.floatToIntBits((Float) value));
+			} else if (value instanceof Double) {
+				buffer.writeInt(8);
+				buffer.writeLong(Double.doubleToLongBits((Double) value));
+			} else if (value instanceof String || value instanceof Character) {
+				byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+				buffer.writeInt(bytes.length);
+				buffer.write(bytes);
+			} else if (value instanceof byte[]) {
+				byte[] bytes = (byte[]) value;
+				buffer.writeInt(bytes.length);
+				buffer.write(bytes);
+			} else if (value instanceof UUID) {
+				buffer.writeInt(16);
+				buffer.writeLong(((UUID) value).getMostSignificantBits());
+				buffer.writeLong(((UUID) value).getLeastSignificantBits());
+			} else if (value instanceof LocalDate || value instanceof java.sql.Date) {
+				LocalDate date = value instanceof LocalDate ? (LocalDate) value : ((java.sql.Date) value).toLocalDate();
+				buffer.writeInt(4);
+				buffer.writeInt((int) ChronoUnit.DAYS.between(EPOCH_DATE, date));
+			} else if (value instanceof LocalDateTime || value instanceof Timestamp) {
+				LocalDateTime dateTime = value instanceof LocalDateTime ? (LocalDateTime) value : ((Timestamp) value).toLocalDateTime();
+				buffer.writeInt(8);
+				buffer.writeLong(ChronoUnit.MICROS.between(EPOCH, dateTime));
+			} else if (value instanceof Instant || value instanceof OffsetDateTime) {
+				Instant instant = value instanceof Instant ? (Instant) value : ((OffsetDateTime) value).toInstant();
+				buffer.writeInt(8);
+				buffer.writeLong(ChronoUnit.MICROS.between(EPOCH.toInstant(ZoneOffset.UTC), instant));
+			} else {
+				throw new SQLException("Type " + value.getClass().getName() + " is not supported by the binary format, use the text format instead.");
+			}
+		}
+	}
+
+	/**
+	 * Buffers the data of a COPY command and sends it to the database in chunks.
+	 */
+	private static final class CopyBuffer {
+
+		private final CopyIn copyIn;
+		private final byte[] buffer;
+		private int size;
+
+		private CopyBuffer(@NotNull CopyIn copyIn, int capacity) {
+			this.copyIn = copyIn;
+			// The numbers are written to the buffer directly, so it must fit the largest one.
+			this.buffer = new byte[Math.max(capacity, 8)];
+		}
+
+		private void write(@NotNull byte[] bytes) throws SQLException {
+			if (size + bytes.length > buffer.length) {
+				flush();
+				if (bytes.length > buffer.length) {
+					// Do not copy large values, send them as they are.
+					copyIn.writeToCopy(bytes, 0, bytes.length);
+					return;
+				}
+			}
+			System.arraycopy(bytes, 0, buffer, size, bytes.length);
+			size += bytes.length;
+		}
+
+		private void writeByte(int value) throws SQLException {
+			ensureCapacity(1);
+			buffer[size++] = (byte) value;
+		}
+
+		private void writeShort(int value) throws SQLException {
+			ensureCapacity(2);
+			buffer[size++] = (byte) (value >>> 8);
+			buffer[size++] = (byte) value;
+		}
+
+		private void writeInt(int value) throws SQLException {
+			ensureCapacity(4);
+			buffer[size++] = (byte) (value >>> 24);
+			buffer[size++] = (byte) (value >>> 16);
+			buffer[size++] = (byte) (value >>> 8);
+			buffer[size++] = (byte) value;
+		}
+
+		private void writeLong(long value) throws SQLException {
+			writeInt((int) (value >>> 32));
+			writeInt((int) value);
+		}
+
+		private void ensureCapacity(int bytes) throws SQLException {
+			if (size + bytes > buffer.length) {
+				flush();
+			}
+		}
+
+		private void flush() throws SQLException {
+			if (size > 0) {
+				copyIn.writeToCopy(buffer, 0, size);
+				size = 0;
+			}
+		}
+
+	}
+
+}
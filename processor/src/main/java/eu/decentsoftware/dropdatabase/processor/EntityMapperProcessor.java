@@ -0,0 +1,423 @@
+package eu.decentsoftware.dropdatabase.processor;
+
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.mapper.EntityMapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This annotation processor generates an {@link EntityMapper} for every class annotated
+ * with {@link DatabaseTable}, so that the {@link eu.decentsoftware.dropdatabase.DatabaseManager}
+ * does not have to access its fields using reflection.
+ * <p>
+ * The generated mapper accesses fields, that are neither private nor final, directly. Other
+ * fields are accessed through constant {@link java.lang.invoke.MethodHandle}s, which the JIT
+ * compiler can inline as well. Private classes and generic classes are skipped, they are
+ * mapped using reflection.
+ * <p>
+ * To use the processor, add the {@code processor} module as a {@code provided} dependency.
+ *
+ * @author Tomas Plansky
+ * @since 1.0.0
+ */
+public final class EntityMapperProcessor extends AbstractProcessor {
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(DatabaseTable.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(DatabaseTable.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!isAccessible(type)) {
+                note(type, "is private, it will be mapped using reflection.");
+                continue;
+            }
+            if (!type.getTypeParameters().isEmpty()) {
+                note(type, "is generic, it will be mapped using reflection.");
+                continue;
+            }
+            List<VariableElement> fields = new ArrayList<>();
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC) && field.getAnnotation(DatabaseColumn.class) != null) {
+                    fields.add(field);
+                }
+            }
+            if (fields.isEmpty()) {
+                continue;
+            }
+            try {
+                generate(type, fields);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to generate the mapper of " + type.getQualifiedName() + ": " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type, List<VariableElement> fields) throws IOException {
+        final String packageName = getPackage(type).getQualifiedName().toString();
+        final String typeName = type.getQualifiedName().toString();
+        final String binaryName = getBinaryName(type);
+        final String mapperName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+                .replace('$', '_') + EntityMapper.SUFFIX;
+
+        final List<Column> columns = new ArrayList<>();
+        final List<Column> primaryKey = new ArrayList<>();
+        for (VariableElement field : fields) {
+            Column column = new Column(columns.size(), field);
+            columns.add(column);
+            if (column.annotation.primaryKey()) {
+                primaryKey.add(column);
+            }
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("/**\n * Generated by {@link ").append(EntityMapperProcessor.class.getName())
+                .append("}, do not edit.\n */\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(mapperName).append(" implements ")
+                .append(EntityMapper.class.getName()).append("<").append(typeName).append("> {\n\n");
+
+        // Method handles of the fields, that cannot be accessed directly.
+        boolean handles = false;
+        for (Column column : columns) {
+            if (!column.direct) {
+                sb.append("    private static final java.lang.invoke.MethodHandle GETTER_").append(column.index).append(";\n");
+                sb.append("    private static final java.lang.invoke.MethodHandle SETTER_").append(column.index).append(";\n");
+                handles = true;
+            }
+        }
+        sb.append("    private static final String[] COLUMN_NAMES = {");
+        for (Column column : columns) {
+            sb.append(column.index == 0 ? "" : ", ").append(literal(column.annotation.name()));
+        }
+        sb.append("};\n");
+        if (handles) {
+            sb.append("\n    static {\n");
+            sb.append("        try {\n");
+            sb.append("            final java.lang.invoke.MethodHandles.Lookup lookup = java.lang.invoke.MethodHandles.lookup();\n");
+            sb.append("            java.lang.reflect.Field field;\n");
+            for (Column column : columns) {
+                if (!column.direct) {
+                    sb.append("            field = ").append(typeName).append(".class.getDeclaredField(")
+                            .append(literal(column.fieldName)).append(");\n");
+                    sb.append("            field.setAccessible(true);\n");
+                    sb.append("            GETTER_").append(column.index).append(" = lookup.unreflectGetter(field);\n");
+                    sb.append("            SETTER_").append(column.index).append(" = lookup.unreflectSetter(field);\n");
+                }
+            }
+            sb.append("        } catch (ReflectiveOperationException e) {\n");
+            sb.append("            throw new ExceptionInInitializerError(e);\n");
+            sb.append("        }\n");
+            sb.append("    }\n");
+        }
+
+        // getType, getColumnNames
+        sb.append("\n    @Override\n");
+        sb.append("    public Class<").append(typeName).append("> getType() {\n");
+        sb.append("        return ").append(typeName).append(".class;\n");
+        sb.append("    }\n");
+        sb.append("\n    @Override\n");
+        sb.append("    public String[] getColumnNames() {\n");
+        sb.append("        return COLUMN_NAMES.clone();\n");
+        sb.append("    }\n");
+
+        // read
+        sb.append("\n    @Override\n");
+        sb.append("    public void read(java.sql.ResultSet rs, int[] indices, ").append(typeName)
+                .append(" object) throws java.sql.SQLException, eu.decentsoftware.dropdatabase.exception.SQLQueryException {\n");
+        sb.append("        try {\n");
+        for (Column column : columns) {
+            column.appendRead(sb, "            ", "indices[" + column.index + "]");
+        }
+        sb.append("        } catch (java.sql.SQLException e) {\n");
+        sb.append("            throw e;\n");
+        appendCatchThrowable(sb, "Failed to write the fields of " + typeName + ".");
+        sb.append("    }\n");
+
+        // write
+        sb.append("\n    @Override\n");
+        sb.append("    public void write(").append(typeName)
+                .append(" object, Object[] values) throws eu.decentsoftware.dropdatabase.exception.SQLQueryException {\n");
+        sb.append("        try {\n");
+        for (Column column : columns) {
+            sb.append("            values[").append(column.index).append("] = ").append(column.getter()).append(";\n");
+        }
+        appendCatchThrowable(sb, "Failed to read the fields of " + typeName + ".");
+        sb.append("    }\n");
+
+        // getPrimaryKey
+        sb.append("\n    @Override\n");
+        sb.append("    public Object getPrimaryKey(").append(typeName)
+                .append(" object) throws eu.decentsoftware.dropdatabase.exception.SQLQueryException {\n");
+        if (primaryKey.isEmpty()) {
+            sb.append("        throw new eu.decentsoftware.dropdatabase.exception.SQLQueryException(")
+                    .append(literal("Class " + getBinaryName(type) + " has no primary key column.")).append(");\n");
+        } else {
+            sb.append("        try {\n");
+            if (primaryKey.size() == 1) {
+                sb.append("            return ").append(primaryKey.get(0).getter()).append(";\n");
+            } else {
+                sb.append("            return java.util.Arrays.asList(");
+                for (int i = 0; i < primaryKey.size(); i++) {
+                    sb.append(i == 0 ? "" : ", ").append("(Object) ").append(primaryKey.get(i).getter());
+                }
+                sb.append(");\n");
+            }
+            appendCatchThrowable(sb, "Failed to read the fields of " + typeName + ".");
+        }
+        sb.append("    }\n");
+
+        // getColumnDefinitions
+        sb.append("\n    @Override\n");
+        sb.append("    public eu.decentsoftware.dropdatabase.query.CreateTableQuery.Column[] getColumnDefinitions() {\n");
+        sb.append("        return new eu.decentsoftware.dropdatabase.query.CreateTableQuery.Column[]{\n");
+        for (Column column : columns) {
+            DatabaseColumn annotation = column.annotation;
+            sb.append("                new eu.decentsoftware.dropdatabase.query.CreateTableQuery.Column(")
+                    .append(literal(annotation.name())).append(", ")
+                    .append(literal(annotation.type())).append(", ")
+                    .append(annotation.primaryKey()).append(", ")
+                    .append(annotation.autoIncrement()).append(", ")
+                    .append(annotation.notNull()).append(", ")
+                    .append(annotation.unique()).append(", false),\n");
+        }
+        sb.append("        };\n");
+        sb.append("    }\n");
+
+        if (columns.stream().anyMatch((column) -> column.typeName.equals("char"))) {
+            sb.append("\n    private static char readChar(java.sql.ResultSet rs, int index) throws java.sql.SQLException {\n");
+            sb.append("        final String value = rs.getString(index);\n");
+            sb.append("        return value == null || value.isEmpty() ? '\\0' : value.charAt(0);\n");
+            sb.append("    }\n");
+        }
+        sb.append("\n}\n");
+
+        final String fileName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(fileName, type).openWriter()) {
+            writer.write(sb.toString());
+        }
+    }
+
+    private static void appendCatchThrowable(StringBuilder sb, String message) {
+        sb.append("        } catch (Throwable e) {\n");
+        sb.append("            throw new eu.decentsoftware.dropdatabase.exception.SQLQueryException(")
+                .append(literal(message)).append(", e);\n");
+        sb.append("        }\n");
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                ((TypeElement) element).getQualifiedName() + " " + message, element);
+    }
+
+    /**
+     * Check whether the generated mapper, which is in the same package, can access the given class.
+     */
+    private static boolean isAccessible(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        // Local and anonymous classes have no qualified name.
+        return type.getNestingKind().isNested() || type.getEnclosingElement() instanceof PackageElement;
+    }
+
+    private static PackageElement getPackage(Element element) {
+        while (!(element instanceof PackageElement)) {
+            element = element.getEnclosingElement();
+        }
+        return (PackageElement) element;
+    }
+
+    /**
+     * Get the binary name of the given class, e.g. {@code com.example.Outer$Inner}.
+     */
+    private static String getBinaryName(TypeElement type) {
+        Element enclosing = type.getEnclosingElement();
+        if (enclosing instanceof TypeElement) {
+            return getBinaryName((TypeElement) enclosing) + "$" + type.getSimpleName();
+        }
+        String packageName = ((PackageElement) enclosing).getQualifiedName().toString();
+        return packageName.isEmpty() ? type.getSimpleName().toString() : packageName + "." + type.getSimpleName();
+    }
+
+    private static String literal(String value) {
+        final StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                    break;
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * A mapped field of the processed class.
+     */
+    private final class Column {
+
+        private final int index;
+        private final DatabaseColumn annotation;
+        private final String fieldName;
+        /**
+         * The erased type of the field, as written in source code.
+         */
+        private final String typeName;
+        private final boolean primitive;
+        /**
+         * Whether the field can be accessed directly, otherwise it is accessed using method handles.
+         */
+        private final boolean direct;
+
+        private Column(int index, VariableElement field) {
+            this.index = index;
+            this.annotation = field.getAnnotation(DatabaseColumn.class);
+            this.fieldName = field.getSimpleName().toString();
+            this.typeName = processingEnv.getTypeUtils().erasure(field.asType()).toString();
+            this.primitive = field.asType().getKind().isPrimitive();
+            this.direct = !field.getModifiers().contains(Modifier.PRIVATE) && !field.getModifiers().contains(Modifier.FINAL)
+                    && field.asType().getKind() != TypeKind.ERROR;
+        }
+
+        private String getter() {
+            if (direct) {
+                return "object." + fieldName;
+            }
+            return "(" + typeName + ") GETTER_" + index + ".invokeExact(object)";
+        }
+
+        private void appendRead(StringBuilder sb, String indent, String index) {
+            final String value = "v" + this.index;
+            final String wrapped = unbox(typeName);
+            if (wrapped != null) {
+                // Primitive getters return 0 for null values, check wasNull for the wrapper types.
+                final String raw = "r" + this.index;
+                sb.append(indent).append("final ").append(wrapped).append(" ").append(raw).append(" = rs.")
+                        .append(getPrimitiveGetter(wrapped)).append("(").append(index).append(");\n");
+                sb.append(indent).append("final ").append(typeName).append(" ").append(value)
+                        .append(" = rs.wasNull() ? null : ").append(typeName).append(".valueOf(").append(raw).append(");\n");
+            } else {
+                sb.append(indent).append("final ").append(typeName).append(" ").append(value).append(" = ");
+                if (typeName.equals("char")) {
+                    sb.append("readChar(rs, ").append(index).append(");\n");
+                } else if (primitive) {
+                    sb.append("rs.").append(getPrimitiveGetter(typeName)).append("(").append(index).append(");\n");
+                } else if (typeName.equals("java.lang.String")) {
+                    sb.append("rs.getString(").append(index).append(");\n");
+                } else if (typeName.equals("byte[]")) {
+                    sb.append("rs.getBytes(").append(index).append(");\n");
+                } else {
+                    sb.append("(").append(typeName).append(") ").append(EntityMapper.class.getName())
+                            .append(".readObject(rs, ").append(index).append(", ").append(typeName).append(".class);\n");
+                }
+            }
+
+            if (direct) {
+                sb.append(indent).append("object.").append(fieldName).append(" = ").append(value).append(";\n");
+            } else {
+                sb.append(indent).append("SETTER_").append(this.index).append(".invokeExact(object, ").append(value).append(");\n");
+            }
+        }
+
+    }
+
+    private static String unbox(String typeName) {
+        switch (typeName) {
+            case "java.lang.Integer":
+                return "int";
+            case "java.lang.Long":
+                return "long";
+            case "java.lang.Double":
+                return "double";
+            case "java.lang.Float":
+                return "float";
+            case "java.lang.Boolean":
+                return "boolean";
+            case "java.lang.Short":
+                return "short";
+            case "java.lang.Byte":
+                return "byte";
+            default:
+                return null;
+        }
+    }
+
+    private static String getPrimitiveGetter(String typeName) {
+        switch (typeName) {
+            case "int":
+                return "getInt";
+            case "long":
+                return "getLong";
+            case "double":
+                return "getDouble";
+            case "float":
+                return "getFloat";
+            case "boolean":
+                return "getBoolean";
+            case "short":
+                return "getShort";
+            case "byte":
+                return "getByte";
+            default:
+                return null;
+        }
+    }
+
+}
@@ -1,18 +1,40 @@
 package eu.decentsoftware.dropdatabase.connector;
 
+import eu.decentsoftware.dropdatabase.dialect.Dialect;
+import eu.decentsoftware.dropdatabase.dialect.OnConflictDialect;
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
 import eu.decentsoftware.dropdatabase.exception.SQLDriverException;
+import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
+import eu.decentsoftware.dropdatabase.pool.ConnectionPool;
+import eu.decentsoftware.dropdatabase.pool.ConnectionProvider;
+import eu.decentsoftware.dropdatabase.pool.PoolSettings;
+import eu.decentsoftware.dropdatabase.pool.ReadWriteConnectionProvider;
+import eu.decentsoftware.dropdatabase.pool.ReentrantConnectionProvider;
+import lombok.Getter;
 import lombok.NonNull;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.UUID;
 
 /**
  * This class is an implementation of {@link Connector}, which is used to connect to a SQLite database.
  * <p>
  * SQLite is a lightweight database, which is used to store data in a file. This connector is used to
  * connect to a SQLite database. The only thing you need to provide is the path to the database file.
+ * <p>
+ * If the connector is created with {@link SQLiteSettings}, the connections are tuned for a high
+ * throughput, by default using the WAL journal mode. The {@link eu.decentsoftware.dropdatabase.DatabaseManager}
+ * then writes using a single dedicated connection, since SQLite only allows one writer at a time
+ * anyway, and reads using a small pool of read-only connections, that run concurrently with the writer.
+ * The database can also be kept in memory and persisted to the file periodically, see {@link SQLiteSnapshotSettings}.
+ * <p>
+ * All connections to an in-memory database ({@code :memory:}) of one connector share the same database,
+ * as long as at least one of them is open.
  *
  * @author Tomas Plansky
  * @see Connector
@@ -20,6 +42,11 @@ import java.sql.SQLException;
  */
 public class SQLiteConnector implements Connector {
 
+    /**
+     * The path, that opens an in-memory database.
+     */
+    public static final String MEMORY = ":memory:";
+
     /**
      * The URL to the database.
      *
@@ -27,6 +54,23 @@ public class SQLiteConnector implements Connector {
      * so we don't have to create it every time we connect.
      */
     private final @NonNull String url;
+    /**
+     * Whether the database is kept in memory.
+     */
+    private final boolean inMemory;
+    /**
+     * The settings of the connections, or null if the connections use the defaults of SQLite.
+     */
+    @Getter
+    private final @Nullable SQLiteSettings settings;
+    /**
+     * The path to the snapshot file, if the database is kept in memory and persisted to it.
+     */
+    private final @Nullable String snapshotFile;
+    /**
+     * The provider, that writes the snapshots, once it has been created by the manager.
+     */
+    private volatile @Nullable SQLiteSnapshotProvider snapshotProvider;
 
     /**
      * Create a new instance of {@link SQLiteConnector}. This connector
@@ -38,24 +82,147 @@ public class SQLiteConnector implements Connector {
      */
     @Contract(pure = true)
     public SQLiteConnector(@NonNull String filePath) {
-        this.url = String.format(
-                "jdbc:sqlite:%s",
-                filePath
-        );
+        this(filePath, null);
+    }
+
+    /**
+     * Create a new instance of {@link SQLiteConnector} with the given settings. The settings
+     * are applied to every connection, see {@link SQLiteSettings}.
+     * <p>
+     * If {@link SQLiteSettings#getSnapshot()} is set, the database is kept in memory and the
+     * given file is its snapshot.
+     *
+     * @param filePath The path to the database file.
+     * @param settings The settings of the connections, or null to use the defaults of SQLite.
+     * @implNote The path should be absolute.
+     */
+    @Contract(pure = true)
+    public SQLiteConnector(@NonNull String filePath, @Nullable SQLiteSettings settings) {
+        this.settings = settings;
+        this.snapshotFile = settings != null && settings.getSnapshot() != null ? filePath : null;
+        this.inMemory = snapshotFile != null || MEMORY.equals(filePath);
+        if (inMemory) {
+            // A named in-memory database in the shared cache is shared by all connections, that open it.
+            this.url = String.format(
+                    "jdbc:sqlite:file:dropdatabase-%s?mode=memory&cache=shared",
+                    UUID.randomUUID()
+            );
+        } else {
+            this.url = String.format(
+                    "jdbc:sqlite:%s",
+                    filePath
+            );
+        }
     }
 
     @Override
     public Connection connect() throws SQLException, SQLDriverException {
+        return connect(false);
+    }
+
+    /**
+     * Connect to the database.
+     *
+     * @param readOnly Whether the connection is only used to read data.
+     * @return The connection to the database.
+     * @throws SQLException       If the connection failed.
+     * @throws SQLDriverException If the driver is missing. (This should not happen.)
+     */
+    private Connection connect(boolean readOnly) throws SQLException, SQLDriverException {
         try {
             // Load the driver.
             Class.forName("org.sqlite.JDBC");
 
             // Connect to the database.
-            return DriverManager.getConnection(url);
+            if (settings == null) {
+                return DriverManager.getConnection(url);
+            }
+            return DriverManager.getConnection(url, settings.toConfig(readOnly).toProperties());
         } catch (ClassNotFoundException e) {
             // This should not happen.
             throw new SQLDriverException("Driver for SQLite is missing.", e);
         }
     }
 
+    /**
+     * If this connector has {@link SQLiteSettings}, the manager uses a single writer connection
+     * and a pool of at most {@link SQLiteSettings#getReaders()} read-only connections. If pool
+     * settings are given as well, they are used for the pool of read-only connections instead.
+     * In-memory databases use the writer connection only. Without {@link SQLiteSettings}, the
+     * default provider is used.
+     * <p>
+     * The writer connection is held by one thread at a time. Queries executed by that thread
+     * meanwhile, e.g. while iterating a stream or in a transaction, use the same connection,
+     * see {@link ReentrantConnectionProvider}. Other threads wait up to {@link SQLiteSettings#getWriterTimeout()}
+     * milliseconds for it.
+     */
+    @NotNull
+    @Override
+    public ConnectionProvider createConnectionProvider(@Nullable PoolSettings poolSettings) throws SQLConnectionException {
+        if (settings == null) {
+            return Connector.super.createConnectionProvider(poolSettings);
+        }
+        if (snapshotFile != null) {
+            SQLiteSnapshotProvider provider = new SQLiteSnapshotProvider(this, snapshotFile, settings);
+            this.snapshotProvider = provider;
+            return provider;
+        }
+        // The writer is opened first, so that it sets the journal mode before any reader connects.
+        // A thread, that holds the writer, e.g. while iterating a stream, uses it for nested queries as well.
+        final ConnectionProvider writer = new ReentrantConnectionProvider(new ConnectionPool(this, PoolSettings.builder()
+                .setMinSize(1)
+                .setMaxSize(1)
+                .setBorrowTimeout(settings.getWriterTimeout())
+                .build()));
+        if (settings.getReaders() == 0 || inMemory) {
+            return writer;
+        }
+        try {
+            final ConnectionPool reader = new ConnectionPool(() -> connect(true), poolSettings != null ? poolSettings : PoolSettings.builder()
+                    .setMinSize(1)
+                    .setMaxSize(settings.getReaders())
+                    .build());
+            return new ReadWriteConnectionProvider(writer, reader);
+        } catch (SQLConnectionException e) {
+            writer.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Write a snapshot of the in-memory database to its file now, instead of waiting for the
+     * next periodic snapshot. The snapshot is only written if the database may have changed
+     * since the previous one.
+     *
+     * @throws IllegalStateException  If the database is not kept in memory with snapshots, or no
+     *                                {@link eu.decentsoftware.dropdatabase.DatabaseManager} uses this connector yet.
+     * @throws SQLConnectionException If the writer connection could not be acquired.
+     * @throws SQLQueryException      If the snapshot could not be written.
+     * @see SQLiteSnapshotSettings
+     */
+    public void snapshot() throws IllegalStateException, SQLConnectionException, SQLQueryException {
+        SQLiteSnapshotProvider provider = this.snapshotProvider;
+        if (provider == null) {
+            throw new IllegalStateException("This connector does not keep the database in memory with snapshots, or is not used yet.");
+        }
+        provider.snapshot();
+    }
+
+    /**
+     * SQLite handles existing rows using the ON CONFLICT clause, like PostgreSQL.
+     */
+    @NotNull
+    @Override
+    public Dialect getDialect() {
+        return OnConflictDialect.INSTANCE;
+    }
+
+    /**
+     * The SQLite driver only returns the key of the last inserted row, using {@code last_insert_rowid()}.
+     */
+    @Override
+    public boolean isReturningAllGeneratedKeys() {
+        return false;
+    }
+
 }
@@ -0,0 +1,208 @@
+package eu.decentsoftware.dropdatabase.connector;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.sqlite.SQLiteConfig;
+
+/**
+ * This class holds the settings of a {@link SQLiteConnector}, that tune SQLite for a high
+ * throughput. Instances are created using the {@link Builder} class.
+ * <p>
+ * The defaults enable the WAL journal mode, in which readers do not block the writer and the
+ * writer does not block readers, and relax the synchronization to NORMAL, which only syncs the
+ * journal at checkpoints. In this mode, a commit may be lost on a power failure, but the database
+ * is never corrupted. See the SQLite documentation of the respective PRAGMAs for details.
+ * <p>
+ * If {@link #getSnapshot()} is set, the database is kept in memory instead, see {@link SQLiteSnapshotSettings}.
+ *
+ * @author Tomas Plansky
+ * @see SQLiteConnector#SQLiteConnector(String, SQLiteSettings)
+ * @since 1.0.0
+ */
+@Getter
+public final class SQLiteSettings {
+
+    /**
+     * The journal mode of the database.
+     */
+    private final @NonNull SQLiteConfig.JournalMode journalMode;
+    /**
+     * The synchronization mode of the writer connection.
+     */
+    private final @NonNull SQLiteConfig.SynchronousMode synchronous;
+    /**
+     * The size of the page cache of each connection.
+     */
+    private final int cacheSize;
+    /**
+     * The maximum number of bytes of the database file, that are memory-mapped.
+     */
+    private final long mmapSize;
+    /**
+     * Where temporary tables and indices are stored.
+     */
+    private final @NonNull SQLiteConfig.TempStore tempStore;
+    /**
+     * The maximum time in milliseconds to wait for a lock held by another connection.
+     */
+    private final int busyTimeout;
+    /**
+     * The maximum number of read-only connections.
+     */
+    private final int readers;
+    /**
+     * The maximum time in milliseconds to wait for the writer connection.
+     */
+    private final long writerTimeout;
+    /**
+     * The settings of the snapshots of an in-memory database, or null if the database is a file.
+     */
+    private final @Nullable SQLiteSnapshotSettings snapshot;
+
+    /**
+     * Create new SQLite settings from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private SQLiteSettings(@NotNull Builder builder) {
+        if (builder.journalMode == null || builder.synchronous == null || builder.tempStore == null) {
+            throw new IllegalArgumentException("SQLite journal mode, synchronous mode and temp store must be set.");
+        }
+        if (builder.mmapSize < 0 || builder.busyTimeout < 0) {
+            throw new IllegalArgumentException("SQLite mmap size and busy timeout must not be negative.");
+        }
+        if (builder.readers < 0) {
+            throw new IllegalArgumentException("SQLite reader count must not be negative.");
+        }
+        if (builder.writerTimeout < 0) {
+            throw new IllegalArgumentException("SQLite writer timeout must not be negative.");
+        }
+        this.journalMode = builder.journalMode;
+        this.synchronous = builder.synchronous;
+        this.cacheSize = builder.cacheSize;
+        this.mmapSize = builder.mmapSize;
+        this.tempStore = builder.tempStore;
+        this.busyTimeout = builder.busyTimeout;
+        this.readers = builder.readers;
+        this.writerTimeout = builder.writerTimeout;
+        this.snapshot = builder.snapshot;
+    }
+
+    /**
+     * Create the configuration of the driver for a connection with these settings.
+     *
+     * @param readOnly Whether the connection is only used to read data.
+     * @return The configuration.
+     */
+    @NotNull
+    SQLiteConfig toConfig(boolean readOnly) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setCacheSize(cacheSize);
+        config.setTempStore(tempStore);
+        config.setBusyTimeout(busyTimeout);
+        if (snapshot != null) {
+            // The journal and the memory-mapping only apply to files.
+            return config;
+        }
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+        if (readOnly) {
+            // The journal mode is stored in the database, it was set by the writer already.
+            config.setReadOnly(true);
+        } else {
+            config.setJournalMode(journalMode);
+            config.setSynchronous(synchronous);
+        }
+        return config;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link SQLiteSettings} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The builder class for the {@link SQLiteSettings} class. This class
+     * is used to create a new {@link SQLiteSettings} instance.
+     *
+     * @author Tomas Plansky
+     * @see SQLiteSettings
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The journal mode of the database (PRAGMA journal_mode). The WAL mode lets readers
+         * run concurrently with the writer.
+         */
+        private SQLiteConfig.JournalMode journalMode = SQLiteConfig.JournalMode.WAL;
+        /**
+         * The synchronization mode of the writer connection (PRAGMA synchronous).
+         */
+        private SQLiteConfig.SynchronousMode synchronous = SQLiteConfig.SynchronousMode.NORMAL;
+        /**
+         * The size of the page cache of each connection (PRAGMA cache_size). Positive values
+         * are numbers of pages, negative values are numbers of KiB. By default, 64 MiB.
+         */
+        private int cacheSize = -65_536;
+        /**
+         * The maximum number of bytes of the database file, that are memory-mapped
+         * (PRAGMA mmap_size). By default, 256 MiB. Use 0 to disable memory-mapping.
+         */
+        private long mmapSize = 268_435_456L;
+        /**
+         * Where temporary tables and indices are stored (PRAGMA temp_store).
+         */
+        private SQLiteConfig.TempStore tempStore = SQLiteConfig.TempStore.MEMORY;
+        /**
+         * The maximum time in milliseconds to wait for a lock held by another connection
+         * (PRAGMA busy_timeout), e.g. during a checkpoint or if another process writes.
+         */
+        private int busyTimeout = 5_000;
+        /**
+         * The maximum number of read-only connections, that serve queries reading data.
+         * Use 0 to execute all queries on the writer connection.
+         */
+        private int readers = 4;
+        /**
+         * The maximum time in milliseconds to wait for the writer connection, while it
+         * is used by another thread.
+         */
+        private long writerTimeout = 30_000L;
+        /**
+         * The settings of the snapshots, if the database is kept in memory and only persisted
+         * to the file periodically. In this mode, all queries use the writer connection, since
+         * they run at memory speed anyway. By default, the database is a file.
+         */
+        private SQLiteSnapshotSettings snapshot;
+
+        /**
+         * Build the {@link SQLiteSettings} instance.
+         *
+         * @return The {@link SQLiteSettings} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public SQLiteSettings build() {
+            return new SQLiteSettings(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,297 @@
+package eu.decentsoftware.dropdatabase.connector;
+
+import eu.decentsoftware.dropdatabase.exception.SQLConnectionException;
+import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
+import eu.decentsoftware.dropdatabase.pool.ConnectionPool;
+import eu.decentsoftware.dropdatabase.pool.ConnectionProvider;
+import eu.decentsoftware.dropdatabase.pool.ManagedConnection;
+import eu.decentsoftware.dropdatabase.pool.PoolSettings;
+import eu.decentsoftware.dropdatabase.pool.PoolStats;
+import eu.decentsoftware.dropdatabase.pool.ReentrantConnectionProvider;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is an implementation of {@link ConnectionProvider}, which keeps a SQLite database
+ * in memory and persists it to a snapshot file using the online backup API of SQLite. This class
+ * is not intended to be used by the end user and is only used internally.
+ * <p>
+ * The in-memory database is shared by all connections of the connector. One connection is kept
+ * open for the whole lifetime of the provider, so that the database is not dropped when the other
+ * connections are closed. All queries use a single writer connection. A thread, that holds it,
+ * uses it for nested queries as well, see {@link ReentrantConnectionProvider}. A snapshot is written
+ * while holding the writer connection, so it never contains a half-finished write or transaction,
+ * but queries wait until the snapshot is written.
+ *
+ * @author Tomas Plansky
+ * @see SQLiteSnapshotSettings
+ * @since 1.0.0
+ */
+@ApiStatus.Internal
+public final class SQLiteSnapshotProvider implements ConnectionProvider {
+
+    private static final Logger LOGGER = Logger.getLogger("DropDatabase");
+
+    private final Path file;
+    private final Path temporaryFile;
+    private final Connection anchor;
+    private final ConnectionPool writerPool;
+    private final ReentrantConnectionProvider writer;
+    private final ScheduledExecutorService scheduler;
+    /**
+     * Whether the database may have changed since the last snapshot. This is set after the
+     * writer connection is acquired for anything but reading, so a snapshot, which holds
+     * the writer connection, never misses a change.
+     */
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    /**
+     * Create a new provider and load the database from the snapshot file, if it exists.
+     *
+     * @param connector The connector of the in-memory database.
+     * @param file      The snapshot file.
+     * @param settings  The settings of the connector.
+     * @throws SQLConnectionException If the connections could not be opened or the snapshot could not be loaded.
+     */
+    SQLiteSnapshotProvider(@NotNull SQLiteConnector connector, @NotNull String file, @NotNull SQLiteSettings settings) throws SQLConnectionException {
+        final SQLiteSnapshotSettings snapshotSettings = settings.getSnapshot();
+        if (snapshotSettings == null) {
+            throw new IllegalArgumentException("SQLite snapshot settings must be set.");
+        }
+        this.file = Paths.get(file).toAbsolutePath();
+        this.temporaryFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try {
+            this.anchor = connector.connect();
+            if (anchor == null) {
+                throw new SQLConnectionException("Failed to connect to the database.");
+            }
+        } catch (SQLException e) {
+            throw new SQLConnectionException("Failed to connect to the database.", e);
+        }
+        try {
+            load(snapshotSettings.getRecovery());
+            this.writerPool = new ConnectionPool(connector, PoolSettings.builder()
+                    .setMinSize(1)
+                    .setMaxSize(1)
+                    .setBorrowTimeout(settings.getWriterTimeout())
+                    .build());
+            this.writer = new ReentrantConnectionProvider(writerPool);
+        } catch (RuntimeException e) {
+            closeAnchor(e);
+            throw e;
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DropDatabase-SQLite-Snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = snapshotSettings.getInterval();
+        if (interval > 0) {
+            this.scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquire() throws SQLConnectionException {
+        ManagedConnection connection = writer.acquire();
+        dirty.set(true);
+        return connection;
+    }
+
+    @NotNull
+    @Override
+    public ManagedConnection acquireForRead(boolean exclusive) throws SQLConnectionException {
+        return writer.acquireForRead(exclusive);
+    }
+
+    @Override
+    public void release(@NotNull ManagedConnection connection) {
+        writer.release(connection);
+    }
+
+    @Override
+    public void invalidate(@NotNull ManagedConnection connection) {
+        writer.invalidate(connection);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned connection is the writer connection. Closing it returns it to the
+     * provider, so make sure to always close it.
+     */
+    @NotNull
+    @Override
+    public Connection getConnection() throws SQLConnectionException {
+        Connection connection = writer.getConnection();
+        dirty.set(true);
+        return connection;
+    }
+
+    @NotNull
+    @Override
+    public PoolStats getStats() {
+        return writer.getStats();
+    }
+
+    /**
+     * Write a snapshot of the database to the snapshot file, if the database may have changed
+     * since the last one. This waits until the writer connection is free, also if the current
+     * thread holds it, so the snapshot never contains its unfinished transaction.
+     *
+     * @throws SQLConnectionException If the writer connection could not be acquired.
+     * @throws SQLQueryException      If the snapshot could not be written.
+     */
+    public void snapshot() throws SQLConnectionException, SQLQueryException {
+        final ManagedConnection connection = writerPool.acquire();
+        try {
+            if (!dirty.getAndSet(false)) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(temporaryFile);
+                int result = connection.getConnection().unwrap(SQLiteConnection.class).getDatabase()
+                        .backup("main", temporaryFile.toString(), null);
+                if (result != 0) {
+                    throw new SQLException("Backup failed with the result code " + result + ".");
+                }
+                // The previous snapshot is replaced at once, so a crash never leaves a half-written one.
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (SQLException | IOException e) {
+                dirty.set(true);
+                throw new SQLQueryException("Failed to write the snapshot to " + file + ".", e);
+            }
+        } finally {
+            writerPool.release(connection);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A last snapshot is written before the connections are closed.
+     */
+    @Override
+    public void close() throws SQLConnectionException {
+        scheduler.shutdown();
+        try {
+            // Let a running snapshot finish, so that it does not overwrite the last one.
+            scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        RuntimeException failure = null;
+        try {
+            snapshot();
+        } catch (SQLConnectionException | SQLQueryException e) {
+            failure = e;
+        }
+        writer.close();
+        closeAnchor(failure);
+        if (failure != null) {
+            throw new SQLConnectionException("Failed to write the last snapshot, changes since the previous one are lost.", failure);
+        }
+    }
+
+    /**
+     * Load the database from the snapshot file. A temporary file left by a snapshot, that
+     * was interrupted by a crash, is incomplete and deleted.
+     *
+     * @param recovery What happens if the snapshot file cannot be loaded.
+     * @throws SQLConnectionException If the snapshot could not be loaded and the recovery is {@link SQLiteSnapshotSettings.Recovery#FAIL}.
+     */
+    private void load(@NotNull SQLiteSnapshotSettings.Recovery recovery) throws SQLConnectionException {
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+            throw new SQLConnectionException("Failed to delete the incomplete snapshot " + temporaryFile + ".", e);
+        }
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            verify();
+            int result = anchor.unwrap(SQLiteConnection.class).getDatabase().restore("main", file.toString(), null);
+            if (result != 0) {
+                throw new SQLException("Restore failed with the result code " + result + ".");
+            }
+        } catch (SQLException e) {
+            if (recovery == SQLiteSnapshotSettings.Recovery.FAIL) {
+                throw new SQLConnectionException("Failed to load the snapshot " + file + ".", e);
+            }
+            Path corruptFile = file.resolveSibling(file.getFileName() + ".corrupt");
+            LOGGER.log(Level.WARNING, "Failed to load the snapshot " + file + ", moving it to " + corruptFile + " and starting with an empty database.", e);
+            try {
+                Files.move(file, corruptFile, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException moveException) {
+                throw new SQLConnectionException("Failed to move the snapshot " + file + ".", moveException);
+            }
+        }
+    }
+
+    /**
+     * Check, that the snapshot file is a valid database. The driver does not report all
+     * errors when restoring a database, so the file is checked on a separate connection first.
+     *
+     * @throws SQLException If the file is not a valid database.
+     */
+    private void verify() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file, config.toProperties());
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA quick_check")) {
+            String result = rs.next() ? rs.getString(1) : null;
+            if (!"ok".equals(result)) {
+                throw new SQLException("The snapshot is damaged: " + result);
+            }
+        }
+    }
+
+    /**
+     * Write a snapshot on the background thread. Exceptions must not escape, otherwise the
+     * periodic snapshots would stop.
+     */
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException | Error e) {
+            LOGGER.log(Level.SEVERE, "Failed to write the snapshot of the SQLite database.", e);
+        }
+    }
+
+    private void closeAnchor(@Nullable Exception failure) {
+        try {
+            anchor.close();
+        } catch (SQLException e) {
+            if (failure != null) {
+                failure.addSuppressed(e);
+            } else {
+                LOGGER.log(Level.WARNING, "Failed to close the SQLite connection.", e);
+            }
+        }
+    }
+
+}
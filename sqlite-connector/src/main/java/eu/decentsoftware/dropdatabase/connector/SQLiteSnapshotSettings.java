@@ -0,0 +1,119 @@
+package eu.decentsoftware.dropdatabase.connector;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class holds the settings of an in-memory SQLite database, that is persisted to a snapshot
+ * file. Instances are created using the {@link Builder} class and passed to the connector using
+ * {@link SQLiteSettings.Builder#setSnapshot(SQLiteSnapshotSettings)}.
+ * <p>
+ * The database is loaded from the snapshot file when the {@link eu.decentsoftware.dropdatabase.DatabaseManager}
+ * is created, and written back every {@link #getInterval()} milliseconds and when the manager is closed.
+ * A snapshot is written to a temporary file first and then moved over the previous one, so the snapshot
+ * file is never left half-written. After a crash, the database is restored to the last complete snapshot,
+ * and all changes made after it are lost.
+ *
+ * @author Tomas Plansky
+ * @see SQLiteSnapshotProvider
+ * @since 1.0.0
+ */
+@Getter
+public final class SQLiteSnapshotSettings {
+
+    /**
+     * The time in milliseconds between two snapshots.
+     */
+    private final long interval;
+    /**
+     * What happens if the snapshot file cannot be loaded.
+     */
+    private final @NonNull Recovery recovery;
+
+    /**
+     * Create new snapshot settings from the given builder.
+     *
+     * @param builder The builder.
+     * @see Builder
+     */
+    private SQLiteSnapshotSettings(@NotNull Builder builder) {
+        if (builder.interval < 0) {
+            throw new IllegalArgumentException("SQLite snapshot interval must not be negative.");
+        }
+        if (builder.recovery == null) {
+            throw new IllegalArgumentException("SQLite snapshot recovery must be set.");
+        }
+        this.interval = builder.interval;
+        this.recovery = builder.recovery;
+    }
+
+    /**
+     * Create a new instance of the {@link Builder} class. This builder
+     * is used to create a new {@link SQLiteSnapshotSettings} instance.
+     *
+     * @return The builder.
+     */
+    @NotNull
+    @Contract(value = " -> new", pure = true)
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * What happens if the snapshot file exists, but cannot be loaded, e.g. because it was
+     * damaged outside of this library.
+     */
+    public enum Recovery {
+        /**
+         * Fail to create the connections, so that the file can be inspected or repaired.
+         */
+        FAIL,
+        /**
+         * Rename the file by appending {@code .corrupt} to its name and start with an empty database.
+         */
+        DISCARD
+    }
+
+    /**
+     * The builder class for the {@link SQLiteSnapshotSettings} class. This class
+     * is used to create a new {@link SQLiteSnapshotSettings} instance.
+     *
+     * @author Tomas Plansky
+     * @see SQLiteSnapshotSettings
+     * @see Builder#build()
+     * @since 1.0.0
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Builder {
+
+        /**
+         * The time in milliseconds between two snapshots. A snapshot is only written if the
+         * database may have changed since the previous one. Use 0 to only write a snapshot
+         * when the manager is closed or {@link SQLiteConnector#snapshot()} is called.
+         */
+        private long interval = 60_000L;
+        /**
+         * What happens if the snapshot file cannot be loaded.
+         */
+        private Recovery recovery = Recovery.FAIL;
+
+        /**
+         * Build the {@link SQLiteSnapshotSettings} instance.
+         *
+         * @return The {@link SQLiteSnapshotSettings} instance.
+         * @throws IllegalArgumentException If the settings are invalid.
+         */
+        @NotNull
+        public SQLiteSnapshotSettings build() {
+            return new SQLiteSnapshotSettings(this);
+        }
+
+    }
+
+}
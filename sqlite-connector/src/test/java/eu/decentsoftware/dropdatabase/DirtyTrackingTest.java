@@ -0,0 +1,110 @@
+package eu.decentsoftware.dropdatabase;
+
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.connector.SQLiteConnector;
+import eu.decentsoftware.dropdatabase.listener.QueryEvent;
+import eu.decentsoftware.dropdatabase.listener.QueryListener;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DirtyTrackingTest {
+
+    private final List<String> updates = Collections.synchronizedList(new ArrayList<>());
+    private DatabaseManager databaseManager;
+
+    @Before
+    public void setUp() {
+        databaseManager = DatabaseManager.builder()
+                .setConnector(new SQLiteConnector(SQLiteConnector.MEMORY))
+                .setDirtyTracking(true)
+                .build();
+        databaseManager.createORMTable(Player.class, false);
+        databaseManager.saveORMObject(new Player(1, "player", 10));
+        databaseManager.addQueryListener(new QueryListener() {
+            @Override
+            public void afterQuery(@NotNull QueryEvent event) {
+                if (event.getType() == QueryEvent.Type.UPDATE) {
+                    updates.add(event.getSql());
+                }
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    public void unchangedObjectIsNotWritten() {
+        Player player = load();
+        databaseManager.saveORMObject(player);
+        assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    public void changedColumnsAreUpdated() {
+        Player player = load();
+        player.score = 20;
+        databaseManager.saveORMObject(player);
+        assertEquals(Collections.singletonList("UPDATE players SET \"score\" = ? WHERE \"id\" = ?"), updates);
+        assertEquals(20, load().score);
+
+        // The saved values are the new snapshot.
+        databaseManager.saveORMObject(player);
+        assertEquals(1, updates.size());
+    }
+
+    @Test
+    public void deletedRowIsInsertedAgain() {
+        Player player = load();
+        databaseManager.executeUpdate(PreparedQuery.of("DELETE FROM players"));
+        player.score = 30;
+        databaseManager.saveORMObject(player);
+
+        Player saved = load();
+        assertEquals("player", saved.name);
+        assertEquals(30, saved.score);
+    }
+
+    @NotNull
+    private Player load() {
+        List<Player> players = databaseManager.loadORMObjects(Player.class, (builder) -> {
+        });
+        assertEquals(1, players.size());
+        return players.get(0);
+    }
+
+    @DatabaseTable(name = "players", database = "")
+    public static class Player {
+
+        @DatabaseColumn(name = "id", type = "INTEGER", primaryKey = true)
+        private int id;
+        @DatabaseColumn(name = "name", type = "VARCHAR(32)")
+        private String name;
+        @DatabaseColumn(name = "score", type = "INTEGER")
+        private int score;
+
+        public Player() {
+        }
+
+        public Player(int id, String name, int score) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+        }
+
+    }
+
+}
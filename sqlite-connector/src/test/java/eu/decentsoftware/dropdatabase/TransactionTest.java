@@ -0,0 +1,84 @@
+package eu.decentsoftware.dropdatabase;
+
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.connector.SQLiteConnector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+public class TransactionTest {
+
+    private DatabaseManager databaseManager;
+
+    @Before
+    public void setUp() {
+        databaseManager = DatabaseManager.builder()
+                .setConnector(new SQLiteConnector(SQLiteConnector.MEMORY))
+                .build();
+        databaseManager.createORMTable(Note.class, false);
+    }
+
+    @After
+    public void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    public void generatedKeysAreKeptAfterCommit() {
+        Note note = new Note("first");
+        databaseManager.inTransaction((manager) -> {
+            manager.saveORMObject(note);
+            return null;
+        });
+        assertNotEquals(0, note.id);
+    }
+
+    @Test
+    public void generatedKeysAreRemovedAfterRollback() {
+        List<Note> notes = Arrays.asList(new Note("first"), new Note("second"));
+        try {
+            databaseManager.inTransaction((manager) -> {
+                manager.saveORMObjects(notes);
+                assertNotEquals(0, notes.get(0).id);
+                throw new IllegalStateException("rollback");
+            });
+            fail("The transaction was not rolled back.");
+        } catch (IllegalStateException e) {
+            assertEquals("rollback", e.getMessage());
+        }
+        assertEquals(0, notes.get(0).id);
+        assertEquals(0, notes.get(1).id);
+
+        // The objects are inserted as new rows, instead of overwriting rows with reused keys.
+        databaseManager.saveORMObject(new Note("other"));
+        databaseManager.saveORMObjects(notes);
+        assertEquals(3, databaseManager.loadORMObjects(Note.class, (builder) -> {
+        }).size());
+    }
+
+    @DatabaseTable(name = "notes", database = "")
+    public static class Note {
+
+        @DatabaseColumn(name = "id", type = "INTEGER", primaryKey = true, autoIncrement = true)
+        private long id;
+        @DatabaseColumn(name = "text", type = "VARCHAR(32)")
+        private String text;
+
+        public Note() {
+        }
+
+        public Note(String text) {
+            this.text = text;
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package eu.decentsoftware.dropdatabase.connector;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.query.PreparedQuery;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+public class SQLiteConnectorTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private DatabaseManager databaseManager;
+
+    @After
+    public void tearDown() {
+        if (databaseManager != null) {
+            databaseManager.close();
+        }
+    }
+
+    @Test
+    public void nestedQueriesUseTheWriterOfTheirThreadInMemory() {
+        open(SQLiteConnector.MEMORY, settings().build());
+        assertNestedQueries(databaseManager);
+    }
+
+    @Test
+    public void nestedQueriesUseTheWriterOfTheirThreadWithoutReaders() throws IOException {
+        open(folder.newFile("test.db").getAbsolutePath(), settings().setReaders(0).build());
+        assertNestedQueries(databaseManager);
+    }
+
+    @Test
+    public void nestedQueriesUseTheWriterOfTheirThreadWithSnapshots() {
+        SQLiteSnapshotSettings snapshot = SQLiteSnapshotSettings.builder().setInterval(0L).build();
+        open(new File(folder.getRoot(), "snapshot.db").getAbsolutePath(), settings().setSnapshot(snapshot).build());
+        assertNestedQueries(databaseManager);
+    }
+
+    @NotNull
+    private static SQLiteSettings.Builder settings() {
+        return SQLiteSettings.builder().setWriterTimeout(1_000L);
+    }
+
+    private void open(@NotNull String path, @NotNull SQLiteSettings settings) {
+        databaseManager = DatabaseManager.builder()
+                .setConnector(new SQLiteConnector(path, settings))
+                .build();
+        databaseManager.createORMTable(Item.class, false);
+        for (int id = 1; id <= 3; id++) {
+            databaseManager.saveORMObject(new Item(id, 0));
+        }
+    }
+
+    /**
+     * Execute queries while iterating a stream and while handling the result of a query, both
+     * of which hold the only writer connection. They would time out, if they waited for another one.
+     */
+    private static void assertNestedQueries(@NotNull DatabaseManager databaseManager) {
+        try (Stream<Item> stream = databaseManager.streamORMObjects(Item.class, (builder) -> {
+        })) {
+            stream.forEach((item) -> {
+                item.count++;
+                databaseManager.saveORMObject(item);
+            });
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        databaseManager.executeQuery(PreparedQuery.of("SELECT id FROM items"), (rs) -> {
+            databaseManager.executeQuery(PreparedQuery.of("SELECT SUM(count) FROM items"), (sum) -> {
+                try {
+                    sum.next();
+                    count.set(sum.getInt(1));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        });
+        assertEquals(3, count.get());
+
+        databaseManager.inTransaction((manager) -> {
+            List<Item> items = manager.loadORMObjects(Item.class, (builder) -> {
+            });
+            manager.saveORMObjects(items);
+            return null;
+        });
+    }
+
+    @DatabaseTable(name = "items", database = "")
+    public static class Item {
+
+        @DatabaseColumn(name = "id", type = "INTEGER", primaryKey = true)
+        private int id;
+        @DatabaseColumn(name = "count", type = "INTEGER")
+        private int count;
+
+        public Item() {
+        }
+
+        public Item(int id, int count) {
+            this.id = id;
+            this.count = count;
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package eu.decentsoftware.dropdatabase.shard;
+
+import eu.decentsoftware.dropdatabase.DatabaseManager;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseColumn;
+import eu.decentsoftware.dropdatabase.annotations.DatabaseTable;
+import eu.decentsoftware.dropdatabase.connector.SQLiteConnector;
+import eu.decentsoftware.dropdatabase.exception.SQLQueryException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+public class ShardedDatabaseManagerTest {
+
+    private ShardedDatabaseManager shardedManager;
+
+    @Before
+    public void setUp() {
+        shardedManager = ShardedDatabaseManager.builder()
+                .addShard("shard-1", open())
+                .addShard("shard-2", open())
+                .build();
+        shardedManager.createORMTable(Player.class, false);
+        List<Player> players = new ArrayList<>();
+        for (int id = 1; id <= 20; id++) {
+            players.add(new Player(id, "player-" + id, id * 10));
+        }
+        shardedManager.saveORMObjects(players);
+    }
+
+    @After
+    public void tearDown() {
+        shardedManager.close();
+    }
+
+    @Test
+    public void playersAreSplitBetweenShards() {
+        int first = shardedManager.getShard("shard-1").loadORMObjects(Player.class, (builder) -> {
+        }).size();
+        assertNotEquals(0, first);
+        assertNotEquals(20, first);
+    }
+
+    @Test
+    public void mergedResultsAreOrderedAndPaged() {
+        List<Player> players = shardedManager.loadORMObjects(Player.class, (builder) -> builder
+                .setOrderBy("score")
+                .setDescending(true)
+                .setLimit(3)
+                .setOffset(2));
+        assertEquals(Arrays.asList(18, 17, 16), ids(players));
+
+        players = shardedManager.loadORMObjects(Player.class, (builder) -> builder
+                .setOrderByColumns("score", "id")
+                .setLimit(2));
+        assertEquals(Arrays.asList(1, 2), ids(players));
+    }
+
+    @Test
+    public void mergedResultsCannotBeOrderedByText() {
+        try {
+            shardedManager.loadORMObjects(Player.class, (builder) -> builder.setOrderBy("name").setLimit(3));
+            fail("Results were ordered by a text column.");
+        } catch (SQLQueryException e) {
+            // Expected, the collations of the shards might differ from the order in Java.
+        }
+    }
+
+    @Test
+    public void mergedResultsCannotBeOrderedByNullValues() {
+        shardedManager.saveORMObjects(Arrays.asList(new Player(21, "a", null), new Player(22, "b", null)));
+        try {
+            shardedManager.loadORMObjects(Player.class, (builder) -> builder.setOrderBy("score"));
+            fail("Results were ordered by null values.");
+        } catch (SQLQueryException e) {
+            // Expected, the shards might order null values differently.
+        }
+    }
+
+    @NotNull
+    private static DatabaseManager open() {
+        return DatabaseManager.builder()
+                .setConnector(new SQLiteConnector(SQLiteConnector.MEMORY))
+                .build();
+    }
+
+    @NotNull
+    private static List<Integer> ids(@NotNull List<Player> players) {
+        List<Integer> ids = new ArrayList<>();
+        for (Player player : players) {
+            ids.add(player.id);
+        }
+        return ids;
+    }
+
+    @DatabaseTable(name = "players", database = "")
+    public static class Player {
+
+        @DatabaseColumn(name = "id", type = "INTEGER", primaryKey = true)
+        private int id;
+        @DatabaseColumn(name = "name", type = "VARCHAR(32)")
+        private String name;
+        @DatabaseColumn(name = "score", type = "INTEGER")
+        private Integer score;
+
+        public Player() {
+        }
+
+        public Player(int id, String name, Integer score) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+        }
+
+    }
+
+}